@@ -0,0 +1,35 @@
+package builder.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler enabled, so every result reports allocation rate
+ * ({@code gc.alloc.rate.norm}, bytes per operation) next to throughput.
+ *
+ * <p>The benchmarks need JMH ({@code org.openjdk.jmh:jmh-core}) on the classpath and its
+ * annotation processor ({@code jmh-generator-annprocess}) enabled when compiling {@code bench/}
+ * together with {@code src/}. Standard JMH options may be passed, e.g.
+ * {@code java builder.bench.BenchmarkMain WorldBenchmark -p size=512}.
+ */
+public final class BenchmarkMain {
+    private BenchmarkMain() {
+    }
+
+    /**
+     * Runs the benchmarks selected by the command line, or all of them if none are selected.
+     *
+     * @param args JMH command line options
+     * @throws Exception if the options are invalid or a benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,66 @@
+package builder.bench;
+
+import builder.entities.tiles.Tile;
+import builder.world.BeanWorld;
+import builder.world.WorldBuilder;
+import engine.renderer.Dimensions;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of loading text maps with {@link WorldBuilder}, over a range of map sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoaderBenchmark {
+    @Param({"32", "128", "512"})
+    public int size;
+
+    private Dimensions dimensions;
+    private String text;
+    private Path file;
+
+    @Setup
+    public void setUp() throws Exception {
+        dimensions = Maps.dimensions(size);
+        text = Maps.generate(size, 1);
+        file = Files.createTempFile("bench-" + size + "-", ".map");
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public List<Tile> fromString() throws Exception {
+        return WorldBuilder.fromString(dimensions, text);
+    }
+
+    @Benchmark
+    public BeanWorld fromFile() throws Exception {
+        return WorldBuilder.fromFile(dimensions, file.toString());
+    }
+}
@@ -0,0 +1,58 @@
+package builder.bench;
+
+import builder.HeadlessRunner;
+import engine.renderer.Dimensions;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates world maps of any size for the benchmarks.
+ */
+final class Maps {
+    /**
+     * Width and height of a tile in the benchmark worlds, in pixels.
+     */
+    static final int TILE_SIZE = 25;
+
+    private Maps() {
+    }
+
+    /**
+     * Returns dimensions whose window fits a square map of the given size exactly.
+     *
+     * @param size the width and height of the map, in tiles
+     * @return the dimensions
+     */
+    static Dimensions dimensions(int size) {
+        return new HeadlessRunner.HeadlessDimensions(TILE_SIZE, size * TILE_SIZE);
+    }
+
+    /**
+     * Generates a square map in the text format: mostly grass, with patches of dirt, water and
+     * ore veins. The same seed always gives the same map.
+     *
+     * @param size the width and height of the map, in tiles
+     * @param seed the random seed
+     * @return the map text
+     */
+    static String generate(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder text = new StringBuilder(size * (size + 1));
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int roll = random.nextInt(100);
+                if (roll < 70) {
+                    text.append('g');
+                } else if (roll < 85) {
+                    text.append('d');
+                } else if (roll < 95) {
+                    text.append('o');
+                } else {
+                    text.append('w');
+                }
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+}
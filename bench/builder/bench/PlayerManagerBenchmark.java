@@ -0,0 +1,82 @@
+package builder.bench;
+
+import builder.GameState;
+import builder.HeadlessRunner;
+import builder.InputRecording;
+import builder.JavaBeanGameState;
+import builder.inventory.TinyInventory;
+import builder.player.InputSource;
+import builder.player.PlayerManager;
+import builder.ui.AnimationClock;
+import builder.world.BeanWorld;
+import builder.world.WorldBuilder;
+import engine.renderer.Dimensions;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link PlayerManager#tick} while the players walk back and forth, over a range of
+ * map sizes and numbers of players. Extra players replay the same walk out of step with each
+ * other, spread over the middle of the map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerManagerBenchmark {
+    @Param({"32", "128", "512"})
+    public int size;
+
+    @Param({"1", "100", "1000"})
+    public int players;
+
+    private final AnimationClock animations = new AnimationClock();
+    private PlayerManager playerManager;
+    private HeadlessRunner.HeadlessState state;
+    private GameState game;
+    private int frame = 0;
+
+    @Setup
+    public void setUp() throws Exception {
+        Dimensions dimensions = Maps.dimensions(size);
+        BeanWorld world = WorldBuilder.fromTiles(
+                WorldBuilder.fromString(dimensions, Maps.generate(size, 1)));
+        int centre = dimensions.windowSize() / 2;
+        playerManager = new PlayerManager(centre, centre, animations);
+        game = new JavaBeanGameState(world, playerManager.getPlayer(), new TinyInventory(4));
+        InputRecording walk = new InputRecording();
+        for (int frame = 0; frame < 200; frame++) {
+            walk.add(frame < 100 ? "d" : "a", false);
+        }
+        int spread = dimensions.windowSize() / 2;
+        for (int i = 1; i < players; i++) {
+            int x = spread / 2 + (i * 7919) % spread;
+            int y = spread / 2 + (i * 104729) % spread;
+            playerManager.addPlayer(x, y, new TinyInventory(4), InputSource.replaying(walk, i));
+        }
+        state = new HeadlessRunner.HeadlessState(dimensions);
+    }
+
+    @Benchmark
+    public PlayerManager tick() {
+        // 100 ticks east, then 100 ticks west, so the player stays near the centre.
+        state.next((frame++ / 100 & 1) == 0 ? "d" : "a", false);
+        animations.advance();
+        playerManager.tick(state, game);
+        return playerManager;
+    }
+}
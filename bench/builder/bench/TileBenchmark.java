@@ -0,0 +1,75 @@
+package builder.bench;
+
+import builder.HeadlessRunner;
+import builder.entities.tiles.Dirt;
+import builder.entities.tiles.Tile;
+import engine.EngineState;
+import engine.game.Entity;
+import engine.game.HasTick;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link Tile#tick} with stacks of increasing depth.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TileBenchmark {
+    @Param({"1", "16", "256"})
+    public int depth;
+
+    private Tile tile;
+    private HeadlessRunner.HeadlessState state;
+
+    @Setup
+    public void setUp() {
+        tile = new Dirt(0, 0);
+        for (int i = 0; i < depth; i++) {
+            tile.placeOn(new Counter());
+        }
+        state = new HeadlessRunner.HeadlessState(Maps.dimensions(1));
+    }
+
+    @Benchmark
+    public Tile tick() {
+        tile.tick(state);
+        return tile;
+    }
+
+    @Benchmark
+    public boolean hasTickingEntities() {
+        return tile.hasTickingEntities();
+    }
+
+    /**
+     * A stacked entity that does almost nothing when ticked, so the tile's own overhead shows.
+     */
+    private static class Counter extends Entity implements HasTick {
+        private long ticks;
+
+        Counter() {
+            super(0, 0);
+        }
+
+        @Override
+        public void tick(EngineState state) {
+            ticks++;
+        }
+    }
+}
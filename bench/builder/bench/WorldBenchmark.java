@@ -0,0 +1,156 @@
+package builder.bench;
+
+import builder.GameState;
+import builder.HeadlessRunner;
+import builder.JavaBeanGameState;
+import builder.entities.tiles.Grass;
+import builder.entities.tiles.Tile;
+import builder.world.BeanWorld;
+import builder.world.Viewport;
+import builder.world.WorldBuilder;
+import engine.renderer.Dimensions;
+import engine.renderer.Renderable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link BeanWorld} queries, ticking and rendering over a range of map sizes.
+ *
+ * <p>The world retains its render lists until it changes, so {@link #render()} and
+ * {@link #renderViewport()} mostly measure handing back a retained list (or, for viewports,
+ * rebuilding it for a different viewport). The {@code Dirty} variants replace a tile before each
+ * call, outside the measured time, so every call rebuilds its list from scratch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorldBenchmark {
+    private static final int POSITIONS = 1024;
+
+    @Param({"32", "128", "512"})
+    public int size;
+
+    private Dimensions dimensions;
+    private BeanWorld world;
+    private HeadlessRunner.HeadlessState state;
+    private GameState game;
+    private final int[] xs = new int[POSITIONS];
+    private final int[] ys = new int[POSITIONS];
+    private final List<Tile> buffer = new ArrayList<>();
+    private Viewport[] viewports;
+    private int next = 0;
+
+    @Setup
+    public void setUp() throws Exception {
+        dimensions = Maps.dimensions(size);
+        world = WorldBuilder.fromTiles(
+                WorldBuilder.fromString(dimensions, Maps.generate(size, 1)));
+        state = new HeadlessRunner.HeadlessState(dimensions);
+        game = new JavaBeanGameState(world, null, null);
+
+        SplittableRandom random = new SplittableRandom(2);
+        for (int i = 0; i < POSITIONS; i++) {
+            xs[i] = random.nextInt(dimensions.windowSize());
+            ys[i] = random.nextInt(dimensions.windowSize());
+        }
+
+        // Alternating between two viewports defeats the retained viewport render list. Each
+        // covers at most half the map, so the two never coincide, whatever the map size.
+        int window = Math.min(dimensions.windowSize() / 2, 32 * Maps.TILE_SIZE);
+        viewports = new Viewport[] {
+            new Viewport(0, 0, window, window),
+            new Viewport(dimensions.windowSize() - window, dimensions.windowSize() - window,
+                    window, window)
+        };
+    }
+
+    private int nextPosition() {
+        next = (next + 1) & (POSITIONS - 1);
+        return next;
+    }
+
+    /**
+     * Replaces the top tile at the next random position with fresh grass, which invalidates the
+     * world's retained render lists. The replaced tile is removed by ticking the world, so the
+     * number of tiles stays the same.
+     */
+    private void replaceTile() {
+        int i = nextPosition();
+        List<Tile> tiles = world.tilesAtPosition(xs[i], ys[i], dimensions);
+        Tile replaced = tiles.get(tiles.size() - 1);
+        replaced.markForRemoval();
+        state.next("", false);
+        world.tick(state, game);
+        world.place(new Grass(replaced.getX(), replaced.getY()));
+    }
+
+    @Benchmark
+    public List<Tile> tilesAtPosition() {
+        int i = nextPosition();
+        return world.tilesAtPosition(xs[i], ys[i], dimensions);
+    }
+
+    @Benchmark
+    public int tilesAtPositionBuffered() {
+        int i = nextPosition();
+        return world.tilesAtPosition(xs[i], ys[i], dimensions, buffer);
+    }
+
+    @Benchmark
+    public BeanWorld tick() {
+        state.next("", false);
+        world.tick(state, game);
+        return world;
+    }
+
+    @Benchmark
+    public List<Renderable> render() {
+        return world.render();
+    }
+
+    @Benchmark
+    public List<Renderable> renderViewport() {
+        return world.render(viewports[nextPosition() & 1], dimensions);
+    }
+
+    @Benchmark
+    public List<Renderable> renderDirty(Dirtier dirtier) {
+        return world.render();
+    }
+
+    @Benchmark
+    public List<Renderable> renderViewportDirty(Dirtier dirtier) {
+        return world.render(viewports[0], dimensions);
+    }
+
+    /**
+     * Changes the world before every call of the benchmarks that take it, so no retained render
+     * list can be reused.
+     */
+    @State(Scope.Thread)
+    public static class Dirtier {
+        @Setup(Level.Invocation)
+        public void dirty(WorldBenchmark benchmark) {
+            benchmark.replaceTile();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package builder;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Paces a simulation at a fixed number of steps per second, independently of how often the engine
+ * delivers frames, and optionally limits how often frames are rendered.
+ *
+ * <p>Call {@link #advance()} once per engine frame. The time since the previous frame is added to
+ * an accumulator, and one simulation step is owed for every whole step interval it holds, so the
+ * simulation runs at the same speed on fast and slow machines. After a long stall the number of
+ * steps owed is capped at the maximum catch-up; the remaining backlog is dropped (see
+ * {@link #droppedSteps()}) rather than freezing the game while it catches up.
+ *
+ * <p>{@link #shouldRender()} allows a frame to be rendered at most at the configured render rate,
+ * so weak machines can rebuild their frames less often than they simulate. It cannot stop the
+ * engine from drawing a frame: a game that skips a render hands back its previous frame, and the
+ * engine draws that instead.
+ */
+public class FixedTimestep {
+    /**
+     * Default maximum number of steps run in a single frame.
+     */
+    public static final int DEFAULT_MAX_CATCH_UP = 5;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long stepNanos;
+    private final long frameNanos;
+    private final int maxCatchUp;
+    private final LongSupplier clock;
+    private long last = -1;
+    private long accumulator = 0;
+    private long sinceRender;
+    private long droppedSteps = 0;
+
+    /**
+     * Creates a fixed timestep driven by {@link System#nanoTime()}, with the default catch-up cap.
+     *
+     * @param stepsPerSecond  how many simulation steps to run per second
+     * @param framesPerSecond the maximum number of frames to render per second, or 0 to render
+     *     every frame
+     */
+    public FixedTimestep(double stepsPerSecond, double framesPerSecond) {
+        this(stepsPerSecond, framesPerSecond, DEFAULT_MAX_CATCH_UP, System::nanoTime);
+    }
+
+    /**
+     * Creates a fixed timestep.
+     *
+     * @param stepsPerSecond  how many simulation steps to run per second
+     * @param framesPerSecond the maximum number of frames to render per second, or 0 to render
+     *     every frame
+     * @param maxCatchUp      the maximum number of steps to run in a single frame
+     * @param clock           the time source, in nanoseconds
+     * @throws IllegalArgumentException if stepsPerSecond or maxCatchUp is not positive, or
+     *     framesPerSecond is negative
+     */
+    public FixedTimestep(double stepsPerSecond, double framesPerSecond, int maxCatchUp,
+                         LongSupplier clock) {
+        if (stepsPerSecond <= 0 || framesPerSecond < 0 || maxCatchUp < 1) {
+            throw new IllegalArgumentException("Invalid timestep: " + stepsPerSecond
+                    + " steps/s, " + framesPerSecond + " frames/s, catch-up " + maxCatchUp);
+        }
+        this.stepNanos = Math.max(1, Math.round(NANOS_PER_SECOND / stepsPerSecond));
+        this.frameNanos = framesPerSecond == 0 ? 0 : Math.round(NANOS_PER_SECOND / framesPerSecond);
+        this.maxCatchUp = maxCatchUp;
+        this.clock = clock;
+        // The first frame is always rendered.
+        this.sinceRender = frameNanos;
+    }
+
+    /**
+     * Accounts for the time since the previous call and returns how many simulation steps to run
+     * now. The first call only starts the clock, and returns 0.
+     *
+     * @return the number of steps to run, between 0 and the maximum catch-up
+     */
+    public int advance() {
+        long now = clock.getAsLong();
+        if (last < 0) {
+            last = now;
+            return 0;
+        }
+        long elapsed = Math.max(0, now - last);
+        last = now;
+        accumulator += elapsed;
+        sinceRender += elapsed;
+
+        long owed = accumulator / stepNanos;
+        if (owed > maxCatchUp) {
+            droppedSteps += owed - maxCatchUp;
+            accumulator %= stepNanos;
+            return maxCatchUp;
+        }
+        accumulator -= owed * stepNanos;
+        return (int) owed;
+    }
+
+    /**
+     * Whether a frame should be rendered now. Returns true at most once per render interval, and
+     * always when no render rate was set.
+     *
+     * @return true if the frame should be rendered
+     */
+    public boolean shouldRender() {
+        if (frameNanos == 0) {
+            return true;
+        }
+        if (sinceRender < frameNanos) {
+            return false;
+        }
+        // Keep the remainder so the average rate holds, but never owe more than one frame.
+        sinceRender = Math.min(sinceRender - frameNanos, frameNanos);
+        return true;
+    }
+
+    /**
+     * Returns how far the simulation is between its last step and the next one, e.g. for
+     * interpolating positions when rendering.
+     *
+     * @return the fraction of a step accumulated, from 0 (inclusive) to 1 (exclusive)
+     */
+    public double interpolation() {
+        return (double) accumulator / stepNanos;
+    }
+
+    /**
+     * Returns the total number of steps that were owed but dropped by the catch-up cap.
+     *
+     * @return the number of dropped steps
+     */
+    public long droppedSteps() {
+        return droppedSteps;
+    }
+}
@@ -0,0 +1,243 @@
+package builder;
+
+import builder.inventory.Inventory;
+import builder.inventory.items.Bucket;
+import builder.inventory.items.Hoe;
+import builder.inventory.items.Item;
+import builder.inventory.items.Jackhammer;
+import builder.world.BeanWorld;
+import builder.world.BinaryMapFormat;
+import builder.world.WorldBuilder;
+import builder.world.WorldLoadException;
+import engine.renderer.Dimensions;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A saved copy of a running game: the world (including tilled dirt, crop growth and ore mining
+ * progress), the player's position and the inventory.
+ *
+ * <p>Only the player returned by {@link GameState#getPlayer()} and the inventory returned by
+ * {@link GameState#getInventory()} are saved. In a game with several players, the positions and
+ * inventories of the others are not part of the snapshot.
+ *
+ * <p>{@link #capture(GameState, Dimensions)} encodes the game into a compact in-memory byte array
+ * on the calling thread, which only takes as long as walking the world once. Writing that array to
+ * disk can then happen on a background thread with {@link #writeInBackground(String)}, so the
+ * game loop is not held up by file I/O.
+ *
+ * <p>Layout: int magic "JBSV", byte version, int player x, int player y, int coins, int food,
+ * byte active slot, byte capacity, one byte item code per slot (0 = empty), then the world as an
+ * int length followed by a {@link BinaryMapFormat} map.
+ */
+public class GameSnapshot {
+    /**
+     * The first four bytes of every snapshot: "JBSV".
+     */
+    public static final int MAGIC = 0x4A425356;
+
+    /**
+     * The snapshot format version written by this class.
+     */
+    public static final int VERSION = 1;
+
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "game-snapshot-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final byte[] data;
+    private final int playerX;
+    private final int playerY;
+    private final int coins;
+    private final int food;
+    private final int activeSlot;
+    private final int[] items;
+    private final byte[] world;
+
+    private GameSnapshot(byte[] data) throws IOException, WorldLoadException {
+        this.data = data;
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        try {
+            if (in.readInt() != MAGIC) {
+                throw new WorldLoadException("Not a game snapshot");
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new WorldLoadException("Unsupported snapshot version " + version);
+            }
+            this.playerX = in.readInt();
+            this.playerY = in.readInt();
+            this.coins = in.readInt();
+            this.food = in.readInt();
+            this.activeSlot = in.readUnsignedByte();
+            this.items = new int[in.readUnsignedByte()];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = in.readUnsignedByte();
+            }
+            this.world = new byte[in.readInt()];
+            in.readFully(world);
+        } catch (EOFException e) {
+            throw new WorldLoadException("Game snapshot is truncated");
+        }
+    }
+
+    /**
+     * Captures the current state of a game.
+     *
+     * @param game       the game to capture
+     * @param dimensions dimensions used to convert tile pixels to cells
+     * @return the snapshot
+     * @throws IllegalArgumentException if the world contains tiles the map format cannot store
+     */
+    public static GameSnapshot capture(GameState game, Dimensions dimensions) {
+        try {
+            ByteArrayOutputStream map = new ByteArrayOutputStream();
+            BinaryMapFormat.write(game.getWorld(), dimensions, map);
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(map.size() + 64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(game.getPlayer().getX());
+            out.writeInt(game.getPlayer().getY());
+
+            Inventory inventory = game.getInventory();
+            out.writeInt(inventory.getCoins());
+            out.writeInt(inventory.getFood());
+            out.writeByte(inventory.getActiveSlot());
+            out.writeByte(inventory.getCapacity());
+            for (int i = 0; i < inventory.getCapacity(); i++) {
+                out.writeByte(itemCode(inventory.getItem(i)));
+            }
+
+            out.writeInt(map.size());
+            map.writeTo(out);
+            out.flush();
+            return new GameSnapshot(bytes.toByteArray());
+        } catch (IOException | WorldLoadException e) {
+            // Only in-memory streams are involved, and the bytes were just written by us.
+            throw new IllegalStateException("Could not encode game snapshot", e);
+        }
+    }
+
+    /**
+     * Reads a snapshot previously written with {@link #writeTo(String)}.
+     *
+     * @param path the snapshot file
+     * @return the snapshot
+     * @throws IOException        if the file cannot be read
+     * @throws WorldLoadException if the file is not a valid snapshot
+     */
+    public static GameSnapshot readFrom(String path) throws IOException, WorldLoadException {
+        return new GameSnapshot(Files.readAllBytes(Paths.get(path)));
+    }
+
+    /**
+     * Writes this snapshot to a file on the calling thread.
+     *
+     * @param path the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void writeTo(String path) throws IOException {
+        Files.write(Paths.get(path), data);
+    }
+
+    /**
+     * Writes this snapshot to a file on a background thread. Snapshots are written one at a
+     * time, in the order this method is called.
+     *
+     * @param path the file to write
+     * @return a future that completes when the file has been written, or fails with the
+     *     {@link IOException} that stopped it
+     */
+    public Future<?> writeInBackground(String path) {
+        return WRITER.submit(() -> {
+            writeTo(path);
+            return null;
+        });
+    }
+
+    /**
+     * Rebuilds the saved world.
+     *
+     * @param dimensions dimensions providing tile sizes
+     * @return a new world holding the saved tiles and their state
+     * @throws WorldLoadException if the saved world cannot be decoded
+     */
+    public BeanWorld restoreWorld(Dimensions dimensions) throws WorldLoadException {
+        try {
+            return WorldBuilder.fromTiles(
+                    BinaryMapFormat.read(dimensions, new ByteArrayInputStream(world)));
+        } catch (IOException e) {
+            throw new WorldLoadException("Could not decode saved world: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sets the contents of an inventory to the saved coins, food, items and active slot.
+     *
+     * @param inventory the inventory to restore into
+     */
+    public void restoreInventory(Inventory inventory) {
+        inventory.addCoins(coins - inventory.getCoins());
+        inventory.addFood(food - inventory.getFood());
+        for (int i = 0; i < Math.min(items.length, inventory.getCapacity()); i++) {
+            inventory.setItem(i, itemFromCode(items[i]));
+        }
+        inventory.setActiveSlot(activeSlot);
+    }
+
+    /**
+     * Returns the saved x-coordinate of the player.
+     *
+     * @return the player's x-coordinate
+     */
+    public int getPlayerX() {
+        return playerX;
+    }
+
+    /**
+     * Returns the saved y-coordinate of the player.
+     *
+     * @return the player's y-coordinate
+     */
+    public int getPlayerY() {
+        return playerY;
+    }
+
+    private static int itemCode(Item item) {
+        if (item instanceof Bucket) {
+            return 1;
+        } else if (item instanceof Hoe) {
+            return 2;
+        } else if (item instanceof Jackhammer) {
+            return 3;
+        }
+        return 0;
+    }
+
+    private static Item itemFromCode(int code) {
+        switch (code) {
+            case 1:
+                return new Bucket();
+            case 2:
+                return new Hoe();
+            case 3:
+                return new Jackhammer();
+            default:
+                return null;
+        }
+    }
+}
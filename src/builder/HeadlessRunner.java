@@ -0,0 +1,275 @@
+package builder;
+
+import engine.EngineState;
+import engine.input.KeyState;
+import engine.input.MouseState;
+import engine.renderer.Dimensions;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+
+/**
+ * Runs a {@link JavaBeanFarm} without the engine window, as fast as possible, for measuring
+ * throughput and reproducing performance problems.
+ *
+ * <p>Input comes from an {@link InputRecording}: either recorded from a live session (see
+ * {@link JavaBeanFarm#setInputRecording(InputRecording)}) or written by hand. Recordings hold one
+ * frame per simulation step, and the game is ticked once per recorded frame, without a fixed
+ * timestep, so it runs one step per frame. Replaying the same recording against the same build
+ * therefore always does the same work, and the timings of two builds on one recording can be
+ * compared directly.
+ *
+ * <p>Usage: {@code java builder.HeadlessRunner <recording> [--loops n] [--warmup n] [--render]}.
+ */
+public class HeadlessRunner {
+    private final JavaBeanFarm game;
+    private final HeadlessState state;
+
+    /**
+     * Creates a runner for a game.
+     *
+     * @param game       the game to drive, which should not have a fixed timestep
+     * @param dimensions the dimensions the game was created with
+     */
+    public HeadlessRunner(JavaBeanFarm game, Dimensions dimensions) {
+        this.game = game;
+        this.state = new HeadlessState(dimensions);
+    }
+
+    /**
+     * Ticks the game once for every frame of a recording, timing each frame.
+     *
+     * @param input  the input to replay
+     * @param render whether to also call {@link JavaBeanFarm#render()} each frame
+     * @return the timings of the run
+     */
+    public Report run(InputRecording input, boolean render) {
+        long[] frameNanos = new long[input.size()];
+        long start = System.nanoTime();
+        for (int frame = 0; frame < input.size(); frame++) {
+            state.next(input.keysAt(frame), input.leftPressedAt(frame));
+            long before = System.nanoTime();
+            game.tick(state);
+            if (render) {
+                game.render();
+            }
+            frameNanos[frame] = System.nanoTime() - before;
+        }
+        return new Report(frameNanos, System.nanoTime() - start);
+    }
+
+    /**
+     * Replays a recording against the default game and prints the timings.
+     *
+     * @param args the recording path, then optional flags
+     * @throws Exception if the game or recording cannot be loaded
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println(
+                    "Usage: HeadlessRunner <recording> [--loops n] [--warmup n] [--render]");
+            System.exit(2);
+        }
+        InputRecording input = InputRecording.load(args[0]);
+        int loops = 1;
+        int warmup = 0;
+        boolean render = false;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--loops" -> loops = Integer.parseInt(args[++i]);
+                case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                case "--render" -> render = true;
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        Dimensions dimensions = new HeadlessDimensions(25, 800);
+        for (int i = 0; i < warmup; i++) {
+            new HeadlessRunner(new JavaBeanFarm(dimensions), dimensions).run(input, render);
+        }
+        for (int i = 0; i < loops; i++) {
+            // A fresh game each loop, so every loop replays the recording from the same start.
+            Report report = new HeadlessRunner(new JavaBeanFarm(dimensions), dimensions)
+                    .run(input, render);
+            System.out.println(report);
+        }
+    }
+
+    /**
+     * Timings of a headless run.
+     */
+    public static class Report {
+        private final long[] sorted;
+        private final long totalNanos;
+
+        private Report(long[] frameNanos, long totalNanos) {
+            this.sorted = frameNanos.clone();
+            Arrays.sort(sorted);
+            this.totalNanos = totalNanos;
+        }
+
+        /**
+         * Returns the number of frames run.
+         *
+         * @return the frame count
+         */
+        public int frames() {
+            return sorted.length;
+        }
+
+        /**
+         * Returns how many ticks were run per second of wall-clock time.
+         *
+         * @return the tick rate
+         */
+        public double ticksPerSecond() {
+            return totalNanos == 0 ? 0 : sorted.length * 1e9 / totalNanos;
+        }
+
+        /**
+         * Returns a frame time percentile, using the nearest-rank method.
+         *
+         * @param percentile the percentile, from 0 to 100
+         * @return the frame time, in nanoseconds, or 0 if no frames were run
+         */
+        public long percentileNanos(double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+            return sorted[Math.min(sorted.length - 1, Math.max(0, rank - 1))];
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "%d frames, %.0f ticks/s, frame time p50 %.3fms p90 %.3fms p99 %.3fms"
+                            + " max %.3fms",
+                    frames(), ticksPerSecond(), percentileNanos(50) / 1e6,
+                    percentileNanos(90) / 1e6, percentileNanos(99) / 1e6,
+                    percentileNanos(100) / 1e6
+            );
+        }
+    }
+
+    /**
+     * Square window dimensions for running without the engine.
+     */
+    public static class HeadlessDimensions implements Dimensions {
+        private final int tileSize;
+        private final int windowSize;
+
+        /**
+         * Creates dimensions for a square window.
+         *
+         * @param tileSize   the width and height of a tile, in pixels
+         * @param windowSize the width and height of the window, in pixels
+         */
+        public HeadlessDimensions(int tileSize, int windowSize) {
+            this.tileSize = tileSize;
+            this.windowSize = windowSize;
+        }
+
+        @Override
+        public int pixelToTile(int pixel) {
+            return pixel / tileSize;
+        }
+
+        @Override
+        public int tileToPixel(int tile) {
+            return tile * tileSize;
+        }
+
+        @Override
+        public int tileSize() {
+            return tileSize;
+        }
+
+        @Override
+        public int windowSize() {
+            return windowSize;
+        }
+    }
+
+    /**
+     * An engine state fed from recorded frames. Keys and mouse are dynamic proxies answering
+     * {@code isDown(char)} and {@code isLeftPressed()} from the current frame; any other input
+     * query answers false, zero or null.
+     */
+    public static class HeadlessState implements EngineState {
+        private final Dimensions dimensions;
+        private final KeyState keys;
+        private final MouseState mouse;
+        private int tick = -1;
+        private String keysDown = "";
+        private boolean leftPressed = false;
+
+        /**
+         * Creates an engine state with no keys held down, before the first tick.
+         *
+         * @param dimensions the dimensions to report
+         */
+        public HeadlessState(Dimensions dimensions) {
+            this.dimensions = dimensions;
+            this.keys = proxy(KeyState.class, "isDown");
+            this.mouse = proxy(MouseState.class, "isLeftPressed");
+        }
+
+        /**
+         * Moves on to the next tick, with the given input.
+         *
+         * @param keysDown    the keys held down during the tick
+         * @param leftPressed whether the left mouse button is pressed during the tick
+         */
+        public void next(String keysDown, boolean leftPressed) {
+            this.tick++;
+            this.keysDown = keysDown;
+            this.leftPressed = leftPressed;
+        }
+
+        private <T> T proxy(Class<T> type, String answered) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                    (self, method, args) -> {
+                        if (method.getName().equals(answered)) {
+                            if (args == null) {
+                                return leftPressed;
+                            } else if (args.length == 1 && args[0] instanceof Character) {
+                                return keysDown.indexOf((Character) args[0]) >= 0;
+                            }
+                        }
+                        return defaultValue(method);
+                    }));
+        }
+
+        private static Object defaultValue(Method method) {
+            Class<?> type = method.getReturnType();
+            if (type.isPrimitive() && type != void.class) {
+                // The element of a new one-element array is the type's default value.
+                return Array.get(Array.newInstance(type, 1), 0);
+            }
+            return null;
+        }
+
+        @Override
+        public Dimensions getDimensions() {
+            return dimensions;
+        }
+
+        @Override
+        public int currentTick() {
+            return tick;
+        }
+
+        @Override
+        public KeyState getKeys() {
+            return keys;
+        }
+
+        @Override
+        public MouseState getMouse() {
+            return mouse;
+        }
+    }
+}
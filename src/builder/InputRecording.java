@@ -0,0 +1,169 @@
+package builder;
+
+import engine.EngineState;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The keyboard and mouse input of a game session, one frame per simulation step, for replaying
+ * the session later (see {@link HeadlessRunner}).
+ *
+ * <p>Each frame records which of the {@link #WATCHED_KEYS} were held down and whether the left
+ * mouse button was pressed. Recordings are saved as text, one line per frame: {@code 1} or
+ * {@code 0} for the mouse button, followed by the keys held down. A line may end with
+ * {@code *n} to repeat the frame n times, which keeps recordings short and makes it easy to write
+ * scripted workloads by hand, e.g. {@code 0d*200} walks east for 200 ticks.
+ */
+public class InputRecording {
+    /**
+     * The keys whose state is captured by {@link #capture(EngineState)}.
+     */
+    public static final String WATCHED_KEYS = "abcdefghijklmnopqrstuvwxyz0123456789 ";
+
+    private final List<String> keys = new ArrayList<>();
+    private final BitSet leftPressed = new BitSet();
+
+    /**
+     * Creates an empty recording.
+     */
+    public InputRecording() {
+    }
+
+    /**
+     * Appends a frame holding the current input of a live engine. Called once per simulation
+     * step, so an engine frame that runs several steps appends several frames.
+     *
+     * @param state the engine state of the current tick
+     */
+    public void capture(EngineState state) {
+        StringBuilder down = new StringBuilder();
+        for (int i = 0; i < WATCHED_KEYS.length(); i++) {
+            char key = WATCHED_KEYS.charAt(i);
+            if (state.getKeys().isDown(key)) {
+                down.append(key);
+            }
+        }
+        add(down.toString(), state.getMouse().isLeftPressed());
+    }
+
+    /**
+     * Appends a frame.
+     *
+     * @param keysDown    the keys held down during the frame
+     * @param leftPressed whether the left mouse button was pressed during the frame
+     */
+    public void add(String keysDown, boolean leftPressed) {
+        this.leftPressed.set(keys.size(), leftPressed);
+        // Frames often repeat; share the string with the previous frame when they do.
+        int last = keys.size() - 1;
+        keys.add(last >= 0 && keys.get(last).equals(keysDown) ? keys.get(last) : keysDown);
+    }
+
+    /**
+     * Returns the number of frames recorded.
+     *
+     * @return the number of frames
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * Returns the keys held down during a frame.
+     *
+     * @param frame the index of the frame
+     * @return the keys held down, in no particular order
+     */
+    public String keysAt(int frame) {
+        return keys.get(frame);
+    }
+
+    /**
+     * Whether the left mouse button was pressed during a frame.
+     *
+     * @param frame the index of the frame
+     * @return true if the button was pressed
+     */
+    public boolean leftPressedAt(int frame) {
+        return leftPressed.get(frame);
+    }
+
+    /**
+     * Writes this recording to a file, run-length encoding repeated frames.
+     *
+     * @param path the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void save(String path) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(Paths.get(path),
+                StandardCharsets.UTF_8)) {
+            int frame = 0;
+            while (frame < size()) {
+                int repeat = 1;
+                while (frame + repeat < size()
+                        && keysAt(frame + repeat).equals(keysAt(frame))
+                        && leftPressedAt(frame + repeat) == leftPressedAt(frame)) {
+                    repeat++;
+                }
+                out.write((leftPressedAt(frame) ? "1" : "0") + keysAt(frame));
+                if (repeat > 1) {
+                    out.write("*" + repeat);
+                }
+                out.newLine();
+                frame += repeat;
+            }
+        }
+    }
+
+    /**
+     * Reads a recording, or a hand-written script in the same format.
+     *
+     * @param path the file to read
+     * @return the recording
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if a line is not a valid frame
+     */
+    public static InputRecording load(String path) throws IOException {
+        InputRecording recording = new InputRecording();
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(path),
+                StandardCharsets.UTF_8)) {
+            String line;
+            int number = 0;
+            while ((line = in.readLine()) != null) {
+                number++;
+                if (line.isEmpty()) {
+                    continue;
+                }
+                char mouse = line.charAt(0);
+                if (mouse != '0' && mouse != '1') {
+                    throw new IllegalArgumentException(
+                            "Line " + number + " must start with 0 or 1: " + line);
+                }
+                String frame = line.substring(1);
+                int repeat = 1;
+                int star = frame.lastIndexOf('*');
+                if (star >= 0) {
+                    try {
+                        repeat = Integer.parseInt(frame.substring(star + 1));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException(
+                                "Line " + number + " has an invalid repeat count: " + line);
+                    }
+                    frame = frame.substring(0, star);
+                }
+                for (int i = 0; i < repeat; i++) {
+                    recording.add(frame, mouse == '1');
+                }
+            }
+        }
+        return recording;
+    }
+}
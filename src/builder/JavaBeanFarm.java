@@ -7,7 +7,11 @@ import builder.inventory.*;
 import builder.inventory.ui.InventoryOverlay;
 import builder.inventory.ui.ResourceOverlay;
 import builder.world.WorldLoadException;
+import builder.ui.AnimationClock;
 import builder.ui.Overlay;
+import builder.ui.VisualChanges;
+import builder.metrics.Metrics;
+import builder.metrics.PhaseEvent;
 import builder.inventory.items.*;
 
 import engine.EngineState;
@@ -19,6 +23,7 @@ import engine.renderer.Renderable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Future;
 
 /**
  * JavaBeans, a farming game.
@@ -35,6 +40,7 @@ import java.util.List;
  * @stage2part This class manages the world instance.
  */
 public class JavaBeanFarm implements Game {
+    private static final int INVENTORY_SIZE = 4;
 
     // Stage 0: Uncomment this line to store brutus
     // private final Entity brutus;
@@ -43,12 +49,22 @@ public class JavaBeanFarm implements Game {
     private final PlayerManager playerManager;
 
     // Stage 2: Uncomment this line to manage the world.
-    private final BeanWorld world;
+    private BeanWorld world;
 
     // Stage 3: Uncomment these lines to include the inventory.
     private final Inventory inventory;
     private final List<Overlay> overlays = new ArrayList<>();
 
+    private final AnimationClock animations = new AnimationClock();
+    private final Dimensions dimensions;
+    private final Viewport viewport;
+    private final List<Renderable> frame = new ArrayList<>();
+    private final List<Renderable> changed = new ArrayList<>();
+    private FixedTimestep timestep;
+    /** The number of simulation steps run so far, i.e. the current step while one runs. */
+    private int steps = 0;
+    private InputRecording recording;
+
     /**
      * Constructs a new JavaBean Farm game using the given dimensions.
      *
@@ -59,29 +75,134 @@ public class JavaBeanFarm implements Game {
     public JavaBeanFarm(Dimensions dimensions) throws IOException, WorldLoadException {
         int centerX = dimensions.windowSize() / 2;
         int centerY = dimensions.windowSize() / 2;
+        this.dimensions = dimensions;
+        this.viewport = new Viewport(0, 0, dimensions.windowSize(), dimensions.windowSize());
 
         // Stage 0: Remove Brutus after this stage
-        // this.brutus = new Brutus(centerX, centerY);
+        // this.brutus = new Brutus(centerX, centerY, animations);
 
         // Stage 1: Uncomment this line to put the player in the screen center.
-        this.playerManager = new PlayerManager(centerX, centerY);
+        this.playerManager = new PlayerManager(centerX, centerY, animations);
 
         // Stage 2: Uncomment this line to load the default world from the file.
         this.world = WorldBuilder.fromFile(dimensions, "resources/uqLogo.map");
 
         // Stage 3: Uncomment these lines to create the default inventory.
-        int inventorySize = 4;
-        this.inventory = new TinyInventory(inventorySize);
+        int inventorySize = INVENTORY_SIZE;
+        this.inventory = starterInventory(inventorySize);
+
+        this.overlays.add(new InventoryOverlay(dimensions, inventorySize));
+        this.overlays.add(new ResourceOverlay(dimensions));
+
+        // Changes are only recorded once a renderer asks for them (see changedRenderables), so
+        // nothing piles up when this game is never rendered. This also drops any changes left
+        // over from a previous game.
+        VisualChanges.setTracking(false);
+        Metrics.registerMBean();
+    }
+
+    /**
+     * Creates an inventory holding the starting tools: a bucket, a hoe and a jackhammer.
+     */
+    private static Inventory starterInventory(int size) {
+        Inventory inventory = new TinyInventory(size);
         inventory.setItem(0, new Bucket());
         inventory.setItem(1, new Hoe());
         inventory.setItem(2, new Jackhammer());
+        return inventory;
+    }
 
-        this.overlays.add(new InventoryOverlay(dimensions, inventorySize));
-        this.overlays.add(new ResourceOverlay(dimensions));
+    /**
+     * Adds another player to the farm, such as a bot or a remote player, with its own inventory
+     * of starting tools. Only the first player's inventory is shown in the overlays, and only the
+     * first player is saved.
+     *
+     * @param x     the initial x-coordinate of the player
+     * @param y     the initial y-coordinate of the player
+     * @param input where the player's input comes from
+     * @return the new player
+     */
+    public Player addPlayer(int x, int y, InputSource input) {
+        return playerManager.addPlayer(x, y, starterInventory(INVENTORY_SIZE), input);
+    }
+
+    /**
+     * Saves the world, player position and inventory to a file. The game is captured immediately,
+     * on the calling thread; the file is written in the background.
+     *
+     * @param path the file to save to
+     * @return a future that completes once the file has been written
+     */
+    public Future<?> save(String path) {
+        GameState game = new JavaBeanGameState(world, playerManager.getPlayer(), inventory);
+        return GameSnapshot.capture(game, dimensions).writeInBackground(path);
+    }
+
+    /**
+     * Replaces the world, player position and inventory with those saved by {@link #save}.
+     *
+     * @param path the file to load from
+     * @throws IOException        if the file cannot be read
+     * @throws WorldLoadException if the file is not a valid saved game
+     */
+    public void load(String path) throws IOException, WorldLoadException {
+        GameSnapshot snapshot = GameSnapshot.readFrom(path);
+        this.world = snapshot.restoreWorld(dimensions);
+        this.playerManager.moveTo(snapshot.getPlayerX(), snapshot.getPlayerY());
+        snapshot.restoreInventory(inventory);
+    }
+
+    /**
+     * Decouples the simulation from the engine's frame rate. With a fixed timestep, each call to
+     * {@link #tick(EngineState)} runs as many simulation steps as the elapsed time calls for, and
+     * {@link #render()} only rebuilds the frame as often as the timestep's render rate allows.
+     *
+     * <p>The render rate only limits how often the list of renderables is rebuilt. The engine
+     * still draws whatever {@link #render()} returns on every one of its frames, so between
+     * renders it draws the previous frame again, at the same cost. A lower render rate does not
+     * save any drawing time.
+     *
+     * @param timestep the timestep to pace the game with, or null to run one simulation step per
+     *     engine frame and render every frame
+     */
+    public void setFixedTimestep(FixedTimestep timestep) {
+        this.timestep = timestep;
     }
 
     /**
-     * Ticks the internal game state forward by one frame.
+     * Records the keyboard and mouse input of every simulation step from now on, e.g. to replay
+     * this session later with {@link HeadlessRunner}.
+     *
+     * <p>Input is recorded per step rather than per engine frame, since with a fixed timestep a
+     * frame may run any number of steps, including none. A recording therefore holds one frame
+     * for each step the session ran, and replaying it one step per frame repeats the session.
+     *
+     * @param recording the recording to append frames to, or null to stop recording
+     */
+    public void setInputRecording(InputRecording recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Ticks the internal game state forward by one frame: by one simulation step, or with a fixed
+     * timestep (see {@link #setFixedTimestep(FixedTimestep)}), by however many steps are due.
+     *
+     * @param state The state of the engine, including the mouse, keyboard information and
+     *     dimension. Useful for processing keyboard presses or mouse movement.
+     */
+    public void tick(EngineState state) {
+        if (timestep == null) {
+            step(state);
+            return;
+        }
+        int steps = timestep.advance();
+        for (int i = 0; i < steps; i++) {
+            step(state);
+        }
+    }
+
+    /**
+     * Advances the internal game state by one simulation step.
      *
      * @stage1part The player manager should be progressed via
      *     {@link PlayerManager#tick(EngineState, GameState)}.
@@ -90,21 +211,40 @@ public class JavaBeanFarm implements Game {
      * @param state The state of the engine, including the mouse, keyboard information and
      *     dimension. Useful for processing keyboard presses or mouse movement.
      */
-    public void tick(EngineState state) {
+    private void step(EngineState state) {
+        if (recording != null) {
+            recording.capture(state);
+        }
+        // Steps are counted here rather than read from the engine's tick, which stays the same
+        // for every step of one engine frame. Shared animations move on with the same count.
+        steps++;
+        animations.advance();
+
         // Stage 0: Uncomment this line to progress Brutus.
         // this.brutus.tick(state);
 
+        int tick = steps;
+        PhaseEvent step = PhaseEvent.start(Metrics.Phase.TICK, tick);
+
         // Stage 1: Uncomment these lines to progress the player.
         GameState game = new JavaBeanGameState(world, playerManager.getPlayer(), inventory);
+        PhaseEvent phase = PhaseEvent.start(Metrics.Phase.PLAYER_TICK, tick);
         this.playerManager.tick(state, game);
+        phase.finish();
 
         // Stage 2: Uncomment this line to progress the world.
+        phase = PhaseEvent.start(Metrics.Phase.WORLD_TICK, tick);
         this.world.tick(state, game);
+        phase.finish();
 
         // Stage 3: Uncomment these lines to progress the inventory overlays.
+        phase = PhaseEvent.start(Metrics.Phase.OVERLAY_TICK, tick);
         for (Overlay overlay : overlays) {
             overlay.tick(state, game);
         }
+        phase.finish();
+
+        step.finish();
     }
 
     /**
@@ -117,14 +257,28 @@ public class JavaBeanFarm implements Game {
      *     rendered after the world but before overlays.
      *     <p>Overlays, i.e., {@link ResourceOverlay} and {@link InventoryOverlay} must be rendered
      *     last in any order.
-     * @return The list of renderables required to draw the whole game.
+     * <p>With a fixed timestep whose next render is not yet due, the previous frame is returned
+     * unchanged. This skips rebuilding the list, but the engine draws it again anyway.
+     *
+     * @return The list of renderables required to draw the whole game. The same list is reused,
+     *     and refilled, on every call.
      */
     @Override
     public List<Renderable> render() {
-        List<Renderable> renderables = new ArrayList<>();
+        if (timestep != null && !frame.isEmpty() && !timestep.shouldRender()) {
+            // Not due yet: show the previous frame again.
+            return frame;
+        }
+        PhaseEvent phase = PhaseEvent.start(Metrics.Phase.RENDER, steps);
+        List<Renderable> renderables = frame;
+        renderables.clear();
+        changed.clear();
+        if (VisualChanges.isTracking()) {
+            VisualChanges.drainTo(changed);
+        }
 
         // Stage 2: Uncomment this line to render the world.
-        renderables.addAll(this.world.render());
+        renderables.addAll(this.world.render(viewport, dimensions));
 
         // Stage 1: Uncomment this line to render the player.
         renderables.addAll(this.playerManager.render());
@@ -137,6 +291,26 @@ public class JavaBeanFarm implements Game {
             renderables.addAll(overlay.render());
         }
 
+        phase.finish();
         return renderables;
     }
+
+    /**
+     * Returns the renderables whose sprite or animation changed between the previous call to
+     * {@link #render()} and the most recent one, for renderers that only redraw what changed.
+     * Renderables added to or removed from the frame are not included; compare the frames for
+     * those.
+     *
+     * <p>Changes are only recorded once this method has been called, so the first call returns
+     * an empty list. A renderer calling it must keep calling {@link #render()}, which empties the
+     * record every frame.
+     *
+     * @return the visually changed renderables; the same list is reused on every render
+     */
+    public List<Renderable> changedRenderables() {
+        if (!VisualChanges.isTracking()) {
+            VisualChanges.setTracking(true);
+        }
+        return changed;
+    }
 }
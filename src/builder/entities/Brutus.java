@@ -1,9 +1,10 @@
 package builder.entities;
 
+import builder.ui.AnimationClock;
 import builder.ui.SpriteGallery;
+import builder.ui.VisualChanges;
 
 import engine.EngineState;
-import engine.art.sprites.Sprite;
 import engine.art.sprites.SpriteGroup;
 import engine.game.Direction;
 import engine.game.Entity;
@@ -20,42 +21,39 @@ import java.util.Random;
  */
 public class Brutus extends Entity {
     private final SpriteGroup art = SpriteGallery.brutus;
-    private final Animation leftWalking =
-            new Animation(
-                    AnimationDuration.FAST,
-                    new Sprite[] {
-                        art.getSprite("left"), art.getSprite("left1"), art.getSprite("left2")
-                    });
-    private final Animation rightWalking =
-            new Animation(
-                    AnimationDuration.FAST,
-                    new Sprite[] {
-                        art.getSprite("right"), art.getSprite("right1"), art.getSprite("right2")
-                    });
-    private final Animation upWalking =
-            new Animation(
-                    AnimationDuration.SLOW,
-                    new Sprite[] {art.getSprite("up"), art.getSprite("up1"), art.getSprite("up2")});
-    private final Animation downWalking =
-            new Animation(
-                    AnimationDuration.SLOW,
-                    new Sprite[] {
-                        art.getSprite("down"), art.getSprite("down1"), art.getSprite("down2")
-                    });
+    private final AnimationClock animations;
+    private final Animation leftWalking;
+    private final Animation rightWalking;
+    private final Animation upWalking;
+    private final Animation downWalking;
 
     private Direction travelling = Direction.SOUTH;
+    private Direction shownDirection;
+    private Animation shown;
     private TickTimer timer = new RepeatingTimer(TimerDuration.SHORT);
+    private final Random random = new Random();
 
     /**
      * Construct a new Brutus at the given x, y position.
      *
      * @requires x >= 0, x is less than the window width
      * @requires y >= 0, y is less than the window height
-     * @param x The x-axis (horizontal) coordinate.
-     * @param y The y-axis (vertical) coordinate.
+     * @param x          The x-axis (horizontal) coordinate.
+     * @param y          The y-axis (vertical) coordinate.
+     * @param animations The game's clock, which shares the walking animations between every
+     *                   Brutus.
      */
-    public Brutus(int x, int y) {
+    public Brutus(int x, int y, AnimationClock animations) {
         super(x, y);
+        this.animations = animations;
+        this.leftWalking = animations.shared(
+                "brutus.left", AnimationDuration.FAST, art, "left", "left1", "left2");
+        this.rightWalking = animations.shared(
+                "brutus.right", AnimationDuration.FAST, art, "right", "right1", "right2");
+        this.upWalking = animations.shared(
+                "brutus.up", AnimationDuration.SLOW, art, "up", "up1", "up2");
+        this.downWalking = animations.shared(
+                "brutus.down", AnimationDuration.SLOW, art, "down", "down1", "down2");
     }
 
     @Override
@@ -63,24 +61,26 @@ public class Brutus extends Entity {
         timer.tick();
         if (timer.isFinished()) {
             // pick a new direction to travel
-            Random random = new Random();
             travelling = Direction.values()[random.nextInt(4)];
         }
 
-        // always progress animation
-        leftWalking.tick(state);
-        rightWalking.tick(state);
-        downWalking.tick(state);
-        upWalking.tick(state);
-
-        // set the sprites appropriately
-        switch (travelling) {
-            case EAST -> setSprite(rightWalking);
-            case WEST -> setSprite(leftWalking);
-            case NORTH -> setSprite(upWalking);
-            case SOUTH -> setSprite(downWalking);
+        // set the sprites appropriately, only when the direction changes
+        if (travelling != shownDirection) {
+            shownDirection = travelling;
+            shown = switch (travelling) {
+                case EAST -> rightWalking;
+                case WEST -> leftWalking;
+                case NORTH -> upWalking;
+                case SOUTH -> downWalking;
+            };
+            setSprite(shown);
         }
 
+        // always progress the animation shown (shared with every other Brutus)
+        animations.tickShown(shown, state);
+        // moving, and the walking animation advancing, changes how Brutus looks every tick
+        VisualChanges.changed(this);
+
         // move player in direction
         switch (travelling) {
             case NORTH -> setY(getY() - 1);
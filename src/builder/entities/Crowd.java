@@ -0,0 +1,283 @@
+package builder.entities;
+
+import builder.GameState;
+import builder.Tickable;
+import builder.timing.Durations;
+import builder.ui.AnimationClock;
+import builder.ui.RenderableGroup;
+import builder.ui.SpriteGallery;
+import builder.world.Viewport;
+import engine.EngineState;
+import engine.game.Direction;
+import engine.game.Entity;
+import engine.renderer.Renderable;
+import engine.timing.Animation;
+import engine.timing.AnimationDuration;
+import engine.timing.TimerDuration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * A crowd of {@link Brutus}-style wanderers, built to scale to tens of thousands of agents.
+ *
+ * <p>Each agent behaves like Brutus: it walks one pixel per tick, and picks a new random direction
+ * whenever its timer of {@link TimerDuration#SHORT} runs out. Instead of one entity per agent with
+ * its own timer, animations and random number generator, the crowd keeps positions, directions
+ * and remaining timer ticks in primitive arrays and updates them in tight loops, batch by batch.
+ *
+ * <p>Each batch of {@value #BATCH_SIZE} agents draws from its own {@link SplittableRandom}, split
+ * from the crowd's seed in batch order, so a crowd's movement depends only on its seed and is the
+ * same whether it is ticked sequentially or, with {@link #setParallelTick(boolean)}, in parallel.
+ *
+ * <p>Agents are rendered through lightweight {@link Entity} views, created the first time an agent
+ * is rendered, which share the walking animations of Brutus.
+ */
+public class Crowd implements Tickable, RenderableGroup {
+    /**
+     * Number of agents updated together, and sharing one random number stream.
+     */
+    public static final int BATCH_SIZE = 4096;
+
+    /**
+     * Minimum number of agents for a parallel tick to be worth splitting into batches.
+     */
+    public static final int PARALLEL_THRESHOLD = 4 * BATCH_SIZE;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int[] DX = new int[DIRECTIONS.length];
+    private static final int[] DY = new int[DIRECTIONS.length];
+
+    static {
+        for (Direction direction : DIRECTIONS) {
+            switch (direction) {
+                case NORTH -> DY[direction.ordinal()] = -1;
+                case SOUTH -> DY[direction.ordinal()] = 1;
+                case EAST -> DX[direction.ordinal()] = 1;
+                case WEST -> DX[direction.ordinal()] = -1;
+            }
+        }
+    }
+
+    private final SplittableRandom seed;
+    private final List<SplittableRandom> streams = new ArrayList<>();
+    private final int period = Durations.ticks(TimerDuration.SHORT);
+    private final AnimationClock animations;
+    private final Animation[] walking = new Animation[DIRECTIONS.length];
+    private int size = 0;
+    private int[] xs;
+    private int[] ys;
+    private byte[] directions;
+    private int[] timers;
+    private AgentView[] views;
+    private final List<Renderable> renderables = new ArrayList<>();
+    private boolean parallel = false;
+
+    /**
+     * Creates an empty crowd.
+     *
+     * @param capacity   the number of agents to allocate room for; the crowd grows beyond it
+     * @param seed       the seed for the crowd's random number streams
+     * @param animations the game's clock, which shares the walking animations of Brutus
+     */
+    public Crowd(int capacity, long seed, AnimationClock animations) {
+        this.seed = new SplittableRandom(seed);
+        this.animations = animations;
+        int initial = Math.max(capacity, 1);
+        this.xs = new int[initial];
+        this.ys = new int[initial];
+        this.directions = new byte[initial];
+        this.timers = new int[initial];
+        this.views = new AgentView[initial];
+
+        walking[Direction.WEST.ordinal()] = animations.shared(
+                "brutus.left", AnimationDuration.FAST, SpriteGallery.brutus,
+                "left", "left1", "left2");
+        walking[Direction.EAST.ordinal()] = animations.shared(
+                "brutus.right", AnimationDuration.FAST, SpriteGallery.brutus,
+                "right", "right1", "right2");
+        walking[Direction.NORTH.ordinal()] = animations.shared(
+                "brutus.up", AnimationDuration.SLOW, SpriteGallery.brutus, "up", "up1", "up2");
+        walking[Direction.SOUTH.ordinal()] = animations.shared(
+                "brutus.down", AnimationDuration.SLOW, SpriteGallery.brutus,
+                "down", "down1", "down2");
+    }
+
+    /**
+     * Adds an agent at the given position, heading south like a new Brutus.
+     *
+     * @param x the x-coordinate of the agent
+     * @param y the y-coordinate of the agent
+     * @return the index of the new agent
+     */
+    public int spawn(int x, int y) {
+        if (size == xs.length) {
+            int capacity = xs.length * 2;
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            directions = Arrays.copyOf(directions, capacity);
+            timers = Arrays.copyOf(timers, capacity);
+            views = Arrays.copyOf(views, capacity);
+        }
+        int agent = size++;
+        xs[agent] = x;
+        ys[agent] = y;
+        directions[agent] = (byte) Direction.SOUTH.ordinal();
+        timers[agent] = period;
+        while (streams.size() * BATCH_SIZE < size) {
+            streams.add(seed.split());
+        }
+        return agent;
+    }
+
+    /**
+     * Returns the number of agents in the crowd.
+     *
+     * @return the crowd size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the x-coordinate of an agent.
+     *
+     * @param agent the index of the agent
+     * @return the agent's x-coordinate
+     */
+    public int getX(int agent) {
+        return xs[agent];
+    }
+
+    /**
+     * Returns the y-coordinate of an agent.
+     *
+     * @param agent the index of the agent
+     * @return the agent's y-coordinate
+     */
+    public int getY(int agent) {
+        return ys[agent];
+    }
+
+    /**
+     * Returns the direction an agent is walking in.
+     *
+     * @param agent the index of the agent
+     * @return the agent's direction
+     */
+    public Direction getDirection(int agent) {
+        return DIRECTIONS[directions[agent]];
+    }
+
+    /**
+     * Sets whether large crowds are ticked in parallel, batch by batch, on the common fork-join
+     * pool.
+     *
+     * @param parallel true to tick in parallel
+     */
+    public void setParallelTick(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Moves every agent one step and turns the agents whose timers have run out.
+     *
+     * @param state the current engine state
+     * @param game  the current game state
+     */
+    @Override
+    public void tick(EngineState state, GameState game) {
+        if (size > 0) {
+            // Every agent shows one of the walking animations.
+            for (Animation animation : walking) {
+                animations.tickShown(animation, state);
+            }
+        }
+        int batches = (size + BATCH_SIZE - 1) / BATCH_SIZE;
+        if (parallel && size >= PARALLEL_THRESHOLD) {
+            IntStream.range(0, batches).parallel().forEach(this::tickBatch);
+        } else {
+            for (int batch = 0; batch < batches; batch++) {
+                tickBatch(batch);
+            }
+        }
+    }
+
+    private void tickBatch(int batch) {
+        SplittableRandom random = streams.get(batch);
+        int end = Math.min(size, (batch + 1) * BATCH_SIZE);
+        for (int agent = batch * BATCH_SIZE; agent < end; agent++) {
+            if (--timers[agent] == 0) {
+                timers[agent] = period;
+                directions[agent] = (byte) random.nextInt(DIRECTIONS.length);
+            }
+            xs[agent] += DX[directions[agent]];
+            ys[agent] += DY[directions[agent]];
+        }
+    }
+
+    /**
+     * Returns a renderable for every agent.
+     *
+     * @return the agents' renderables; the same list is reused, and refilled, on every call
+     */
+    @Override
+    public List<Renderable> render() {
+        renderables.clear();
+        for (int agent = 0; agent < size; agent++) {
+            renderables.add(view(agent));
+        }
+        return renderables;
+    }
+
+    /**
+     * Returns a renderable for every agent inside the viewport, skipping the rest without
+     * creating views for them.
+     *
+     * @param viewport the visible rectangle of the world
+     * @return the visible agents' renderables; the same list is reused, and refilled, on every
+     *     call
+     */
+    public List<Renderable> render(Viewport viewport) {
+        renderables.clear();
+        for (int agent = 0; agent < size; agent++) {
+            if (xs[agent] >= viewport.minX() && xs[agent] <= viewport.maxX()
+                    && ys[agent] >= viewport.minY() && ys[agent] <= viewport.maxY()) {
+                renderables.add(view(agent));
+            }
+        }
+        return renderables;
+    }
+
+    /**
+     * Returns the view of an agent, brought up to date with the agent's arrays.
+     */
+    private AgentView view(int agent) {
+        AgentView view = views[agent];
+        if (view == null) {
+            view = new AgentView(xs[agent], ys[agent]);
+            views[agent] = view;
+        }
+        view.setX(xs[agent]);
+        view.setY(ys[agent]);
+        if (view.shownDirection != directions[agent]) {
+            view.shownDirection = directions[agent];
+            view.setSprite(walking[directions[agent]]);
+        }
+        return view;
+    }
+
+    /**
+     * The renderable face of one agent. Holds no state of its own besides what it last showed.
+     */
+    private static class AgentView extends Entity {
+        private int shownDirection = -1;
+
+        AgentView(int x, int y) {
+            super(x, y);
+        }
+    }
+}
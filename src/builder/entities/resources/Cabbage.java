@@ -2,7 +2,11 @@ package builder.entities.resources;
 
 import builder.GameState;
 import builder.entities.Interactable;
+import builder.timing.Durations;
+import builder.timing.Scheduled;
+import builder.timing.TimerWheel;
 import builder.ui.SpriteGallery;
+import builder.ui.VisualChanges;
 import engine.EngineState;
 import engine.game.Entity;
 import engine.game.HasTick;
@@ -14,13 +18,26 @@ import engine.timing.TickTimer;
  * Represents a cabbage crop that grows over time and can be collected
  * when fully grown. Provides food and coins to the player's inventory
  * upon harvest.
+ *
+ * <p>Once attached to a {@link TimerWheel}, a cabbage is no longer ticked; instead the wheel calls
+ * it back when its next growth stage is due.
  */
-public class Cabbage extends Entity implements Interactable, HasTick {
+public class Cabbage extends Entity implements Interactable, HasTick, Scheduled {
     public static final int COST = 2;
 
+    /**
+     * The number of ticks between growth stages: the duration of the growth timer.
+     */
+    private static final int GROWTH_PERIOD = Durations.ticks(TimerDuration.SHORT);
+
     private TickTimer growthTimer;
+    private int timerTicks = 0;
     private int growthStage = 0;
     private final String[] stages = {"default", "budding", "growing", "grown", "collectable"};
+    private final Runnable grow = this::grow;
+    private TimerWheel wheel;
+    private TimerWheel.Timeout nextStage;
+    private long periodStart;
 
     /**
      * Constructs a cabbage entity at the given position.
@@ -34,13 +51,129 @@ public class Cabbage extends Entity implements Interactable, HasTick {
         this.growthTimer = new RepeatingTimer(TimerDuration.SHORT);
     }
 
+    @Override
+    public void attach(TimerWheel wheel) {
+        this.wheel = wheel;
+        this.periodStart = wheel.now() - timerTicks;
+        scheduleGrowth();
+    }
+
+    @Override
+    public boolean isAttached() {
+        return wheel != null;
+    }
+
+    /**
+     * Schedules the next growth stage on the wheel, unless the cabbage is fully grown.
+     */
+    private void scheduleGrowth() {
+        if (nextStage != null) {
+            nextStage.cancel();
+            nextStage = null;
+        }
+        if (growthStage < stages.length - 1) {
+            long delay = Math.max(1, periodStart + GROWTH_PERIOD - wheel.now());
+            nextStage = wheel.schedule(delay, grow);
+        }
+    }
+
+    private void grow() {
+        nextStage = null;
+        periodStart = wheel.now();
+        growthStage++;
+        showStage();
+        scheduleGrowth();
+    }
+
+    /**
+     * Shows the sprite of the current growth stage. Only called when the stage changes.
+     */
+    private void showStage() {
+        setSprite(SpriteGallery.cabbage.getSprite(stages[growthStage]));
+        VisualChanges.changed(this);
+    }
+
     @Override
     public void tick(EngineState state) {
+        if (wheel != null) {
+            return;
+        }
         growthTimer.tick();
+        timerTicks++;
+        if (growthTimer.isFinished()) {
+            timerTicks = 0;
+        }
         if (growthTimer.isFinished() && growthStage < stages.length - 1) {
             growthStage++;
-            setSprite(SpriteGallery.cabbage.getSprite(stages[growthStage]));
+            showStage();
+        }
+    }
+
+    /**
+     * Returns the current growth stage, from 0 (just planted) up to {@link #stageCount()} - 1
+     * (collectable).
+     *
+     * @return the growth stage
+     */
+    public int getGrowthStage() {
+        return growthStage;
+    }
+
+    /**
+     * Sets the growth stage and updates the sprite to match, e.g. when restoring a saved world.
+     *
+     * @requires 0 &lt;= growthStage &lt; stageCount()
+     * @param growthStage the growth stage
+     */
+    public void setGrowthStage(int growthStage) {
+        if (growthStage != this.growthStage) {
+            this.growthStage = growthStage;
+            showStage();
+        }
+        if (wheel != null) {
+            scheduleGrowth();
+        }
+    }
+
+    /**
+     * Returns how many ticks the growth timer has run since it last finished.
+     *
+     * @return ticks towards the next growth stage
+     */
+    public int getTimerTicks() {
+        if (wheel != null) {
+            return (int) ((wheel.now() - periodStart) % GROWTH_PERIOD);
         }
+        return timerTicks;
+    }
+
+    /**
+     * Restarts the growth timer as if it had already run for the given number of ticks since it
+     * last finished, e.g. when restoring a saved world.
+     *
+     * @requires timerTicks is less than the growth timer's duration
+     * @param timerTicks ticks towards the next growth stage
+     */
+    public void setTimerTicks(int timerTicks) {
+        if (wheel != null) {
+            periodStart = wheel.now() - timerTicks;
+            scheduleGrowth();
+            return;
+        }
+        this.growthTimer = new RepeatingTimer(TimerDuration.SHORT);
+        for (int i = 0; i < timerTicks; i++) {
+            growthTimer.tick();
+        }
+        this.timerTicks = timerTicks;
+    }
+
+    /**
+     * Returns the number of growth stages a cabbage goes through.
+     *
+     * @return the stage count
+     */
+    public int stageCount() {
+        return stages.length;
     }
 
     @Override
@@ -49,6 +182,10 @@ public class Cabbage extends Entity implements Interactable, HasTick {
             game.getInventory().addFood(COST);
             game.getInventory().addCoins(3);
             markForRemoval();
+            if (nextStage != null) {
+                nextStage.cancel();
+                nextStage = null;
+            }
         }
     }
 }
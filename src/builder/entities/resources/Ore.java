@@ -3,7 +3,10 @@ package builder.entities.resources;
 import builder.GameState;
 import builder.entities.Usable;
 import builder.inventory.items.Jackhammer;
+import builder.timing.Scheduled;
+import builder.timing.TimerWheel;
 import builder.ui.SpriteGallery;
+import builder.ui.VisualChanges;
 import engine.EngineState;
 import engine.game.Entity;
 import engine.game.HasTick;
@@ -11,11 +14,18 @@ import engine.game.HasTick;
 /**
  * Represents an ore resource in the game that can be mined with a jackhammer.
  * The ore depletes over time as it is mined and provides coins to the player.
+ *
+ * <p>The sprite is only looked up again when the value changes and crosses into a different
+ * depletion level. Once attached to a {@link TimerWheel}, an ore is no longer ticked at all: its
+ * mining cooldown is read from the wheel's clock.
  */
-public class Ore extends Entity implements Usable, HasTick {
+public class Ore extends Entity implements Usable, HasTick, Scheduled {
     private int value = 10;
     private final int originalValue = 10;
     private int tickCounter = 0;
+    private TimerWheel wheel;
+    private long attachedAt;
+    private String shownLevel = "default";
 
     /**
      * Constructs an ore entity at the given position.
@@ -28,30 +38,109 @@ public class Ore extends Entity implements Usable, HasTick {
         setSprite(SpriteGallery.rock.getSprite("default"));
     }
 
+    /**
+     * Returns how many coins are left to mine from this ore.
+     *
+     * @return the remaining value
+     */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * Sets how many coins are left to mine from this ore, e.g. when restoring a saved world.
+     *
+     * @requires 0 &lt;= value &lt;= {@link #getOriginalValue()}
+     * @param value the remaining value
+     */
+    public void setValue(int value) {
+        this.value = value;
+        updateSprite();
+    }
+
+    /**
+     * Returns how many ticks this ore has existed for, which paces mining.
+     *
+     * @return the tick counter
+     */
+    public int getTickCounter() {
+        if (wheel != null) {
+            return (int) (wheel.now() - attachedAt);
+        }
+        return tickCounter;
+    }
+
+    /**
+     * Sets the tick counter, e.g. when restoring a saved world.
+     *
+     * @param tickCounter the tick counter
+     */
+    public void setTickCounter(int tickCounter) {
+        this.tickCounter = tickCounter;
+        if (wheel != null) {
+            attachedAt = wheel.now() - tickCounter;
+        }
+    }
+
+    /**
+     * Returns how many coins this ore held before any were mined.
+     *
+     * @return the original value
+     */
+    public int getOriginalValue() {
+        return originalValue;
+    }
+
+    @Override
+    public void attach(TimerWheel wheel) {
+        this.wheel = wheel;
+        this.attachedAt = wheel.now() - tickCounter;
+    }
+
+    @Override
+    public boolean isAttached() {
+        return wheel != null;
+    }
+
     @Override
     public void tick(EngineState state) {
+        if (wheel != null) {
+            return;
+        }
         tickCounter++;
+    }
 
+    /**
+     * Shows the sprite for the current depletion level, if it differs from the one shown.
+     */
+    private void updateSprite() {
         double percentage = (double) value / originalValue;
+        String level;
         if (percentage > 0.9) {
-            setSprite(SpriteGallery.rock.getSprite("default"));
+            level = "default";
         } else if (percentage > 0.1) {
-            setSprite(SpriteGallery.rock.getSprite("damaged"));
+            level = "damaged";
         } else {
-            setSprite(SpriteGallery.rock.getSprite("depleted"));
+            level = "depleted";
+        }
+        if (!level.equals(shownLevel)) {
+            shownLevel = level;
+            setSprite(SpriteGallery.rock.getSprite(level));
+            VisualChanges.changed(this);
         }
     }
 
     @Override
     public void use(EngineState state, GameState game) {
         if (game.getInventory().getHolding() instanceof Jackhammer
-                && tickCounter % 5 == 0
+                && getTickCounter() % 5 == 0
                 && value > 0) {
 
             int damage = game.getPlayer().getDamage();
             int coinsToAdd = Math.min(damage, value);
             value -= coinsToAdd;
             game.getInventory().addCoins(coinsToAdd);
+            updateSprite();
 
             if (value <= 0) {
                 markForRemoval();
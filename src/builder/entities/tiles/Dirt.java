@@ -54,7 +54,7 @@ public class Dirt extends Tile {
         if (game.getInventory().getHolding() instanceof Hoe) {
             till();
         } else if (game.getInventory().getHolding() instanceof Bucket
-                && getStackedEntities().isEmpty()
+                && stackSize() == 0
                 && tilled
                 && game.getInventory().getCoins() >= Cabbage.COST) {
 
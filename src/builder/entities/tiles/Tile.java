@@ -3,7 +3,11 @@ package builder.entities.tiles;
 import builder.GameState;
 import builder.entities.Interactable;
 import builder.entities.Usable;
+import builder.metrics.Metrics;
+import builder.metrics.TileActionEvent;
+import builder.timing.Scheduled;
 import builder.ui.RenderableGroup;
+import builder.ui.VisualChanges;
 import engine.EngineState;
 import engine.art.sprites.SpriteGroup;
 import engine.game.Entity;
@@ -12,13 +16,18 @@ import engine.renderer.Renderable;
 import engine.art.ArtNotFoundException;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Base class for map tiles. A tile can stack entities on top of it and
  * forwards interactions/uses to stacked entities. Tiles are renderable
  * and may tick each frame.
+ *
+ * <p>The list returned by {@link #render()} is retained between frames and only rebuilt after the
+ * stack or art of the tile changes.
  */
 public abstract class Tile extends Entity
         implements Interactable,
@@ -28,6 +37,8 @@ public abstract class Tile extends Entity
 
     private SpriteGroup art;
     private List<Entity> stackedEntities;
+    private TileListener listener;
+    private List<Renderable> renderables;
 
     /**
      * Creates a tile at (x, y) with the provided sprite group.
@@ -39,10 +50,21 @@ public abstract class Tile extends Entity
     public Tile(int x, int y, SpriteGroup art) {
         super(x, y);
         this.art = art;
-        this.stackedEntities = new ArrayList<>();
+        // Most tiles never have anything stacked on them, so share an empty stack until then.
+        this.stackedEntities = Collections.emptyList();
         setSprite(art.getSprite("default"));
     }
 
+    /**
+     * Sets the listener notified when this tile's stack, art or stacked entities change. A tile
+     * has at most one listener; setting a new one replaces the previous listener.
+     *
+     * @param listener the listener, or null to stop notifying
+     */
+    public void setListener(TileListener listener) {
+        this.listener = listener;
+    }
+
     /**
      * Sets the sprite group and attempts to update to the default sprite.
      *
@@ -55,6 +77,10 @@ public abstract class Tile extends Entity
         } catch (ArtNotFoundException e) {
             // Default sprite not found; keep current sprite.
         }
+        renderables = null;
+        if (listener != null) {
+            listener.artChanged(this);
+        }
     }
 
     /**
@@ -65,6 +91,7 @@ public abstract class Tile extends Entity
      */
     public void updateSprite(String artName) throws ArtNotFoundException {
         setSprite(art.getSprite(artName));
+        VisualChanges.changed(this);
     }
 
     /**
@@ -74,21 +101,49 @@ public abstract class Tile extends Entity
      */
     @Override
     public void tick(EngineState engine) {
+        boolean removed = false;
         Iterator<Entity> iterator = stackedEntities.iterator();
         while (iterator.hasNext()) {
             Entity entity = iterator.next();
             if (entity.isMarkedForRemoval()) {
                 iterator.remove();
+                removed = true;
             }
         }
+        if (removed) {
+            notifyStackChanged();
+        }
 
-        for (Entity entity : stackedEntities) {
-            if (entity instanceof HasTick) {
+        for (int i = 0; i < stackedEntities.size(); i++) {
+            Entity entity = stackedEntities.get(i);
+            if (needsTick(entity)) {
                 ((HasTick) entity).tick(engine);
             }
         }
     }
 
+    /**
+     * Whether this tile needs to be ticked: a stacked entity has work to do every tick, or is
+     * waiting to be removed from the stack.
+     *
+     * @return true if a stacked entity implements {@link HasTick} and is not driven by a timer
+     *     wheel (see {@link Scheduled}), or has been marked for removal
+     */
+    public boolean hasTickingEntities() {
+        for (int i = 0; i < stackedEntities.size(); i++) {
+            Entity entity = stackedEntities.get(i);
+            if (entity.isMarkedForRemoval() || needsTick(entity)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean needsTick(Entity entity) {
+        return entity instanceof HasTick
+                && !(entity instanceof Scheduled && ((Scheduled) entity).isAttached());
+    }
+
     /**
      * Returns a defensive copy of entities stacked on this tile.
      *
@@ -98,13 +153,59 @@ public abstract class Tile extends Entity
         return new ArrayList<>(stackedEntities);
     }
 
+    /**
+     * Returns the number of entities stacked on this tile, without copying the stack.
+     *
+     * @return the stack size
+     */
+    public int stackSize() {
+        return stackedEntities.size();
+    }
+
+    /**
+     * Calls the given action on each entity stacked on this tile, bottom to top, without copying
+     * the stack. The action must not stack entities on this tile.
+     *
+     * @param action the action to perform on each stacked entity
+     */
+    public void forEachStacked(Consumer<Entity> action) {
+        for (int i = 0; i < stackedEntities.size(); i++) {
+            action.accept(stackedEntities.get(i));
+        }
+    }
+
     /**
      * Places an entity on top of this tile.
      *
      * @param entity the entity to stack
      */
     public void placeOn(Entity entity) {
+        if (stackedEntities.isEmpty()) {
+            stackedEntities = new ArrayList<>(1);
+        }
         stackedEntities.add(entity);
+        Metrics.count(Metrics.Count.ENTITIES_STACKED);
+        notifyStackChanged();
+    }
+
+    /**
+     * Notifies the listener if an interaction has marked a stacked entity for removal, so that a
+     * tile which is not otherwise ticked gets the tick that removes it.
+     */
+    private void notifyIfMarked() {
+        for (int i = 0; i < stackedEntities.size(); i++) {
+            if (stackedEntities.get(i).isMarkedForRemoval()) {
+                notifyStackChanged();
+                return;
+            }
+        }
+    }
+
+    private void notifyStackChanged() {
+        renderables = null;
+        if (listener != null) {
+            listener.stackChanged(this);
+        }
     }
 
     /**
@@ -115,11 +216,19 @@ public abstract class Tile extends Entity
      */
     @Override
     public void interact(EngineState state, GameState game) {
+        TileActionEvent event = TileActionEvent.start();
+        boolean forwarded = false;
         for (Entity entity : stackedEntities) {
             if (entity instanceof Interactable) {
                 ((Interactable) entity).interact(state, game);
+                forwarded = true;
             }
         }
+        notifyIfMarked();
+        if (forwarded && listener != null) {
+            listener.stateChanged(this);
+        }
+        event.finish("interact", this);
     }
 
     /**
@@ -130,11 +239,19 @@ public abstract class Tile extends Entity
      */
     @Override
     public void use(EngineState state, GameState game) {
+        TileActionEvent event = TileActionEvent.start();
+        boolean forwarded = false;
         for (Entity entity : stackedEntities) {
             if (entity instanceof Usable) {
                 ((Usable) entity).use(state, game);
+                forwarded = true;
             }
         }
+        notifyIfMarked();
+        if (forwarded && listener != null) {
+            listener.stateChanged(this);
+        }
+        event.finish("use", this);
     }
 
     /**
@@ -149,13 +266,16 @@ public abstract class Tile extends Entity
     /**
      * Returns this tile and all stacked entities as renderables.
      *
-     * @return renderables in draw order
+     * @return unmodifiable renderables in draw order, shared until the tile changes
      */
     @Override
     public List<Renderable> render() {
-        List<Renderable> renderables = new ArrayList<>();
-        renderables.add(this);
-        renderables.addAll(stackedEntities);
+        if (renderables == null) {
+            List<Renderable> built = new ArrayList<>(1 + stackedEntities.size());
+            built.add(this);
+            built.addAll(stackedEntities);
+            renderables = Collections.unmodifiableList(built);
+        }
         return renderables;
     }
 }
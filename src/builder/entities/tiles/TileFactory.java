@@ -39,4 +39,34 @@ public class TileFactory {
                 throw new IllegalArgumentException("Unknown tile symbol: " + symbol);
         }
     }
+
+    /**
+     * Whether the given character is a tile symbol understood by {@link #fromSymbol}.
+     *
+     * @param symbol the character to check
+     * @return true if a tile can be created from the symbol
+     */
+    public static boolean isSymbol(char symbol) {
+        return TileType.fromSymbol(symbol) != null;
+    }
+
+    /**
+     * Returns the symbol that {@link #fromSymbol} would use to create a tile like the given one.
+     *
+     * @param tile the tile to describe
+     * @return the tile's symbol
+     * @throws IllegalArgumentException if the tile is not one of the standard tile types
+     */
+    public static char symbolOf(Tile tile) {
+        if (tile instanceof Dirt) {
+            return ((Dirt) tile).isTilled() ? 't' : 'd';
+        } else if (tile instanceof Water) {
+            return 'w';
+        } else if (tile instanceof Grass) {
+            return 'g';
+        } else if (tile instanceof OreVein) {
+            return 'o';
+        }
+        throw new IllegalArgumentException("No symbol for tile type: " + tile.getClass().getName());
+    }
 }
@@ -0,0 +1,32 @@
+package builder.entities.tiles;
+
+/**
+ * Receives notifications about changes to a {@link Tile}, typically from the world holding it.
+ */
+public interface TileListener {
+
+    /**
+     * Called after an entity has been stacked on or removed from the tile, or marked for removal
+     * while stacked on it.
+     *
+     * @param tile the tile whose stack changed
+     */
+    void stackChanged(Tile tile);
+
+    /**
+     * Called after the tile's art has been changed with {@link Tile#setArt}.
+     *
+     * @param tile the tile whose art changed
+     */
+    default void artChanged(Tile tile) {
+    }
+
+    /**
+     * Called after the tile has forwarded an interaction or use to its stacked entities, which
+     * may have changed their state in place (for example, mining some of an ore).
+     *
+     * @param tile the tile whose stacked entities were interacted with or used
+     */
+    default void stateChanged(Tile tile) {
+    }
+}
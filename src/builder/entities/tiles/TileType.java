@@ -0,0 +1,103 @@
+package builder.entities.tiles;
+
+/**
+ * The kinds of tile a map can be made of. Each constant is a shared, immutable description of a
+ * tile type, used where creating a full {@link Tile} per cell would be too expensive.
+ */
+public enum TileType {
+    /** A {@link Grass} tile. */
+    GRASS('g', true),
+    /** An untilled {@link Dirt} tile. */
+    DIRT('d', true),
+    /** A tilled {@link Dirt} tile. */
+    TILLED_DIRT('t', true),
+    /** A {@link Water} tile. */
+    WATER('w', false),
+    /** An {@link OreVein} tile. */
+    ORE_VEIN('o', true);
+
+    private static final TileType[] VALUES = values();
+
+    private final char symbol;
+    private final boolean walkable;
+
+    TileType(char symbol, boolean walkable) {
+        this.symbol = symbol;
+        this.walkable = walkable;
+    }
+
+    /**
+     * Returns the symbol for this type in the text map format.
+     *
+     * @return the tile symbol
+     */
+    public char symbol() {
+        return symbol;
+    }
+
+    /**
+     * Whether characters can walk through tiles of this type.
+     *
+     * @return true if walkable; false otherwise
+     */
+    public boolean canWalkThrough() {
+        return walkable;
+    }
+
+    /**
+     * Creates a tile of this type.
+     *
+     * @param x the x-coordinate (pixels)
+     * @param y the y-coordinate (pixels)
+     * @return a new tile
+     */
+    public Tile create(int x, int y) {
+        return TileFactory.fromSymbol(x, y, symbol);
+    }
+
+    /**
+     * Returns the type with the given symbol.
+     *
+     * @param symbol the tile symbol
+     * @return the matching type, or null if the symbol is unknown
+     */
+    public static TileType fromSymbol(char symbol) {
+        for (TileType type : VALUES) {
+            if (type.symbol == symbol) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the type of a tile, if the tile is exactly one of the standard tile classes and so
+     * can be recreated from its type alone.
+     *
+     * @param tile the tile to describe
+     * @return the tile's type, or null if the tile is of another class
+     */
+    public static TileType of(Tile tile) {
+        Class<?> type = tile.getClass();
+        if (type == Dirt.class) {
+            return ((Dirt) tile).isTilled() ? TILLED_DIRT : DIRT;
+        } else if (type == Grass.class) {
+            return GRASS;
+        } else if (type == Water.class) {
+            return WATER;
+        } else if (type == OreVein.class) {
+            return ORE_VEIN;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the type with the given ordinal, as stored in compact per-cell arrays.
+     *
+     * @param ordinal the ordinal of the type
+     * @return the matching type
+     */
+    public static TileType fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -0,0 +1,307 @@
+package builder.metrics;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The game's metrics: a latency histogram per tick phase, and event counters.
+ *
+ * <p>Metrics are off unless the {@code builder.metrics} system property is true or they are
+ * enabled with {@link #setEnabled(boolean)} (also possible over JMX). While disabled, every
+ * recording method returns after reading a single flag.
+ *
+ * <p>Typical use around a phase:
+ * <pre>
+ * long start = Metrics.start();
+ * ...
+ * Metrics.stop(Metrics.Phase.WORLD_TICK, start);
+ * </pre>
+ */
+public class Metrics {
+    /**
+     * The JMX name the metrics are registered under.
+     */
+    public static final String OBJECT_NAME = "builder:type=Metrics";
+
+    /**
+     * The timed phases of a frame.
+     */
+    public enum Phase {
+        /** One whole simulation step. */
+        TICK("tick"),
+        /** {@code PlayerManager.tick}. */
+        PLAYER_TICK("tick.player"),
+        /** {@code World.tick}. */
+        WORLD_TICK("tick.world"),
+        /** Ticking every overlay. */
+        OVERLAY_TICK("tick.overlays"),
+        /** Building the frame's render list. */
+        RENDER("render");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Returns the name of the phase in dumps and over JMX.
+         *
+         * @return the label
+         */
+        public String label() {
+            return label;
+        }
+    }
+
+    /**
+     * The counted events.
+     */
+    public enum Count {
+        /** Tiles ticked by a world. */
+        TILES_TICKED("tiles.ticked"),
+        /** Entities stacked on tiles. */
+        ENTITIES_STACKED("entities.stacked"),
+        /** Calls to {@code World.tilesAtPosition}. */
+        TILES_AT_POSITION("tilesAtPosition.calls");
+
+        private final String label;
+
+        Count(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Returns the name of the counter in dumps and over JMX.
+         *
+         * @return the label
+         */
+        public String label() {
+            return label;
+        }
+    }
+
+    private static volatile boolean enabled = Boolean.getBoolean("builder.metrics");
+    private static final Map<Phase, LatencyHistogram> histograms = new EnumMap<>(Phase.class);
+    private static final Map<Count, LongAdder> counters = new EnumMap<>(Count.class);
+    private static ScheduledExecutorService dumper;
+    private static ScheduledFuture<?> dump;
+    private static boolean registered = false;
+
+    static {
+        for (Phase phase : Phase.values()) {
+            histograms.put(phase, new LatencyHistogram());
+        }
+        for (Count count : Count.values()) {
+            counters.put(count, new LongAdder());
+        }
+    }
+
+    /**
+     * Creates a Metrics. (Helper class with static methods.)
+     */
+    public Metrics() {
+    }
+
+    /**
+     * Whether metrics are being recorded.
+     *
+     * @return true if enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether metrics are recorded. Recorded values are kept while disabled.
+     *
+     * @param enable true to record metrics
+     */
+    public static void setEnabled(boolean enable) {
+        enabled = enable;
+    }
+
+    /**
+     * Starts timing a phase.
+     *
+     * @return the start time to pass to {@link #stop}, or 0 if metrics are disabled
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time since {@link #start()} in the phase's histogram.
+     *
+     * @param phase the phase that was timed
+     * @param start the value returned by {@link #start()}
+     */
+    public static void stop(Phase phase, long start) {
+        if (enabled && start != 0) {
+            histograms.get(phase).record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Counts one event.
+     *
+     * @param count the counter to increment
+     */
+    public static void count(Count count) {
+        if (enabled) {
+            counters.get(count).increment();
+        }
+    }
+
+    /**
+     * Counts several events at once.
+     *
+     * @param count  the counter to add to
+     * @param events the number of events
+     */
+    public static void count(Count count, long events) {
+        if (enabled) {
+            counters.get(count).add(events);
+        }
+    }
+
+    /**
+     * Returns the latency histogram of a phase.
+     *
+     * @param phase the phase
+     * @return the phase's histogram
+     */
+    public static LatencyHistogram histogram(Phase phase) {
+        return histograms.get(phase);
+    }
+
+    /**
+     * Returns the current value of a counter.
+     *
+     * @param count the counter
+     * @return the number of events counted
+     */
+    public static long get(Count count) {
+        return counters.get(count).sum();
+    }
+
+    /**
+     * Clears every histogram and counter.
+     */
+    public static void reset() {
+        for (LatencyHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+        for (LongAdder counter : counters.values()) {
+            counter.reset();
+        }
+    }
+
+    /**
+     * Returns a text table of every phase and counter.
+     *
+     * @return the dump
+     */
+    public static String dump() {
+        StringBuilder text = new StringBuilder(String.format(
+                "%-16s %10s %10s %10s %10s %10s%n",
+                "phase", "count", "p50 us", "p90 us", "p99 us", "max us"));
+        for (Phase phase : Phase.values()) {
+            LatencyHistogram histogram = histograms.get(phase);
+            text.append(String.format("%-16s %10d %10.1f %10.1f %10.1f %10.1f%n",
+                    phase.label(), histogram.count(),
+                    histogram.percentile(50) / 1e3, histogram.percentile(90) / 1e3,
+                    histogram.percentile(99) / 1e3, histogram.max() / 1e3));
+        }
+        for (Count count : Count.values()) {
+            text.append(String.format("%-24s %12d%n", count.label(), get(count)));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Prints {@link #dump()} to a stream at a fixed rate, on a daemon thread, replacing any
+     * periodic dump already running.
+     *
+     * @param period how often to dump
+     * @param unit   the unit of the period
+     * @param out    the stream to print to
+     */
+    public static synchronized void dumpEvery(long period, TimeUnit unit, PrintStream out) {
+        stopDumping();
+        if (dumper == null) {
+            dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-dump");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        dump = dumper.scheduleAtFixedRate(() -> out.print(dump()), period, period, unit);
+    }
+
+    /**
+     * Stops the periodic dump, if one is running.
+     */
+    public static synchronized void stopDumping() {
+        if (dump != null) {
+            dump.cancel(false);
+            dump = null;
+        }
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server under {@link #OBJECT_NAME}. Calling
+     * this more than once has no further effect.
+     *
+     * @throws IllegalStateException if registration fails
+     */
+    public static synchronized void registerMBean() {
+        if (registered) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MetricsBean(), name);
+            }
+            registered = true;
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register metrics MBean", e);
+        }
+    }
+
+    /**
+     * Returns one statistic of every phase, by phase label.
+     */
+    static Map<String, Double> perPhase(ToDoubleFunction<LatencyHistogram> stat) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (Phase phase : Phase.values()) {
+            values.put(phase.label(), stat.applyAsDouble(histograms.get(phase)));
+        }
+        return values;
+    }
+
+    /**
+     * Returns every counter, by counter label.
+     */
+    static Map<String, Long> counters() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (Count count : Count.values()) {
+            values.put(count.label(), get(count));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,59 @@
+package builder.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Adapts the static {@link Metrics} registry to {@link MetricsMXBean}.
+ */
+class MetricsBean implements MetricsMXBean {
+
+    @Override
+    public boolean isEnabled() {
+        return Metrics.isEnabled();
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        Metrics.setEnabled(enabled);
+    }
+
+    @Override
+    public Map<String, Long> getPhaseCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Metrics.Phase phase : Metrics.Phase.values()) {
+            counts.put(phase.label(), Metrics.histogram(phase).count());
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<String, Double> getP50Micros() {
+        return Metrics.perPhase(histogram -> histogram.percentile(50) / 1e3);
+    }
+
+    @Override
+    public Map<String, Double> getP99Micros() {
+        return Metrics.perPhase(histogram -> histogram.percentile(99) / 1e3);
+    }
+
+    @Override
+    public Map<String, Double> getMaxMicros() {
+        return Metrics.perPhase(histogram -> histogram.max() / 1e3);
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        return Metrics.counters();
+    }
+
+    @Override
+    public String getDump() {
+        return Metrics.dump();
+    }
+
+    @Override
+    public void reset() {
+        Metrics.reset();
+    }
+}
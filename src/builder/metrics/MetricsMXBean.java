@@ -0,0 +1,70 @@
+package builder.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX view of {@link Metrics}. Latencies are in microseconds, keyed by phase label.
+ */
+public interface MetricsMXBean {
+
+    /**
+     * Whether metrics are being recorded.
+     *
+     * @return true if enabled
+     */
+    boolean isEnabled();
+
+    /**
+     * Sets whether metrics are recorded.
+     *
+     * @param enabled true to record metrics
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Returns the number of times each phase was timed.
+     *
+     * @return counts by phase
+     */
+    Map<String, Long> getPhaseCounts();
+
+    /**
+     * Returns the median latency of each phase.
+     *
+     * @return p50 latencies by phase, in microseconds
+     */
+    Map<String, Double> getP50Micros();
+
+    /**
+     * Returns the 99th percentile latency of each phase.
+     *
+     * @return p99 latencies by phase, in microseconds
+     */
+    Map<String, Double> getP99Micros();
+
+    /**
+     * Returns the largest latency of each phase.
+     *
+     * @return maximum latencies by phase, in microseconds
+     */
+    Map<String, Double> getMaxMicros();
+
+    /**
+     * Returns every event counter.
+     *
+     * @return counts by counter label
+     */
+    Map<String, Long> getCounters();
+
+    /**
+     * Returns the same text table as {@link Metrics#dump()}.
+     *
+     * @return the dump
+     */
+    String getDump();
+
+    /**
+     * Clears every histogram and counter.
+     */
+    void reset();
+}
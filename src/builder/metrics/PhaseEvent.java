@@ -0,0 +1,70 @@
+package builder.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event for one phase of a game tick, or one render, which also records
+ * the phase's duration in its {@link Metrics} histogram. Timing a phase with this event is all
+ * the instrumentation a phase needs:
+ * <pre>
+ * PhaseEvent event = PhaseEvent.start(Metrics.Phase.WORLD_TICK, tick);
+ * ...
+ * event.finish();
+ * </pre>
+ *
+ * <p>When neither flight recording nor metrics are enabled, both calls do nothing, and the JIT
+ * removes the event allocation.
+ */
+@Name("builder.Phase")
+@Label("Game Phase")
+@Category({"JavaBean Farm", "Game Loop"})
+@Description("One phase of a game tick, or the building of a frame")
+@StackTrace(false)
+public class PhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("Tick")
+    @Description("The simulation step the phase ran in, or the last step before a render")
+    int tick;
+
+    private final transient Metrics.Phase timed;
+    private final transient long metricsStart;
+
+    private PhaseEvent(Metrics.Phase timed, int tick) {
+        this.timed = timed;
+        this.tick = tick;
+        this.metricsStart = Metrics.start();
+    }
+
+    /**
+     * Starts timing a phase.
+     *
+     * @param phase the phase being run
+     * @param tick  the current simulation step
+     * @return the started event, to be finished when the phase ends
+     */
+    public static PhaseEvent start(Metrics.Phase phase, int tick) {
+        PhaseEvent event = new PhaseEvent(phase, tick);
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the phase, recording it in its histogram and, if it is being recorded and is long
+     * enough to pass the recording's threshold, in the flight recording.
+     */
+    public void finish() {
+        end();
+        Metrics.stop(timed, metricsStart);
+        if (shouldCommit()) {
+            phase = timed.label();
+            commit();
+        }
+    }
+}
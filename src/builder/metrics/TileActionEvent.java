@@ -0,0 +1,68 @@
+package builder.metrics;
+
+import builder.entities.tiles.Tile;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event for a tile dispatching an interaction or use to the entities
+ * stacked on it.
+ */
+@Name("builder.TileAction")
+@Label("Tile Action")
+@Category({"JavaBean Farm", "World"})
+@Description("A tile forwarding interact or use to its stacked entities")
+@StackTrace(false)
+public class TileActionEvent extends Event {
+    @Label("Action")
+    String action;
+
+    @Label("Tile Type")
+    String tileType;
+
+    @Label("X")
+    int x;
+
+    @Label("Y")
+    int y;
+
+    @Label("Stacked Entities")
+    @Description("The number of entities stacked on the tile once the action finished")
+    int stacked;
+
+    private TileActionEvent() {
+    }
+
+    /**
+     * Starts timing a tile action.
+     *
+     * @return the started event, to be finished when the action has been dispatched
+     */
+    public static TileActionEvent start() {
+        TileActionEvent event = new TileActionEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the action and commits it to the flight recording, if one is running.
+     *
+     * @param action the action dispatched, e.g. "interact" or "use"
+     * @param tile   the tile that dispatched it
+     */
+    public void finish(String action, Tile tile) {
+        end();
+        if (shouldCommit()) {
+            this.action = action;
+            this.tileType = tile.getClass().getSimpleName();
+            this.x = tile.getX();
+            this.y = tile.getY();
+            this.stacked = tile.stackSize();
+            commit();
+        }
+    }
+}
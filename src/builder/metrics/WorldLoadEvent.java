@@ -0,0 +1,59 @@
+package builder.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event for one stage of loading a world from a file.
+ */
+@Name("builder.WorldLoad")
+@Label("World Load Stage")
+@Category({"JavaBean Farm", "World"})
+@Description("One stage of loading a world map from a file")
+@StackTrace(false)
+public class WorldLoadEvent extends Event {
+    @Label("File")
+    String path;
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Tiles")
+    @Description("The number of tiles produced by the stage, if it produces tiles")
+    int tiles;
+
+    private WorldLoadEvent(String path, String stage) {
+        this.path = path;
+        this.stage = stage;
+    }
+
+    /**
+     * Starts timing a load stage.
+     *
+     * @param path  the file being loaded
+     * @param stage the name of the stage
+     * @return the started event, to be finished when the stage ends
+     */
+    public static WorldLoadEvent start(String path, String stage) {
+        WorldLoadEvent event = new WorldLoadEvent(path, stage);
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the stage and commits it to the flight recording, if one is running.
+     *
+     * @param tiles the number of tiles the stage produced, or 0 if it produces none
+     */
+    public void finish(int tiles) {
+        end();
+        if (shouldCommit()) {
+            this.tiles = tiles;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package builder.pathfinding;
+
+import builder.entities.tiles.Tile;
+import engine.game.Direction;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * For every cell of a map, the distance to the nearest cell holding a {@link Goal}, and the
+ * direction to step in to get closer to it. Fields are created and kept up to date by
+ * {@link FlowFields}.
+ *
+ * <p>An agent following a field looks up {@link #directionAt(int, int)} at its position each
+ * step; the lookup is a bounds check and an array read.
+ */
+public class FlowField {
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+    private static final byte NONE = -1;
+
+    private final FlowFields map;
+    private final Goal goal;
+    private int[] distance = new int[0];
+    private byte[] next = new byte[0];
+    private boolean[] goals = new boolean[0];
+    private final BitSet watched = new BitSet();
+    private final BitSet checked = new BitSet();
+    private final BitSet raised = new BitSet();
+    private final BitSet lowered = new BitSet();
+    private final PriorityQueue<Long> open = new PriorityQueue<>();
+
+    FlowField(FlowFields map, Goal goal) {
+        this.map = map;
+        this.goal = goal;
+    }
+
+    /**
+     * Returns the goal this field leads to.
+     *
+     * @return the goal
+     */
+    public Goal getGoal() {
+        return goal;
+    }
+
+    /**
+     * Returns the direction to step in from a position to get closer to the nearest goal.
+     *
+     * @param x the x-coordinate in pixels
+     * @param y the y-coordinate in pixels
+     * @return the direction to step in, or null if the position is a goal, no goal can be
+     *     reached from it, or it is outside the map
+     */
+    public Direction directionAt(int x, int y) {
+        int cell = map.cellAt(x, y);
+        if (cell < 0 || next[cell] == NONE) {
+            return null;
+        }
+        return FlowFields.DIRECTIONS[next[cell]];
+    }
+
+    /**
+     * Returns how many cells away the nearest goal is.
+     *
+     * @param x the x-coordinate in pixels
+     * @param y the y-coordinate in pixels
+     * @return the number of steps to the nearest goal, 0 at a goal, or -1 if no goal can be
+     *     reached from the position or it is outside the map
+     */
+    public int distanceAt(int x, int y) {
+        int cell = map.cellAt(x, y);
+        if (cell < 0 || distance[cell] == UNREACHABLE) {
+            return -1;
+        }
+        return distance[cell];
+    }
+
+    /**
+     * Recomputes the whole field, with a breadth-first search out from every goal.
+     */
+    void recompute() {
+        int cells = map.cellCount();
+        distance = new int[cells];
+        next = new byte[cells];
+        goals = new boolean[cells];
+        Arrays.fill(distance, UNREACHABLE);
+        Arrays.fill(next, NONE);
+        watched.clear();
+
+        int[] queue = new int[cells];
+        int head = 0;
+        int tail = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            evaluate(cell);
+            if (goals[cell]) {
+                distance[cell] = 0;
+                queue[tail++] = cell;
+            }
+        }
+        while (head < tail) {
+            int cell = queue[head++];
+            for (int direction = 0; direction < FlowFields.DIRECTIONS.length; direction++) {
+                int neighbour = map.neighbour(cell, direction);
+                if (neighbour >= 0 && map.isWalkable(neighbour)
+                        && distance[neighbour] == UNREACHABLE) {
+                    distance[neighbour] = distance[cell] + 1;
+                    next[neighbour] = FlowFields.OPPOSITE[direction];
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+    }
+
+    /**
+     * Repairs the field after some cells have changed. Cells whose walk to a goal went through a
+     * cell that stopped being a goal or walkable are cleared and searched again from their
+     * neighbours; new goals and newly walkable cells are searched out from. Cells the changes do
+     * not affect are not visited.
+     *
+     * @param changed the cells whose tiles have changed; walkability is already up to date
+     */
+    void update(BitSet changed) {
+        checked.clear();
+        checked.or(changed);
+        checked.or(watched);
+        if (checked.isEmpty()) {
+            return;
+        }
+
+        raised.clear();
+        lowered.clear();
+        for (int cell = checked.nextSetBit(0); cell >= 0; cell = checked.nextSetBit(cell + 1)) {
+            boolean wasGoal = goals[cell];
+            evaluate(cell);
+            boolean walkable = map.isWalkable(cell);
+            if (wasGoal && !goals[cell] || !walkable && distance[cell] != UNREACHABLE) {
+                raised.set(cell);
+            }
+            if (goals[cell] && !wasGoal || walkable && distance[cell] == UNREACHABLE) {
+                lowered.set(cell);
+            }
+        }
+
+        clearDependents();
+        seed(raised);
+        seed(lowered);
+        search();
+    }
+
+    /**
+     * Adds every cell whose walk to a goal passes through a raised cell to the raised cells, and
+     * forgets their distances.
+     */
+    private void clearDependents() {
+        int[] stack = new int[raised.cardinality()];
+        int size = 0;
+        for (int cell = raised.nextSetBit(0); cell >= 0; cell = raised.nextSetBit(cell + 1)) {
+            stack = push(stack, size++, cell);
+        }
+        while (size > 0) {
+            int cell = stack[--size];
+            distance[cell] = UNREACHABLE;
+            next[cell] = NONE;
+            for (int direction = 0; direction < FlowFields.DIRECTIONS.length; direction++) {
+                int neighbour = map.neighbour(cell, direction);
+                if (neighbour >= 0 && !raised.get(neighbour)
+                        && next[neighbour] == FlowFields.OPPOSITE[direction]) {
+                    raised.set(neighbour);
+                    stack = push(stack, size++, neighbour);
+                }
+            }
+        }
+    }
+
+    private static int[] push(int[] stack, int size, int cell) {
+        if (size == stack.length) {
+            stack = Arrays.copyOf(stack, Math.max(16, size * 2));
+        }
+        stack[size] = cell;
+        return stack;
+    }
+
+    /**
+     * Queues the cells a search must restart from to fill in the given cells: the goals among
+     * them, and their neighbours that still know their distance.
+     */
+    private void seed(BitSet cells) {
+        for (int cell = cells.nextSetBit(0); cell >= 0; cell = cells.nextSetBit(cell + 1)) {
+            if (goals[cell]) {
+                distance[cell] = 0;
+                next[cell] = NONE;
+                open.add(entry(0, cell));
+                continue;
+            }
+            for (int direction = 0; direction < FlowFields.DIRECTIONS.length; direction++) {
+                int neighbour = map.neighbour(cell, direction);
+                if (neighbour >= 0 && distance[neighbour] != UNREACHABLE) {
+                    open.add(entry(distance[neighbour], neighbour));
+                }
+            }
+        }
+    }
+
+    /**
+     * Lowers distances out from the queued cells until none can be lowered further.
+     */
+    private void search() {
+        while (!open.isEmpty()) {
+            long entry = open.poll();
+            int cell = (int) entry;
+            int reached = (int) (entry >>> 32);
+            if (reached != distance[cell]) {
+                // Lowered again since it was queued.
+                continue;
+            }
+            for (int direction = 0; direction < FlowFields.DIRECTIONS.length; direction++) {
+                int neighbour = map.neighbour(cell, direction);
+                if (neighbour >= 0 && map.isWalkable(neighbour)
+                        && reached + 1 < distance[neighbour]) {
+                    distance[neighbour] = reached + 1;
+                    next[neighbour] = FlowFields.OPPOSITE[direction];
+                    open.add(entry(reached + 1, neighbour));
+                }
+            }
+        }
+    }
+
+    private static long entry(int distance, int cell) {
+        return (long) distance << 32 | cell;
+    }
+
+    /**
+     * Works out whether a cell is a goal, and whether it needs checking on every update.
+     */
+    private void evaluate(int cell) {
+        boolean isGoal = false;
+        boolean mayChange = false;
+        if (map.isWalkable(cell)) {
+            List<Tile> tiles = map.tilesIn(cell);
+            for (int i = 0; i < tiles.size(); i++) {
+                Tile tile = tiles.get(i);
+                if (!tile.isMarkedForRemoval()) {
+                    isGoal |= goal.isGoal(tile);
+                    mayChange |= goal.mayChange(tile);
+                }
+            }
+        }
+        goals[cell] = isGoal;
+        watched.set(cell, mayChange);
+    }
+}
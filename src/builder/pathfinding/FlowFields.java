@@ -0,0 +1,244 @@
+package builder.pathfinding;
+
+import builder.GameState;
+import builder.Tickable;
+import builder.entities.tiles.Tile;
+import builder.world.BeanWorld;
+import engine.EngineState;
+import engine.game.Direction;
+import engine.renderer.Dimensions;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A pathfinding service for any number of agents heading for the same kinds of places, such as
+ * farm hands walking to the nearest ore vein or the nearest grown cabbage.
+ *
+ * <p>Instead of searching for a path per agent, the service keeps one {@link FlowField} per
+ * {@link Goal}: for every cell of the map, the direction of a shortest walk to the nearest goal.
+ * Following a field costs one array lookup per step, however many agents follow it.
+ *
+ * <p>A cell can be walked through if it holds at least one tile and every tile in it can be
+ * walked through (see {@link Tile#canWalkThrough()}); cells outside the map cannot. Agents move
+ * between cells north, south, east and west.
+ *
+ * <p>Fields are computed when first asked for, then kept up to date with the world: the service
+ * listens for tiles being placed, removed or restacked, and on each {@link #update()} repairs only
+ * the parts of each field that the changed cells affect. A tile placed outside the map's current
+ * bounds makes every field be recomputed.
+ */
+public class FlowFields implements Tickable {
+    static final Direction[] DIRECTIONS = Direction.values();
+    static final int[] DX = new int[DIRECTIONS.length];
+    static final int[] DY = new int[DIRECTIONS.length];
+    static final byte[] OPPOSITE = new byte[DIRECTIONS.length];
+
+    static {
+        for (Direction direction : DIRECTIONS) {
+            switch (direction) {
+                case NORTH -> DY[direction.ordinal()] = -1;
+                case SOUTH -> DY[direction.ordinal()] = 1;
+                case EAST -> DX[direction.ordinal()] = 1;
+                case WEST -> DX[direction.ordinal()] = -1;
+            }
+        }
+        for (int d = 0; d < DIRECTIONS.length; d++) {
+            for (int o = 0; o < DIRECTIONS.length; o++) {
+                if (DX[o] == -DX[d] && DY[o] == -DY[d]) {
+                    OPPOSITE[d] = (byte) o;
+                }
+            }
+        }
+    }
+
+    private final BeanWorld world;
+    private final Dimensions dimensions;
+    private final Map<Goal, FlowField> fields = new HashMap<>();
+    private final List<Tile> cellTiles = new ArrayList<>();
+    private final BitSet changed = new BitSet();
+    private boolean resized = true;
+    private int originX;
+    private int originY;
+    private int width;
+    private int height;
+    private boolean[] walkable = new boolean[0];
+
+    /**
+     * Creates a pathfinding service for a world, and starts listening for changes to it.
+     *
+     * @param world      the world to find paths through
+     * @param dimensions the dimensions used to convert pixels to tile positions
+     */
+    public FlowFields(BeanWorld world, Dimensions dimensions) {
+        this.world = world;
+        this.dimensions = dimensions;
+        world.addListener(this::tileChanged);
+    }
+
+    /**
+     * Returns the flow field leading to the nearest instance of a goal, computing it if this is
+     * the first time it has been asked for. The same field is returned on later calls, and is
+     * kept up to date by {@link #update()}.
+     *
+     * @param goal the goal to head for
+     * @return the goal's flow field
+     */
+    public FlowField toward(Goal goal) {
+        update();
+        FlowField field = fields.get(goal);
+        if (field == null) {
+            field = new FlowField(this, goal);
+            field.recompute();
+            fields.put(goal, field);
+        }
+        return field;
+    }
+
+    /**
+     * Brings every field up to date with the changes made to the world since the last update.
+     */
+    public void update() {
+        if (resized) {
+            measure();
+            for (FlowField field : fields.values()) {
+                field.recompute();
+            }
+            changed.clear();
+            resized = false;
+            return;
+        }
+        for (int cell = changed.nextSetBit(0); cell >= 0; cell = changed.nextSetBit(cell + 1)) {
+            walkable[cell] = computeWalkable(cell);
+        }
+        for (FlowField field : fields.values()) {
+            field.update(changed);
+        }
+        changed.clear();
+    }
+
+    /**
+     * Updates every field, once per tick.
+     *
+     * @param state the current engine state
+     * @param game  the current game state
+     */
+    @Override
+    public void tick(EngineState state, GameState game) {
+        update();
+    }
+
+    private void tileChanged(Tile tile) {
+        if (resized) {
+            return;
+        }
+        int cell = cellAt(tile.getX(), tile.getY());
+        if (cell < 0) {
+            resized = true;
+        } else {
+            changed.set(cell);
+        }
+    }
+
+    /**
+     * Sets the map's bounds to those of the world's tiles, and works out which cells can be
+     * walked through.
+     */
+    private void measure() {
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        for (Tile tile : world.snapshot()) {
+            int tileX = dimensions.pixelToTile(tile.getX());
+            int tileY = dimensions.pixelToTile(tile.getY());
+            minX = Math.min(minX, tileX);
+            minY = Math.min(minY, tileY);
+            maxX = Math.max(maxX, tileX);
+            maxY = Math.max(maxY, tileY);
+        }
+        if (minX > maxX) {
+            originX = 0;
+            originY = 0;
+            width = 0;
+            height = 0;
+        } else {
+            originX = minX;
+            originY = minY;
+            width = maxX - minX + 1;
+            height = maxY - minY + 1;
+        }
+        walkable = new boolean[width * height];
+        for (int cell = 0; cell < walkable.length; cell++) {
+            walkable[cell] = computeWalkable(cell);
+        }
+    }
+
+    private boolean computeWalkable(int cell) {
+        List<Tile> tiles = tilesIn(cell);
+        if (tiles.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < tiles.size(); i++) {
+            if (!tiles.get(i).canWalkThrough()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of cells in the map.
+     */
+    int cellCount() {
+        return width * height;
+    }
+
+    /**
+     * Returns the cell containing a pixel, or -1 if the pixel is outside the map.
+     */
+    int cellAt(int x, int y) {
+        int column = dimensions.pixelToTile(x) - originX;
+        int row = dimensions.pixelToTile(y) - originY;
+        if (column < 0 || row < 0 || column >= width || row >= height) {
+            return -1;
+        }
+        return row * width + column;
+    }
+
+    /**
+     * Returns the cell next to a cell in a direction, or -1 if that is outside the map.
+     */
+    int neighbour(int cell, int direction) {
+        int column = cell % width + DX[direction];
+        int row = cell / width + DY[direction];
+        if (column < 0 || row < 0 || column >= width || row >= height) {
+            return -1;
+        }
+        return row * width + column;
+    }
+
+    /**
+     * Whether a cell can be walked through.
+     */
+    boolean isWalkable(int cell) {
+        return walkable[cell];
+    }
+
+    /**
+     * Returns the tiles in a cell, including any marked for removal, in a list reused between
+     * calls.
+     */
+    List<Tile> tilesIn(int cell) {
+        world.tilesAtPosition(
+                dimensions.tileToPixel(originX + cell % width),
+                dimensions.tileToPixel(originY + cell / width),
+                dimensions,
+                cellTiles
+        );
+        return cellTiles;
+    }
+}
@@ -0,0 +1,74 @@
+package builder.pathfinding;
+
+import builder.entities.resources.Cabbage;
+import builder.entities.tiles.OreVein;
+import builder.entities.tiles.Tile;
+
+/**
+ * Something for agents to walk to: decides which tiles a {@link FlowField} leads towards.
+ */
+public interface Goal {
+    /**
+     * Ore veins with ore left to mine.
+     */
+    Goal ORE_VEINS = tile -> tile instanceof OreVein
+            && !((OreVein) tile).getOre().isMarkedForRemoval();
+
+    /**
+     * Fully grown cabbages, ready to be collected. Growing cabbages are rechecked on every
+     * update, since a cabbage growing does not change its tile.
+     */
+    Goal COLLECTABLE_CABBAGES = new Goal() {
+        @Override
+        public boolean isGoal(Tile tile) {
+            return hasCabbage(tile, true);
+        }
+
+        @Override
+        public boolean mayChange(Tile tile) {
+            return hasCabbage(tile, false);
+        }
+
+        /**
+         * Whether a cabbage that is (or is not yet) grown is stacked on the tile. Walks the stack
+         * in place, since every cell of the field is checked.
+         */
+        private boolean hasCabbage(Tile tile, boolean grown) {
+            if (tile.stackSize() == 0) {
+                return false;
+            }
+            boolean[] found = {false};
+            tile.forEachStacked(entity -> {
+                if (entity instanceof Cabbage && !entity.isMarkedForRemoval()
+                        && isGrown((Cabbage) entity) == grown) {
+                    found[0] = true;
+                }
+            });
+            return found[0];
+        }
+
+        private boolean isGrown(Cabbage cabbage) {
+            return cabbage.getGrowthStage() == cabbage.stageCount() - 1;
+        }
+    };
+
+    /**
+     * Whether agents should head for the given tile. Tiles marked for removal are never goals.
+     *
+     * @param tile a tile that has not been marked for removal
+     * @return true if the tile's cell is a destination
+     */
+    boolean isGoal(Tile tile);
+
+    /**
+     * Whether the tile may become, or stop being, a goal without being replaced or having its
+     * stack changed, for example because something stacked on it changes over time. Such tiles
+     * are rechecked on every update.
+     *
+     * @param tile a tile that has not been marked for removal
+     * @return true if {@link #isGoal(Tile)} must be rechecked every update
+     */
+    default boolean mayChange(Tile tile) {
+        return false;
+    }
+}
@@ -1,7 +1,9 @@
 package builder.player;
 
 import builder.inventory.items.Item;
+import builder.ui.AnimationClock;
 import builder.ui.SpriteGallery;
+import builder.ui.VisualChanges;
 import engine.EngineState;
 import engine.art.sprites.Sprite;
 import engine.art.sprites.SpriteGroup;
@@ -14,41 +16,60 @@ import engine.timing.AnimationDuration;
  * Represents the player character "Chicken Farmer".
  * The farmer can move in different directions, take damage,
  * and perform use actions with items.
+ *
+ * <p>The sprite is only switched when what the farmer is doing changes: starting to move in a new
+ * direction, stopping, or using an item. The sprites are looked up once, on construction.
+ *
+ * <p>An item's use animation is shown, and ticked, for as long as the item keeps being used: the
+ * farmer goes back to the default sprite on the first tick with no use since the tick before.
  */
 public class ChickenFarmer extends Entity implements Player {
     private final SpriteGroup art = SpriteGallery.chickenFarmer;
+    private final AnimationClock animations;
     private final Animation leftAnimation;
     private final Animation rightAnimation;
+    private final Sprite upSprite;
+    private final Sprite downSprite;
     private Animation useAnimation;
+    private Object shown;
+    private boolean moved = false;
+    private boolean used = false;
 
     /**
      * Constructs a Chicken Farmer at the given coordinates.
      *
-     * @param x the x-coordinate
-     * @param y the y-coordinate
+     * @param x          the x-coordinate
+     * @param y          the y-coordinate
+     * @param animations the game's clock, which shares the walking animations between farmers
      */
-    public ChickenFarmer(int x, int y) {
+    public ChickenFarmer(int x, int y, AnimationClock animations) {
         super(x, y);
-        this.leftAnimation = new Animation(
-                AnimationDuration.SLOW,
-                new Sprite[] {
-                        art.getSprite("left"),
-                        art.getSprite("left1"),
-                        art.getSprite("left2")
-                }
-        );
-
-        this.rightAnimation = new Animation(
-                AnimationDuration.SLOW,
-                new Sprite[] {
-                        art.getSprite("right"),
-                        art.getSprite("right1"),
-                        art.getSprite("right2")
-                }
-        );
+        this.animations = animations;
+        this.leftAnimation = animations.shared(
+                "chickenFarmer.left", AnimationDuration.SLOW, art, "left", "left1", "left2");
+        this.rightAnimation = animations.shared(
+                "chickenFarmer.right", AnimationDuration.SLOW, art, "right", "right1", "right2");
+        this.upSprite = art.getSprite("up");
+        this.downSprite = art.getSprite("down");
 
         // Set initial sprite
-        setSprite(art.getSprite("down"));
+        show(downSprite);
+    }
+
+    private void show(Sprite sprite) {
+        if (shown != sprite) {
+            shown = sprite;
+            setSprite(sprite);
+            VisualChanges.changed(this);
+        }
+    }
+
+    private void show(Animation animation) {
+        if (shown != animation) {
+            shown = animation;
+            setSprite(animation);
+            VisualChanges.changed(this);
+        }
     }
 
     /**
@@ -71,41 +92,54 @@ public class ChickenFarmer extends Entity implements Player {
         switch (direction) {
             case NORTH:
                 setY(getY() - amount);
-                setSprite(art.getSprite("up"));
+                show(upSprite);
                 break;
             case SOUTH:
                 setY(getY() + amount);
-                setSprite(art.getSprite("down"));
+                show(downSprite);
                 break;
             case EAST:
                 setX(getX() + amount);
-                setSprite(rightAnimation);
+                show(rightAnimation);
                 break;
             case WEST:
                 setX(getX() - amount);
-                setSprite(leftAnimation);
+                show(leftAnimation);
                 break;
         }
+        moved = true;
     }
 
     /**
-     * Updates animations and resets the default sprite each tick.
+     * Advances the shared animations and the use animation, and goes back to the default sprite
+     * if the farmer has neither moved nor used an item since the previous tick. Should be called
+     * after this tick's movement.
      *
      * @param state the current engine state
      */
     @Override
     public void tick(EngineState state) {
-        setSprite(art.getSprite("down"));
+        if (!moved && !used) {
+            show(downSprite);
+        }
+        moved = false;
+        used = false;
 
-        leftAnimation.tick(state);
-        rightAnimation.tick(state);
-        if (useAnimation != null) {
+        if (shown == leftAnimation || shown == rightAnimation) {
+            animations.tickShown((Animation) shown, state);
+        } else if (useAnimation != null && shown == useAnimation) {
+            // Item animations are not shared, so the farmer ticks its own.
             useAnimation.tick(state);
         }
+        if (shown instanceof Animation) {
+            // The animation moved on to its next frame.
+            VisualChanges.changed(this);
+        }
     }
 
     /**
-     * Uses the given item, triggering its use animation if available.
+     * Uses the given item, triggering its use animation if available. The animation keeps
+     * showing, and is ticked, until a tick passes without a use or the farmer moves.
      *
      * @param item the item to use
      */
@@ -116,7 +150,8 @@ public class ChickenFarmer extends Entity implements Player {
 
         if (item.useAnimation().isPresent()) {
             this.useAnimation = item.useAnimation().get();
-            setSprite(useAnimation);
+            used = true;
+            show(useAnimation);
         }
     }
 }
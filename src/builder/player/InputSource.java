@@ -0,0 +1,86 @@
+package builder.player;
+
+import builder.InputRecording;
+import engine.EngineState;
+
+/**
+ * Where a player's input comes from: the engine's keyboard and mouse for the player at the
+ * screen, or anything else, such as a recording or a bot, for other players.
+ */
+public interface InputSource {
+    /**
+     * Input from the engine's keyboard and mouse.
+     */
+    InputSource ENGINE = new InputSource() {
+        @Override
+        public boolean isDown(EngineState state, char key) {
+            return state.getKeys().isDown(key);
+        }
+
+        @Override
+        public boolean isLeftPressed(EngineState state) {
+            return state.getMouse().isLeftPressed();
+        }
+    };
+
+    /**
+     * Whether a key is held down during the current tick.
+     *
+     * @param state the current engine state
+     * @param key   the key
+     * @return true if the key is held down
+     */
+    boolean isDown(EngineState state, char key);
+
+    /**
+     * Whether the left mouse button is pressed during the current tick.
+     *
+     * @param state the current engine state
+     * @return true if the button is pressed
+     */
+    boolean isLeftPressed(EngineState state);
+
+    /**
+     * Moves on from the current tick's input to the next tick's. {@link PlayerManager} calls this
+     * once per tick for each player, after reading the player's input, so sources that play input
+     * back frame by frame keep in step with the simulation rather than with the engine's ticks.
+     */
+    default void advance() {
+    }
+
+    /**
+     * Returns input that replays a recording on a loop, one frame per {@link #advance()}: one
+     * frame per tick of the player manager, however many simulation steps each engine tick runs.
+     * The returned source keeps its own place in the recording, so each player replaying the
+     * recording needs a source of its own.
+     *
+     * @param recording the input to replay; must not be empty
+     * @param offset    the frame to play first, so that players replaying the same recording
+     *                  need not move in step
+     * @return the replaying input
+     * @throws IllegalArgumentException if the recording is empty
+     */
+    static InputSource replaying(InputRecording recording, int offset) {
+        if (recording.size() == 0) {
+            throw new IllegalArgumentException("Cannot replay an empty recording");
+        }
+        return new InputSource() {
+            private int frame = Math.floorMod(offset, recording.size());
+
+            @Override
+            public boolean isDown(EngineState state, char key) {
+                return recording.keysAt(frame).indexOf(key) >= 0;
+            }
+
+            @Override
+            public boolean isLeftPressed(EngineState state) {
+                return recording.leftPressedAt(frame);
+            }
+
+            @Override
+            public void advance() {
+                frame = (frame + 1) % recording.size();
+            }
+        };
+    }
+}
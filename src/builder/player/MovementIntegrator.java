@@ -0,0 +1,199 @@
+package builder.player;
+
+import builder.world.World;
+import engine.renderer.Dimensions;
+
+/**
+ * Integrates player movement: turns a direction held for one tick into a move of the player's
+ * bounding box, at any speed and in any of eight directions, stopping against cells that cannot
+ * be walked through.
+ *
+ * <p>Speeds are in pixels per tick and may be fractional; the fractions are carried over to later
+ * ticks. While a direction is held, the distance covered is worked out from the number of ticks
+ * it has been held rather than by adding up the speed tick by tick, so rounding errors do not
+ * build up: at 0.1 pixels per tick, 1000 ticks cover exactly 100 pixels. Diagonal moves are
+ * scaled so the player covers the same distance per tick in every direction.
+ *
+ * <p>Collision is swept: each axis is moved separately (so the player slides along walls), and
+ * only the columns or rows of cells that the box's leading edge enters during the move are
+ * tested, using {@link World#isAreaWalkable}. However fast the player moves, a move never skips
+ * over a wall, and costs one area test per cell boundary crossed. A box already overlapping a
+ * blocked cell can still move out of it.
+ */
+public class MovementIntegrator {
+    private static final double DIAGONAL = Math.sqrt(0.5);
+    /**
+     * Allowance for rounding when flooring a distance that should be a whole number of pixels.
+     */
+    private static final double EPSILON = 1e-9;
+
+    private double speed;
+    private final Run runX = new Run();
+    private final Run runY = new Run();
+    private int movedX = 0;
+    private int movedY = 0;
+
+    /**
+     * Creates an integrator moving at the given speed.
+     *
+     * @param speed the distance moved per tick, in pixels
+     * @throws IllegalArgumentException if speed is negative
+     */
+    public MovementIntegrator(double speed) {
+        setSpeed(speed);
+    }
+
+    /**
+     * Returns the distance moved per tick.
+     *
+     * @return the speed, in pixels per tick
+     */
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Sets the distance moved per tick.
+     *
+     * @param speed the speed, in pixels per tick
+     * @throws IllegalArgumentException if speed is negative
+     */
+    public void setSpeed(double speed) {
+        if (speed < 0 || Double.isNaN(speed)) {
+            throw new IllegalArgumentException("Speed must not be negative: " + speed);
+        }
+        this.speed = speed;
+    }
+
+    /**
+     * Works out one tick of movement for a box. The result is read with {@link #movedX()} and
+     * {@link #movedY()}; the box itself is not moved.
+     *
+     * @param x          the left of the box, in pixels
+     * @param y          the top of the box, in pixels
+     * @param width      the width of the box, in pixels
+     * @param height     the height of the box, in pixels
+     * @param directionX -1 to move west, 1 to move east, 0 to not move horizontally
+     * @param directionY -1 to move north, 1 to move south, 0 to not move vertically
+     * @param world      the world to collide with, or null to move freely
+     * @param dimensions the dimensions used to convert pixels to tile positions
+     */
+    public void integrate(int x, int y, int width, int height, int directionX, int directionY,
+                          World world, Dimensions dimensions) {
+        double step = directionX != 0 && directionY != 0 ? speed * DIAGONAL : speed;
+        int wantX = runX.advance(Integer.signum(directionX) * step);
+        int wantY = runY.advance(Integer.signum(directionY) * step);
+
+        movedX = sweepX(x, y, width, height, wantX, world, dimensions);
+        movedY = sweepY(x + movedX, y, width, height, wantY, world, dimensions);
+        runX.moved(wantX, movedX);
+        runY.moved(wantY, movedY);
+    }
+
+    /**
+     * Returns how far the box moved east in the last {@link #integrate} call.
+     *
+     * @return the horizontal distance moved, in pixels; negative for west
+     */
+    public int movedX() {
+        return movedX;
+    }
+
+    /**
+     * Returns how far the box moved south in the last {@link #integrate} call.
+     *
+     * @return the vertical distance moved, in pixels; negative for north
+     */
+    public int movedY() {
+        return movedY;
+    }
+
+    private static int sweepX(int x, int y, int width, int height, int distance,
+                              World world, Dimensions dimensions) {
+        if (distance == 0 || world == null) {
+            return distance;
+        }
+        int step = Integer.signum(distance);
+        int edge = step > 0 ? x + width - 1 : x;
+        int last = dimensions.pixelToTile(edge + distance);
+        for (int column = dimensions.pixelToTile(edge); column != last; ) {
+            column += step;
+            int left = dimensions.tileToPixel(column);
+            if (!world.isAreaWalkable(left, y, left, y + height - 1, dimensions)) {
+                // Stop flush against the blocked column.
+                return step > 0 ? left - 1 - edge : left + dimensions.tileSize() - edge;
+            }
+        }
+        return distance;
+    }
+
+    private static int sweepY(int x, int y, int width, int height, int distance,
+                              World world, Dimensions dimensions) {
+        if (distance == 0 || world == null) {
+            return distance;
+        }
+        int step = Integer.signum(distance);
+        int edge = step > 0 ? y + height - 1 : y;
+        int last = dimensions.pixelToTile(edge + distance);
+        for (int row = dimensions.pixelToTile(edge); row != last; ) {
+            row += step;
+            int top = dimensions.tileToPixel(row);
+            if (!world.isAreaWalkable(x, top, x + width - 1, top, dimensions)) {
+                return step > 0 ? top - 1 - edge : top + dimensions.tileSize() - edge;
+            }
+        }
+        return distance;
+    }
+
+    /**
+     * Movement along one axis at a constant step per tick: the fraction of a pixel carried over
+     * from before the step last changed, and how many ticks the step has been held since.
+     */
+    private static class Run {
+        private double step = 0;
+        private double base = 0;
+        private long ticks = 0;
+        private long taken = 0;
+
+        /**
+         * Holds a step for one more tick.
+         *
+         * @param step the signed distance per tick, or 0 when not moving along this axis
+         * @return the whole number of pixels to move this tick
+         */
+        int advance(double step) {
+            if (step == 0) {
+                reset();
+                return 0;
+            }
+            if (step != this.step) {
+                // Keep the fraction not yet moved, e.g. when turning from diagonal to straight.
+                base = base + ticks * this.step - taken;
+                this.step = step;
+                ticks = 0;
+                taken = 0;
+            }
+            ticks++;
+            double distance = base + ticks * step;
+            return (int) ((long) (distance + Math.copySign(EPSILON, distance)) - taken);
+        }
+
+        /**
+         * Records how far the box actually moved; a blocked move drops any carried fraction.
+         */
+        void moved(int wanted, int moved) {
+            if (moved != wanted) {
+                reset();
+            } else {
+                taken += moved;
+            }
+        }
+
+        private void reset() {
+            step = 0;
+            base = 0;
+            ticks = 0;
+            taken = 0;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package builder.player;
+
+import java.util.Arrays;
+
+/**
+ * Groups players by the tile cell they are interacting with, so the tiles of each cell are looked
+ * up once per tick however many players share it.
+ *
+ * <p>The index is an open-addressing hash table from cell to the chain of players in it, held in
+ * primitive arrays that are reused from tick to tick. Rebuilding it costs one hash insert per
+ * player.
+ */
+class PlayerIndex {
+    private long[] cells = new long[16];
+    private int[] heads = new int[16];
+    private int[] tails = new int[16];
+    private int[] next = new int[0];
+    private int[] slotOf = new int[0];
+    private int mask = 15;
+
+    /**
+     * Empties the index, making room for the given number of players.
+     *
+     * @param players the number of players about to be added
+     */
+    void clear(int players) {
+        int capacity = Integer.highestOneBit(Math.max(8, players) * 2 - 1) << 1;
+        if (capacity > heads.length) {
+            cells = new long[capacity];
+            heads = new int[capacity];
+            tails = new int[capacity];
+            mask = capacity - 1;
+        }
+        Arrays.fill(heads, -1);
+        if (next.length < players) {
+            next = new int[players];
+            slotOf = new int[players];
+        }
+    }
+
+    /**
+     * Adds a player to the chain of its cell. Players must be added in order, from 0.
+     *
+     * @param player the player's number
+     * @param tileX  the column of the cell
+     * @param tileY  the row of the cell
+     */
+    void add(int player, int tileX, int tileY) {
+        long cell = ((long) tileX << 32) | (tileY & 0xFFFFFFFFL);
+        int slot = (int) ((cell * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+        while (heads[slot] != -1 && cells[slot] != cell) {
+            slot = (slot + 1) & mask;
+        }
+        next[player] = -1;
+        slotOf[player] = slot;
+        if (heads[slot] == -1) {
+            cells[slot] = cell;
+            heads[slot] = player;
+        } else {
+            next[tails[slot]] = player;
+        }
+        tails[slot] = player;
+    }
+
+    /**
+     * Whether a player is the first, in player order, in its cell.
+     *
+     * @param player the player's number
+     * @return true if the player heads its cell's chain
+     */
+    boolean isFirstInCell(int player) {
+        return heads[slotOf[player]] == player;
+    }
+
+    /**
+     * Returns the next player in the same cell.
+     *
+     * @param player the player's number
+     * @return the next player's number, or -1 if the player is the last in its cell
+     */
+    int nextInCell(int player) {
+        return next[player];
+    }
+}
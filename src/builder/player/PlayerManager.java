@@ -2,116 +2,302 @@ package builder.player;
 
 import builder.GameState;
 import builder.Tickable;
+import builder.ui.AnimationClock;
 import builder.ui.RenderableGroup;
 import builder.entities.tiles.*;
+import builder.inventory.Inventory;
+import builder.world.World;
 import engine.EngineState;
 import engine.game.Direction;
+import engine.renderer.Dimensions;
 import engine.renderer.Renderable;
-import engine.input.KeyState;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Manages the player character and handles input, movement,
  * collision detection, and interactions with tiles.
+ *
+ * <p>Besides the player at the screen, any number of other players or bots can share the farm
+ * (see {@link #addPlayer}), each with its own inventory and {@link InputSource}. Every tick is
+ * processed in batches: all players' input is read, then all players move, then all interact.
+ * Interactions go through a spatial index of the cells the players stand over, so the tiles of
+ * each cell are looked up once however many players share it, and a tick costs time in
+ * proportion to the number of players.
  */
 public class PlayerManager implements Tickable, RenderableGroup {
-    private ChickenFarmer player;
+    /**
+     * The players' walking speed, in pixels per tick, unless changed with {@link #setSpeed}.
+     */
+    public static final double DEFAULT_SPEED = 1;
+
+    private final List<Seat> seats = new ArrayList<>();
+    private final List<Player> players = new ArrayList<>();
+    private final PlayerIndex index = new PlayerIndex();
+    private final List<Tile> nearbyTiles = new ArrayList<>();
+    private final AnimationClock animations;
+    private List<Renderable> renderables;
+    private double speed = DEFAULT_SPEED;
 
     /**
      * Creates a PlayerManager and spawns a ChickenFarmer at the given coordinates.
      *
-     * @param x the initial x-coordinate of the player
-     * @param y the initial y-coordinate of the player
+     * @param x          the initial x-coordinate of the player
+     * @param y          the initial y-coordinate of the player
+     * @param animations the game's animation clock, shared by every player
+     */
+    public PlayerManager(int x, int y, AnimationClock animations) {
+        this.animations = animations;
+        // The player at the screen uses the inventory of the game state it is ticked with.
+        addSeat(new ChickenFarmer(x, y, animations), null, InputSource.ENGINE);
+    }
+
+    /**
+     * Spawns another player, with its own inventory and input.
+     *
+     * @param x         the initial x-coordinate of the player
+     * @param y         the initial y-coordinate of the player
+     * @param inventory the player's inventory
+     * @param input     where the player's input comes from
+     * @return the new player
+     */
+    public Player addPlayer(int x, int y, Inventory inventory, InputSource input) {
+        if (inventory == null || input == null) {
+            throw new IllegalArgumentException("A player needs an inventory and an input source");
+        }
+        ChickenFarmer player = new ChickenFarmer(x, y, animations);
+        addSeat(player, inventory, input);
+        return player;
+    }
+
+    private void addSeat(ChickenFarmer player, Inventory inventory, InputSource input) {
+        seats.add(new Seat(player, inventory, input, new MovementIntegrator(speed)));
+        players.add(player);
+        renderables = null;
+    }
+
+    /**
+     * Removes a player added with {@link #addPlayer}.
+     *
+     * @param player the player to remove
+     * @return true if the player was removed; false if it is not managed here
+     * @throws IllegalArgumentException if the player is the one at the screen
+     */
+    public boolean removePlayer(Player player) {
+        if (player == getPlayer()) {
+            throw new IllegalArgumentException("Cannot remove the player at the screen");
+        }
+        int i = players.indexOf(player);
+        if (i < 0) {
+            return false;
+        }
+        seats.remove(i);
+        players.remove(i);
+        renderables = null;
+        return true;
+    }
+
+    /**
+     * Returns every player, starting with the one at the screen.
+     *
+     * @return an unmodifiable view of the players
      */
-    public PlayerManager(int x, int y) {
-        this.player = new ChickenFarmer(x, y);
+    public List<Player> getPlayers() {
+        return Collections.unmodifiableList(players);
     }
 
     /**
-     * Updates the player each tick, processes input, movement,
+     * Sets the walking speed of every player, including those added later.
+     *
+     * @param speed the distance walked per tick, in pixels; may be fractional
+     * @throws IllegalArgumentException if speed is negative
+     */
+    public void setSpeed(double speed) {
+        for (Seat seat : seats) {
+            seat.movement.setSpeed(speed);
+        }
+        this.speed = speed;
+    }
+
+    /**
+     * Updates the players each tick, processes input, movement,
      * collisions, and interactions with tiles.
      *
+     * <p>W, A, S and D move a player, diagonally if two are held. Each player's one-tile bounding
+     * box is swept against the world (see {@link MovementIntegrator}), so it stops flush against
+     * anything that cannot be walked through. Players do not collide with each other.
+     *
      * @param state the current engine state
-     * @param game  the current game state
+     * @param game  the current game state, holding the inventory of the player at the screen
      */
     @Override
     public void tick(EngineState state, GameState game) {
-        player.tick(state);
+        // Read everyone's input before anyone moves.
+        for (int i = 0; i < seats.size(); i++) {
+            seats.get(i).read(state, game);
+        }
 
-        KeyState keyState = state.getKeys();
-        if (keyState.isDown('w')) {
-            int newY = player.getY() - 1;
-            if (canMoveTo(player.getX(), newY, state, game)) {
-                player.move(Direction.NORTH, 1);
-            }
-        } else if (keyState.isDown('s')) {
-            int newY = player.getY() + 1;
-            if (canMoveTo(player.getX(), newY, state, game)) {
-                player.move(Direction.SOUTH, 1);
-            }
-        } else if (keyState.isDown('a')) {
-            int newX = player.getX() - 1;
-            if (canMoveTo(newX, player.getY(), state, game)) {
-                player.move(Direction.WEST, 1);
-            }
-        } else if (keyState.isDown('d')) {
-            int newX = player.getX() + 1;
-            if (canMoveTo(newX, player.getY(), state, game)) {
-                player.move(Direction.EAST, 1);
-            }
+        Dimensions dimensions = state.getDimensions();
+        int size = dimensions.tileSize();
+        for (int i = 0; i < seats.size(); i++) {
+            move(seats.get(i), size, game.getWorld(), dimensions);
         }
 
-        if (game.getWorld() != null) {
-            List<Tile> tiles = game.getWorld().tilesAtPosition(
-                    player.getX(),
-                    player.getY() + state.getDimensions().tileSize(),
-                    state.getDimensions()
-            );
+        // Ticked after moving, so a farmer only shows its idle sprite when standing still.
+        for (int i = 0; i < seats.size(); i++) {
+            seats.get(i).player.tick(state);
+        }
 
-            for (Tile tile : tiles) {
-                tile.interact(state, game);
+        if (game.getWorld() != null) {
+            interact(state, game.getWorld(), dimensions);
+        }
+    }
 
-                if (state.getMouse().isLeftPressed()) {
-                    tile.use(state, game);
-                }
-            }
+    private void move(Seat seat, int size, World world, Dimensions dimensions) {
+        if (seat.directionX == 0 && seat.directionY == 0) {
+            return;
+        }
+        ChickenFarmer player = seat.player;
+        MovementIntegrator movement = seat.movement;
+        movement.integrate(player.getX(), player.getY(), size, size,
+                seat.directionX, seat.directionY, world, dimensions);
+        if (movement.movedY() != 0) {
+            player.move(movement.movedY() < 0 ? Direction.NORTH : Direction.SOUTH,
+                    Math.abs(movement.movedY()));
+        }
+        if (movement.movedX() != 0) {
+            player.move(movement.movedX() < 0 ? Direction.WEST : Direction.EAST,
+                    Math.abs(movement.movedX()));
         }
     }
 
-    private boolean canMoveTo(int newX, int newY, EngineState state, GameState game) {
-        if (game.getWorld() == null) {
-            return true; 
+    /**
+     * Lets every player interact with, and use, the tiles below it. Players over the same cell
+     * share one lookup of its tiles, and act on them in player order.
+     */
+    private void interact(EngineState state, World world, Dimensions dimensions) {
+        int size = dimensions.tileSize();
+        index.clear(seats.size());
+        for (int i = 0; i < seats.size(); i++) {
+            ChickenFarmer player = seats.get(i).player;
+            index.add(i, dimensions.pixelToTile(player.getX()),
+                    dimensions.pixelToTile(player.getY() + size));
         }
 
-        List<Tile> tiles = game.getWorld().tilesAtPosition(newX, newY, state.getDimensions());
-        for (Tile tile : tiles) {
-            if (!tile.canWalkThrough()) {
-                return false; 
+        for (int i = 0; i < seats.size(); i++) {
+            if (!index.isFirstInCell(i)) {
+                continue;
             }
+            ChickenFarmer first = seats.get(i).player;
+            // Copied into a reused buffer: using a tile may place a new tile in the same cell.
+            world.tilesAtPosition(first.getX(), first.getY() + size, dimensions, nearbyTiles);
+
+            for (int p = i; p != -1; p = index.nextInCell(p)) {
+                Seat seat = seats.get(p);
+                for (int t = 0; t < nearbyTiles.size(); t++) {
+                    Tile tile = nearbyTiles.get(t);
+                    tile.interact(state, seat.game);
+
+                    if (seat.using) {
+                        tile.use(state, seat.game);
+                    }
+                }
+            }
+            nearbyTiles.clear();
         }
-        return true;
     }
 
     /**
-     * Returns the player entity controlled by this manager.
+     * Returns the player at the screen.
      *
      * @return the player
      */
     public Player getPlayer() {
-        return player;
+        return seats.get(0).player;
     }
 
     /**
-     * Returns the renderables associated with the player.
+     * Places the player at the screen at the given position without checking for collisions,
+     * e.g. when restoring a saved game.
      *
-     * @return list of renderables for drawing
+     * @param x the new x-coordinate of the player
+     * @param y the new y-coordinate of the player
+     */
+    public void moveTo(int x, int y) {
+        ChickenFarmer player = seats.get(0).player;
+        player.setX(x);
+        player.setY(y);
+    }
+
+    /**
+     * Returns the renderables associated with the players.
+     *
+     * @return unmodifiable list of renderables for drawing, shared until a player is added or
+     *     removed
      */
     @Override
     public List<Renderable> render() {
-        List<Renderable> renderables = new ArrayList<>();
-        renderables.add(player);
+        if (renderables == null) {
+            List<Renderable> built = new ArrayList<>(seats.size());
+            for (Seat seat : seats) {
+                built.add(seat.player);
+            }
+            renderables = Collections.unmodifiableList(built);
+        }
         return renderables;
     }
+
+    /**
+     * A player with its inventory and input, and the game state it sees while acting: the shared
+     * world with its own player and inventory.
+     */
+    private static class Seat implements GameState {
+        private final ChickenFarmer player;
+        private final Inventory inventory;
+        private final InputSource input;
+        private final MovementIntegrator movement;
+        private GameState shared;
+        private GameState game;
+        private int directionX;
+        private int directionY;
+        private boolean using;
+
+        Seat(ChickenFarmer player, Inventory inventory, InputSource input,
+             MovementIntegrator movement) {
+            this.player = player;
+            this.inventory = inventory;
+            this.input = input;
+            this.movement = movement;
+        }
+
+        /**
+         * Reads this tick's input.
+         */
+        void read(EngineState state, GameState shared) {
+            this.shared = shared;
+            // Without an inventory of its own, the player acts in the shared game state.
+            this.game = inventory == null ? shared : this;
+            directionX = (input.isDown(state, 'd') ? 1 : 0) - (input.isDown(state, 'a') ? 1 : 0);
+            directionY = (input.isDown(state, 's') ? 1 : 0) - (input.isDown(state, 'w') ? 1 : 0);
+            using = shared.getWorld() != null && input.isLeftPressed(state);
+            input.advance();
+        }
+
+        @Override
+        public Inventory getInventory() {
+            return inventory;
+        }
+
+        @Override
+        public Player getPlayer() {
+            return player;
+        }
+
+        @Override
+        public World getWorld() {
+            return shared.getWorld();
+        }
+    }
 }
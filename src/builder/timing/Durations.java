@@ -0,0 +1,44 @@
+package builder.timing;
+
+import engine.timing.RepeatingTimer;
+import engine.timing.TickTimer;
+import engine.timing.TimerDuration;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Converts {@link TimerDuration}s to a number of ticks, for code that schedules or counts down
+ * timed events itself instead of ticking a {@link TickTimer}.
+ */
+public class Durations {
+    private static final Map<TimerDuration, Integer> ticks = new EnumMap<>(TimerDuration.class);
+
+    /**
+     * Creates a Durations. (Helper class with static methods.)
+     */
+    public Durations() {
+    }
+
+    /**
+     * Returns how many ticks a {@link RepeatingTimer} of the given duration takes to finish.
+     *
+     * @param duration the timer duration
+     * @return the period of the timer, in ticks
+     */
+    public static synchronized int ticks(TimerDuration duration) {
+        Integer period = ticks.get(duration);
+        if (period == null) {
+            // Measured rather than assumed, so it always matches the engine's timers.
+            TickTimer timer = new RepeatingTimer(duration);
+            int count = 0;
+            do {
+                timer.tick();
+                count++;
+            } while (!timer.isFinished());
+            period = count;
+            ticks.put(duration, period);
+        }
+        return period;
+    }
+}
@@ -0,0 +1,25 @@
+package builder.timing;
+
+/**
+ * An entity whose timed behaviour can be driven by a {@link TimerWheel} instead of being ticked
+ * every frame.
+ *
+ * <p>Until it is attached, the entity keeps its own per-frame timers. Once attached, it registers
+ * its next event with the wheel and no longer needs to be ticked.
+ */
+public interface Scheduled {
+
+    /**
+     * Hands the entity the timer wheel to schedule its future events on. Called at most once.
+     *
+     * @param wheel the timer wheel of the world holding the entity
+     */
+    void attach(TimerWheel wheel);
+
+    /**
+     * Whether the entity's timed behaviour is driven by a timer wheel.
+     *
+     * @return true once {@link #attach(TimerWheel)} has been called
+     */
+    boolean isAttached();
+}
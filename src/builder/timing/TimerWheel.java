@@ -0,0 +1,208 @@
+package builder.timing;
+
+/**
+ * A hierarchical timer wheel, for scheduling callbacks a number of ticks in the future.
+ *
+ * <p>The wheel has four levels of 64 slots. Level 0 holds timeouts due within the next 64 ticks,
+ * one slot per tick; each higher level covers 64 times the span of the level below it. Every 64
+ * ticks the next slot of level 1 is cascaded down into level 0 (and likewise for the higher
+ * levels), so each timeout is only moved a few times during its life. Scheduling and cancelling
+ * are constant time, and {@link #advance()} only does work for the timeouts that are due, plus the
+ * occasional cascade, however many timeouts are pending.
+ *
+ * <p>Timeouts further away than the wheel's span (2<sup>24</sup> ticks) wait in the last slot of
+ * the top level and are re-inserted when it is cascaded.
+ *
+ * <p>A timer wheel is not thread-safe; it is meant to be scheduled on and advanced by the thread
+ * that runs the game loop.
+ */
+public class TimerWheel {
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN = 1L << (BITS * LEVELS);
+
+    private final Timeout[][] slots = new Timeout[LEVELS][SLOTS];
+    private long now = 0;
+    private int size = 0;
+
+    /**
+     * Creates an empty timer wheel at tick 0.
+     */
+    public TimerWheel() {
+    }
+
+    /**
+     * Returns the number of times the wheel has been advanced.
+     *
+     * @return the current tick
+     */
+    public long now() {
+        return now;
+    }
+
+    /**
+     * Returns the number of timeouts that have been scheduled but have not yet run or been
+     * cancelled.
+     *
+     * @return the number of pending timeouts
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Schedules a task to run once, after the wheel has been advanced the given number of times.
+     *
+     * @param delay the number of ticks to wait
+     * @param task  the task to run
+     * @return a handle that can be used to cancel the task
+     * @throws IllegalArgumentException if delay is less than 1
+     */
+    public Timeout schedule(long delay, Runnable task) {
+        if (delay < 1) {
+            throw new IllegalArgumentException("Delay must be at least one tick, got " + delay);
+        }
+        Timeout timeout = new Timeout(now + delay, task);
+        insert(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Moves the wheel forward by one tick and runs every task that is now due, in the order they
+     * were scheduled. Tasks may schedule or cancel other timeouts.
+     */
+    public void advance() {
+        now++;
+        int index = (int) (now & MASK);
+        if (index == 0) {
+            cascade(1);
+        }
+
+        Timeout due;
+        while ((due = slots[0][index]) != null) {
+            unlink(due);
+            size--;
+            due.task.run();
+        }
+    }
+
+    /**
+     * Moves the timeouts in the current slot of a level down to the levels below it.
+     */
+    private void cascade(int level) {
+        if (level >= LEVELS) {
+            return;
+        }
+        int index = (int) ((now >>> (BITS * level)) & MASK);
+        if (index == 0) {
+            cascade(level + 1);
+        }
+
+        Timeout timeout = slots[level][index];
+        slots[level][index] = null;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.previous = null;
+            timeout.next = null;
+            insert(timeout);
+            timeout = next;
+        }
+    }
+
+    private void insert(Timeout timeout) {
+        long delta = Math.max(0, timeout.deadline - now);
+        long at = delta >= SPAN ? now + SPAN - 1 : now + delta;
+        int level = 0;
+        while (level < LEVELS - 1 && at - now >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+
+        int index = (int) ((at >>> (BITS * level)) & MASK);
+        // Appended at the tail so timeouts due on the same tick run in scheduling order.
+        Timeout head = slots[level][index];
+        if (head == null) {
+            timeout.previous = timeout;
+            slots[level][index] = timeout;
+        } else {
+            Timeout tail = head.previous;
+            tail.next = timeout;
+            timeout.previous = tail;
+            head.previous = timeout;
+        }
+        timeout.level = level;
+        timeout.index = index;
+    }
+
+    private void unlink(Timeout timeout) {
+        Timeout head = slots[timeout.level][timeout.index];
+        if (timeout == head) {
+            slots[timeout.level][timeout.index] = timeout.next;
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            }
+        } else {
+            timeout.previous.next = timeout.next;
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            } else {
+                head.previous = timeout.previous;
+            }
+        }
+        timeout.previous = null;
+        timeout.next = null;
+        timeout.level = -1;
+    }
+
+    /**
+     * A task scheduled on a {@link TimerWheel}.
+     */
+    public final class Timeout {
+        private final long deadline;
+        private final Runnable task;
+        // Slot lists are doubly linked; the head's previous pointer is the tail of its list.
+        private Timeout previous;
+        private Timeout next;
+        private int level = -1;
+        private int index;
+
+        private Timeout(long deadline, Runnable task) {
+            this.deadline = deadline;
+            this.task = task;
+        }
+
+        /**
+         * Returns the tick at which the task runs.
+         *
+         * @return the deadline, as a value of {@link TimerWheel#now()}
+         */
+        public long deadline() {
+            return deadline;
+        }
+
+        /**
+         * Whether the task is still waiting to run.
+         *
+         * @return true if the task has neither run nor been cancelled
+         */
+        public boolean isPending() {
+            return level >= 0;
+        }
+
+        /**
+         * Stops the task from running, if it has not run yet.
+         *
+         * @return true if the task was pending and has been cancelled
+         */
+        public boolean cancel() {
+            if (!isPending()) {
+                return false;
+            }
+            unlink(this);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package builder.ui;
+
+import engine.EngineState;
+import engine.art.sprites.Sprite;
+import engine.art.sprites.SpriteGroup;
+import engine.timing.Animation;
+import engine.timing.AnimationDuration;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A clock for the animations shared by the entities of one game.
+ *
+ * <p>Rather than every entity building and ticking its own copy of each of its animations,
+ * entities ask the clock for a {@link #shared} animation by name. The game {@link #advance}s the
+ * clock once per simulation step, and an entity showing a shared animation asks the clock to
+ * {@link #tickShown tick} it. Each shared animation is ticked at most once per step, however many
+ * entities show it, and not at all while nothing shows it. All entities showing the same
+ * animation therefore show the same frame, and animations move on with the simulation rather
+ * than with the engine's frame rate.
+ *
+ * <p>Each game owns its clock, so games (and tests) never share animation state. A clock is used
+ * from the thread running the game's simulation.
+ */
+public class AnimationClock {
+    private final Map<String, Shared> byName = new HashMap<>();
+    private final Map<Animation, Shared> byAnimation = new IdentityHashMap<>();
+    private long step = 0;
+
+    /**
+     * Creates a clock with no shared animations, at step 0.
+     */
+    public AnimationClock() {
+    }
+
+    /**
+     * Returns the shared animation with the given name, creating it from the named sprites of a
+     * sprite group the first time it is asked for.
+     *
+     * @param name     a name unique to this animation, e.g. "brutus.left"
+     * @param duration the duration of each frame
+     * @param art      the sprite group holding the frames
+     * @param frames   the names of the frames within the sprite group, in order
+     * @return the shared animation
+     */
+    public Animation shared(String name, AnimationDuration duration, SpriteGroup art,
+                            String... frames) {
+        return shared(name, () -> {
+            Sprite[] sprites = new Sprite[frames.length];
+            for (int i = 0; i < frames.length; i++) {
+                sprites[i] = art.getSprite(frames[i]);
+            }
+            return new Animation(duration, sprites);
+        });
+    }
+
+    /**
+     * Returns the shared animation with the given name, creating it the first time it is asked
+     * for.
+     *
+     * @param name   a name unique to this animation, e.g. "brutus.left"
+     * @param create creates the animation, if there is none of this name yet
+     * @return the shared animation
+     */
+    public Animation shared(String name, Supplier<Animation> create) {
+        Shared shared = byName.get(name);
+        if (shared == null) {
+            shared = new Shared(create.get());
+            byName.put(name, shared);
+            byAnimation.put(shared.animation, shared);
+        }
+        return shared.animation;
+    }
+
+    /**
+     * Moves the clock on by one simulation step.
+     */
+    public void advance() {
+        step++;
+    }
+
+    /**
+     * Returns the number of steps the clock has been advanced by.
+     *
+     * @return the current step
+     */
+    public long step() {
+        return step;
+    }
+
+    /**
+     * Ticks a shared animation that an entity is showing, unless it has already been ticked
+     * during the current step.
+     *
+     * @param animation a shared animation of this clock
+     * @param state     the current engine state
+     * @throws IllegalArgumentException if the animation was not created by this clock
+     */
+    public void tickShown(Animation animation, EngineState state) {
+        Shared shared = byAnimation.get(animation);
+        if (shared == null) {
+            throw new IllegalArgumentException("Not a shared animation of this clock");
+        }
+        if (shared.tickedAt != step) {
+            shared.tickedAt = step;
+            animation.tick(state);
+        }
+    }
+
+    /**
+     * A shared animation and the step it was last ticked in.
+     */
+    private static class Shared {
+        private final Animation animation;
+        private long tickedAt = -1;
+
+        Shared(Animation animation) {
+            this.animation = animation;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package builder.ui;
+
+import engine.renderer.Renderable;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records which renderables have changed how they look since the last frame.
+ *
+ * <p>Entities call {@link #changed(Renderable)} whenever they switch sprite or animation, and a
+ * renderer calls {@link #drainTo(Collection)} once per frame to find out what needs redrawing.
+ * Recording is off until {@link #setTracking(boolean)} enables it. Only a renderer that drains
+ * the changes every frame should enable it, so that nothing accumulates when the game is not
+ * being drawn.
+ *
+ * <p>Changes may be recorded from any thread, e.g. while the world is ticked in parallel.
+ */
+public class VisualChanges {
+    private static final Set<Renderable> changed = ConcurrentHashMap.newKeySet();
+    private static volatile boolean tracking = false;
+
+    /**
+     * Creates a VisualChanges. (Helper class with static methods.)
+     */
+    public VisualChanges() {
+    }
+
+    /**
+     * Sets whether visual changes are recorded. Disabling tracking discards any recorded changes.
+     *
+     * @param enabled true to record changes
+     */
+    public static void setTracking(boolean enabled) {
+        tracking = enabled;
+        if (!enabled) {
+            changed.clear();
+        }
+    }
+
+    /**
+     * Whether visual changes are being recorded.
+     *
+     * @return true if changes are recorded
+     */
+    public static boolean isTracking() {
+        return tracking;
+    }
+
+    /**
+     * Records that a renderable now looks different. Recording the same renderable more than once
+     * before the next drain has no further effect.
+     *
+     * @param renderable the renderable whose sprite or animation changed
+     */
+    public static void changed(Renderable renderable) {
+        if (tracking) {
+            changed.add(renderable);
+        }
+    }
+
+    /**
+     * Moves every recorded change into the given collection and forgets it.
+     *
+     * @param out the collection to add changed renderables to
+     * @return the number of changed renderables added
+     */
+    public static int drainTo(Collection<? super Renderable> out) {
+        int drained = 0;
+        Iterator<Renderable> iterator = changed.iterator();
+        while (iterator.hasNext()) {
+            out.add(iterator.next());
+            iterator.remove();
+            drained++;
+        }
+        return drained;
+    }
+}
@@ -3,21 +3,94 @@ package builder.world;
 import builder.Tickable;
 import builder.ui.RenderableGroup;
 import builder.entities.tiles.Tile;
+import builder.entities.tiles.TileListener;
 import builder.GameState;
+import builder.metrics.Metrics;
+import builder.timing.Scheduled;
+import builder.timing.TimerWheel;
 import engine.EngineState;
 import engine.renderer.Renderable;
 import engine.renderer.Dimensions;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 /**
  * A simple implementation of the {@link World} interface.
  * Stores and manages a collection of tiles, supports rendering,
  * ticking, and querying tiles at given positions.
+ *
+ * <p>Tiles are kept both in placement order and in a {@link TileGrid} keyed by tile coordinate,
+ * so {@link #tilesAtPosition(int, int, Dimensions)} does not depend on the size of the world.
+ *
+ * <p>Tiles placed while the world is ticking are buffered and only added once every tile has been
+ * ticked, so ticking never sees a changing tile list. At the end of a tick, tiles that have been
+ * marked for removal are dropped in a single compaction pass.
+ *
+ * <p>Only tiles in the active set are ticked. A tile joins the active set when it is placed and
+ * whenever an entity is stacked on it, and leaves once it has no stacked
+ * {@link engine.game.HasTick} entities left. Bare grass, water and dirt therefore cost nothing per
+ * tick after their first.
+ *
+ * <p>Each world owns a {@link TimerWheel}, advanced once at the start of every tick. Stacked
+ * entities that are {@link Scheduled}, such as crops and ores, are attached to it when their tile
+ * is placed or their stack changes; from then on they are only called back when one of their
+ * events is due and no longer keep their tile in the active set.
+ *
+ * <p>With {@link #setParallelTick(boolean)} enabled, large active sets are ticked region by region
+ * on the common fork-join pool (see {@link ParallelTicker}). Placements and stack changes made
+ * during a parallel tick are merged back in sequential tick order, so the resulting world is the
+ * same as after a sequential tick.
+ *
+ * <p>Render lists are retained between frames. They are only rebuilt after a tile is placed or
+ * removed, an entity is stacked on or removed from a tile, or a tile's art changes.
+ *
+ * <p>{@link #snapshot()} is copy-on-write: the copy is shared between calls and only rebuilt on
+ * the first call after the tile list changes. Snapshots may be read from other threads.
  */
 public class BeanWorld implements RenderableGroup, Tickable, World {
-    private List<Tile> tiles;
+    /**
+     * Minimum number of active tiles for a parallel tick to be worth splitting into regions.
+     */
+    public static final int PARALLEL_THRESHOLD = 1024;
+
+    private final List<Tile> tiles;
+    private final TileGrid grid = new TileGrid();
+    private final List<Tile> pendingPlacements = new ArrayList<>();
+    private final Set<Tile> active = new LinkedHashSet<>();
+    private final List<Tile> pendingActive = new ArrayList<>();
+    private final TimerWheel timers = new TimerWheel();
+    private final List<WorldListener> listeners = new ArrayList<>();
+    private final TileListener scheduler = new TileListener() {
+        @Override
+        public void stackChanged(Tile tile) {
+            BeanWorld.this.stackChanged(tile);
+        }
+
+        @Override
+        public void artChanged(Tile tile) {
+            changedInPlace(tile, true);
+        }
+
+        @Override
+        public void stateChanged(Tile tile) {
+            changedInPlace(tile, false);
+        }
+    };
+    private volatile List<Tile> snapshot;
+    private List<Renderable> renderables;
+    private List<Renderable> viewportRenderables;
+    private Viewport renderedViewport;
+    private int renderedTileSize;
+    private ParallelTicker parallelTicker;
+    private boolean ticking = false;
+    private boolean compactionDue = false;
 
     /**
      * Constructs an empty BeanWorld with no tiles.
@@ -28,18 +101,61 @@ public class BeanWorld implements RenderableGroup, Tickable, World {
 
     @Override
     public List<Tile> tilesAtPosition(int x, int y, Dimensions dimensions) {
-        List<Tile> tilesAtPos = new ArrayList<>();
-        int tileX = dimensions.pixelToTile(x);
-        int tileY = dimensions.pixelToTile(y);
-
-        for (Tile tile : tiles) {
-            int tilePosX = dimensions.pixelToTile(tile.getX());
-            int tilePosY = dimensions.pixelToTile(tile.getY());
-            if (tilePosX == tileX && tilePosY == tileY) {
-                tilesAtPos.add(tile);
+        Metrics.count(Metrics.Count.TILES_AT_POSITION);
+        return new ArrayList<>(indexedGrid(dimensions).cellAt(x, y));
+    }
+
+    @Override
+    public int tilesAtPosition(int x, int y, Dimensions dimensions, List<Tile> out) {
+        Metrics.count(Metrics.Count.TILES_AT_POSITION);
+        out.clear();
+        List<Tile> cell = indexedGrid(dimensions).cellAt(x, y);
+        for (int i = 0; i < cell.size(); i++) {
+            out.add(cell.get(i));
+        }
+        return out.size();
+    }
+
+    @Override
+    public void forEachTileAt(int x, int y, Dimensions dimensions, Consumer<Tile> action) {
+        List<Tile> cell = indexedGrid(dimensions).cellAt(x, y);
+        for (int i = 0; i < cell.size(); i++) {
+            action.accept(cell.get(i));
+        }
+    }
+
+    @Override
+    public Tile firstNonWalkableAt(int x, int y, Dimensions dimensions) {
+        List<Tile> cell = indexedGrid(dimensions).cellAt(x, y);
+        for (int i = 0; i < cell.size(); i++) {
+            if (!cell.get(i).canWalkThrough()) {
+                return cell.get(i);
             }
         }
-        return tilesAtPos;
+        return null;
+    }
+
+    /**
+     * Answered from a bitmap of blocked cells kept up to date as tiles are placed and removed, so
+     * the cost depends only on the number of cells the rectangle covers.
+     */
+    @Override
+    public boolean isAreaWalkable(int left, int top, int right, int bottom,
+                                  Dimensions dimensions) {
+        return indexedGrid(dimensions).isAreaWalkable(left, top, right, bottom);
+    }
+
+    /**
+     * Returns the grid index, building it first if it has not been built for these dimensions.
+     *
+     * @param dimensions the dimensions used to convert pixels to tile positions
+     * @return the grid index
+     */
+    private TileGrid indexedGrid(Dimensions dimensions) {
+        if (!grid.isIndexedFor(dimensions)) {
+            grid.rebuild(dimensions, tiles);
+        }
+        return grid;
     }
 
     @Override
@@ -47,23 +163,299 @@ public class BeanWorld implements RenderableGroup, Tickable, World {
         return new ArrayList<>(tiles);
     }
 
+    @Override
+    public List<Tile> snapshot() {
+        List<Tile> current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (tiles) {
+            if (snapshot == null) {
+                snapshot = Collections.unmodifiableList(new ArrayList<>(tiles));
+            }
+            return snapshot;
+        }
+    }
+
     @Override
     public void place(Tile tile) {
-        tiles.add(tile);
+        ParallelTicker.Region region = ParallelTicker.current();
+        if (region != null) {
+            region.deferPlacement(tile);
+            return;
+        }
+        if (ticking) {
+            pendingPlacements.add(tile);
+            return;
+        }
+        synchronized (tiles) {
+            tiles.add(tile);
+            snapshot = null;
+        }
+        grid.add(tile);
+        tile.setListener(scheduler);
+        attachScheduled(tile);
+        active.add(tile);
+        invalidateRender();
+        // A placement usually replaces a tile that has just been marked for removal.
+        compactionDue = true;
+        notifyListeners(tile);
+    }
+
+    /**
+     * Registers a listener to be told about tiles being placed, removed or changed.
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(WorldListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Stops telling a listener about changes.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeListener(WorldListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void notifyListeners(Tile tile) {
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).tileChanged(tile);
+        }
+    }
+
+    /**
+     * Returns the number of tiles that will be ticked on the next tick.
+     *
+     * @return the size of the active set
+     */
+    public int activeTiles() {
+        return active.size();
+    }
+
+    /**
+     * Returns the timer wheel advanced by this world's ticks, for scheduling timed events.
+     *
+     * @return the world's timer wheel
+     */
+    public TimerWheel getTimerWheel() {
+        return timers;
+    }
+
+    /**
+     * Sets whether large active sets are ticked in parallel, by region.
+     *
+     * @param parallel true to tick in parallel on the common fork-join pool
+     */
+    public void setParallelTick(boolean parallel) {
+        this.parallelTicker = parallel ? new ParallelTicker(ForkJoinPool.commonPool()) : null;
     }
 
+    /**
+     * Runs the timer wheel events that are due, ticks every tile in the active set, then removes
+     * tiles marked for removal and adds any tiles placed during the tick.
+     *
+     * @param state the current engine state
+     * @param game  the current game state
+     */
     @Override
     public void tick(EngineState state, GameState game) {
-        for (Tile tile : tiles) {
+        ticking = true;
+        try {
+            timers.advance();
+            Metrics.count(Metrics.Count.TILES_TICKED, active.size());
+            if (parallelTicker != null && active.size() >= PARALLEL_THRESHOLD) {
+                tickParallel(state);
+            } else {
+                tickSequential(state);
+            }
+        } finally {
+            ticking = false;
+        }
+
+        for (Tile tile : pendingActive) {
+            stackChanged(tile);
+        }
+        pendingActive.clear();
+        if (compactionDue) {
+            compact();
+            compactionDue = false;
+        }
+        for (Tile tile : pendingPlacements) {
+            place(tile);
+        }
+        pendingPlacements.clear();
+    }
+
+    private void tickSequential(EngineState state) {
+        Iterator<Tile> iterator = active.iterator();
+        while (iterator.hasNext()) {
+            Tile tile = iterator.next();
             tile.tick(state);
+            compactionDue |= tile.isMarkedForRemoval();
+            if (!tile.hasTickingEntities()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void tickParallel(EngineState state) {
+        List<Tile> order = new ArrayList<>(active);
+        ParallelTicker.Result result = parallelTicker.tick(order, state);
+
+        for (int i = 0; i < order.size(); i++) {
+            compactionDue |= result.marked[i];
+            if (result.idle[i]) {
+                active.remove(order.get(i));
+            }
+        }
+        for (ParallelTicker.Mutation mutation : result.mutations) {
+            if (mutation.placement) {
+                pendingPlacements.add(mutation.tile);
+            } else {
+                pendingActive.add(mutation.tile);
+            }
+        }
+    }
+
+    /**
+     * Schedules a tile whose stack has changed if it now has work to do each tick.
+     *
+     * @param tile the tile whose stack changed
+     */
+    private void stackChanged(Tile tile) {
+        ParallelTicker.Region region = ParallelTicker.current();
+        if (region != null) {
+            region.deferStackChange(tile);
+        } else if (ticking) {
+            pendingActive.add(tile);
+        } else {
+            invalidateRender();
+            attachScheduled(tile);
+            if (tile.hasTickingEntities() && !tile.isMarkedForRemoval()) {
+                active.add(tile);
+            }
+            notifyListeners(tile);
+        }
+    }
+
+    /**
+     * Reports a tile that has changed without its stack changing.
+     *
+     * @param tile the tile that changed
+     * @param art  true if its art changed, which invalidates the render lists
+     */
+    private void changedInPlace(Tile tile, boolean art) {
+        ParallelTicker.Region region = ParallelTicker.current();
+        if (region != null) {
+            // Replayed as a stack change, which also invalidates the render lists.
+            region.deferStackChange(tile);
+        } else if (ticking) {
+            pendingActive.add(tile);
+        } else {
+            if (art) {
+                invalidateRender();
+            }
+            notifyListeners(tile);
         }
     }
 
+    /**
+     * Attaches any newly stacked {@link Scheduled} entities of a tile to the timer wheel.
+     *
+     * @param tile the tile whose stack to check
+     */
+    private void attachScheduled(Tile tile) {
+        tile.forEachStacked(entity -> {
+            if (entity instanceof Scheduled && !((Scheduled) entity).isAttached()) {
+                ((Scheduled) entity).attach(timers);
+            }
+        });
+    }
+
+    /**
+     * Discards the retained render lists so they are rebuilt on the next render.
+     */
+    private void invalidateRender() {
+        renderables = null;
+        viewportRenderables = null;
+    }
+
+    /**
+     * Drops every tile that has been marked for removal, in one pass over the tile list.
+     */
+    private void compact() {
+        synchronized (tiles) {
+            int kept = 0;
+            for (int i = 0; i < tiles.size(); i++) {
+                Tile tile = tiles.get(i);
+                if (tile.isMarkedForRemoval()) {
+                    grid.remove(tile);
+                    active.remove(tile);
+                    tile.setListener(null);
+                    notifyListeners(tile);
+                } else {
+                    tiles.set(kept++, tile);
+                }
+            }
+            if (kept < tiles.size()) {
+                tiles.subList(kept, tiles.size()).clear();
+                snapshot = null;
+                invalidateRender();
+            }
+        }
+    }
+
+    /**
+     * Returns the renderables of the tiles inside the viewport (and their stacked entities),
+     * walking only the grid cells the viewport covers.
+     *
+     * @param viewport   the visible rectangle of the world
+     * @param dimensions the dimensions used to convert pixels to tile positions
+     * @return unmodifiable renderables in draw order, row by row, shared until the world changes
+     *     or a different viewport is rendered
+     */
+    public List<Renderable> render(Viewport viewport, Dimensions dimensions) {
+        if (viewportRenderables != null && viewport.equals(renderedViewport)
+                && dimensions.tileSize() == renderedTileSize) {
+            return viewportRenderables;
+        }
+
+        TileGrid index = indexedGrid(dimensions);
+        int minTileX = dimensions.pixelToTile(viewport.minX());
+        int minTileY = dimensions.pixelToTile(viewport.minY());
+        int maxTileX = dimensions.pixelToTile(viewport.maxX());
+        int maxTileY = dimensions.pixelToTile(viewport.maxY());
+
+        List<Renderable> renderables = new ArrayList<>();
+        for (int tileY = minTileY; tileY <= maxTileY; tileY++) {
+            for (int tileX = minTileX; tileX <= maxTileX; tileX++) {
+                for (Tile tile : index.cell(tileX, tileY)) {
+                    renderables.addAll(tile.render());
+                }
+            }
+        }
+        viewportRenderables = Collections.unmodifiableList(renderables);
+        renderedViewport = viewport;
+        renderedTileSize = dimensions.tileSize();
+        return viewportRenderables;
+    }
+
+    /**
+     * Returns the renderables of every tile and their stacked entities.
+     *
+     * @return unmodifiable renderables in placement order, shared until the world changes
+     */
     @Override
     public List<Renderable> render() {
-        List<Renderable> renderables = new ArrayList<>();
-        for (Tile tile : tiles) {
-            renderables.addAll(tile.render());
+        if (renderables == null) {
+            List<Renderable> built = new ArrayList<>();
+            for (Tile tile : tiles) {
+                built.addAll(tile.render());
+            }
+            renderables = Collections.unmodifiableList(built);
         }
         return renderables;
     }
@@ -0,0 +1,439 @@
+package builder.world;
+
+import builder.entities.resources.Cabbage;
+import builder.entities.resources.Ore;
+import builder.entities.tiles.Dirt;
+import builder.entities.tiles.OreVein;
+import builder.entities.tiles.Tile;
+import builder.entities.tiles.TileFactory;
+import engine.game.Entity;
+import engine.renderer.Dimensions;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A compact, versioned binary world map format.
+ *
+ * <p>Layout (all multi-byte integers are unsigned LEB128 varints unless noted):
+ * <pre>
+ * int    magic "JBMP" (big-endian)
+ * byte   version
+ * varint width, height          (in tiles)
+ * runs   (byte symbol, varint length)...   covering width * height cells, row by row;
+ *                                          symbols are those of {@link TileFactory}, 0 = no tile
+ * varint state count
+ * state  (varint cell delta, byte kind, varint value)...
+ *                                          cell delta is from the previous state's cell index;
+ *                                          kind 1 = cabbage growth stage, 2 = remaining ore value,
+ *                                          3 = cabbage growth timer ticks, 4 = ore tick counter
+ * </pre>
+ *
+ * <p>Version 2 added state kinds 3 and 4; version 1 files are still readable.
+ *
+ * <p>Unlike the text format, this format records tile state (tilled dirt, crops and how much ore
+ * is left), and long runs of the same tile cost a couple of bytes.
+ */
+public class BinaryMapFormat {
+    /**
+     * The first four bytes of every binary map file: "JBMP".
+     */
+    public static final int MAGIC = 0x4A424D50;
+
+    /**
+     * The format version written by this class.
+     */
+    public static final int VERSION = 2;
+
+    /**
+     * The largest number of cells (width times height) a binary map may have.
+     */
+    public static final int MAX_CELLS = 1 << 24;
+
+    private static final int EMPTY = 0;
+    private static final int STATE_CABBAGE = 1;
+    private static final int STATE_ORE = 2;
+    private static final int STATE_CABBAGE_TIMER = 3;
+    private static final int STATE_ORE_TICKS = 4;
+
+    /**
+     * Creates a BinaryMapFormat. (Helper class with static methods.)
+     */
+    public BinaryMapFormat() {
+    }
+
+    /**
+     * Converts a text map file (the format read by {@link WorldBuilder#fromFile}) to the binary
+     * format. The text map may be any rectangular size.
+     *
+     * @param textPath   path to the text map to read
+     * @param binaryPath path to write the binary map to
+     * @throws IOException        if reading or writing fails
+     * @throws WorldLoadException if the text map is not rectangular or has an invalid symbol
+     */
+    public static void convertText(String textPath, String binaryPath)
+            throws IOException, WorldLoadException {
+        MapSource source = new TextMapSource(textPath);
+        for (int y = 0; y < source.height(); y++) {
+            source.checkRow(y);
+            for (int x = 0; x < source.width(); x++) {
+                char symbol = source.symbolAt(x, y);
+                if (!TileFactory.isSymbol(symbol)) {
+                    throw new WorldLoadException(
+                            "Invalid symbol '" + symbol + "' at position (" + x + ", " + y + ")"
+                    );
+                }
+            }
+        }
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(Paths.get(binaryPath))))) {
+            writeHeader(out, source);
+            writeVarInt(out, 0);
+        }
+    }
+
+    /**
+     * Writes the tiles of a world, including their state, in the binary format. Where several
+     * tiles share a cell, only the most recently placed one is written.
+     *
+     * @param world      the world to write
+     * @param dimensions dimensions used to convert tile pixels to cells
+     * @param output     the stream to write to; not closed
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if a tile has a negative position or unknown type
+     */
+    public static void write(World world, Dimensions dimensions, OutputStream output)
+            throws IOException {
+        write(world, dimensions, 0, 0, output);
+    }
+
+    /**
+     * Writes the tiles of a world, including their state, in the binary format, with the given
+     * tile as the top-left cell of the map. Where several tiles share a cell, only the most
+     * recently placed one is written.
+     *
+     * @param world      the world to write
+     * @param dimensions dimensions used to convert tile pixels to cells
+     * @param originX    the x-coordinate of the map's first cell, in tiles
+     * @param originY    the y-coordinate of the map's first cell, in tiles
+     * @param output     the stream to write to; not closed
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if a tile is above or left of the origin, or has an
+     *     unknown type
+     */
+    public static void write(World world, Dimensions dimensions, int originX, int originY,
+                             OutputStream output) throws IOException {
+        List<Tile> tiles = world.allTiles();
+        int width = 0;
+        int height = 0;
+        for (Tile tile : tiles) {
+            int x = dimensions.pixelToTile(tile.getX()) - originX;
+            int y = dimensions.pixelToTile(tile.getY()) - originY;
+            if (x < 0 || y < 0) {
+                throw new IllegalArgumentException(
+                        "Tile at negative position (" + x + ", " + y + ")"
+                );
+            }
+            width = Math.max(width, x + 1);
+            height = Math.max(height, y + 1);
+        }
+
+        Tile[] top = new Tile[width * height];
+        for (Tile tile : tiles) {
+            if (!tile.isMarkedForRemoval()) {
+                int x = dimensions.pixelToTile(tile.getX()) - originX;
+                int y = dimensions.pixelToTile(tile.getY()) - originY;
+                top[y * width + x] = tile;
+            }
+        }
+
+        int mapWidth = width;
+        int mapHeight = height;
+        MapSource source = new MapSource() {
+            @Override
+            public int width() {
+                return mapWidth;
+            }
+
+            @Override
+            public int height() {
+                return mapHeight;
+            }
+
+            @Override
+            public char symbolAt(int tileX, int tileY) {
+                Tile tile = top[tileY * mapWidth + tileX];
+                return tile == null ? (char) EMPTY : TileFactory.symbolOf(tile);
+            }
+        };
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+        writeHeader(out, source);
+
+        List<int[]> states = new ArrayList<>();
+        for (int cell = 0; cell < top.length; cell++) {
+            Tile tile = top[cell];
+            if (tile instanceof OreVein) {
+                Ore ore = ((OreVein) tile).getOre();
+                if (ore.getValue() != ore.getOriginalValue()) {
+                    states.add(new int[] {cell, STATE_ORE, ore.getValue()});
+                }
+                if (ore.getTickCounter() != 0) {
+                    states.add(new int[] {cell, STATE_ORE_TICKS, ore.getTickCounter()});
+                }
+            } else if (tile instanceof Dirt) {
+                Cabbage cabbage = cabbageOn(tile);
+                if (cabbage != null) {
+                    // The stage must come first, as it is what creates the cabbage on reading.
+                    states.add(new int[] {cell, STATE_CABBAGE, cabbage.getGrowthStage()});
+                    if (cabbage.getTimerTicks() != 0) {
+                        states.add(new int[] {cell, STATE_CABBAGE_TIMER, cabbage.getTimerTicks()});
+                    }
+                }
+            }
+        }
+
+        writeVarInt(out, states.size());
+        int previous = 0;
+        for (int[] state : states) {
+            writeVarInt(out, state[0] - previous);
+            out.writeByte(state[1]);
+            writeVarInt(out, state[2]);
+            previous = state[0];
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads a binary map into tiles, restoring tilled dirt, crops and ore values.
+     *
+     * @param dimensions dimensions providing tile sizes
+     * @param input      the stream to read from; not closed
+     * @return the created tiles, row by row
+     * @throws IOException        if reading fails
+     * @throws WorldLoadException if the stream is not a valid binary map of a supported version
+     */
+    public static List<Tile> read(Dimensions dimensions, InputStream input)
+            throws IOException, WorldLoadException {
+        return read(dimensions, 0, 0, input);
+    }
+
+    /**
+     * Reads a binary map into tiles, restoring tilled dirt, crops and ore values, with the map's
+     * first cell placed at the given tile.
+     *
+     * @param dimensions dimensions providing tile sizes
+     * @param originX    the x-coordinate of the map's first cell, in tiles
+     * @param originY    the y-coordinate of the map's first cell, in tiles
+     * @param input      the stream to read from; not closed
+     * @return the created tiles, row by row
+     * @throws IOException        if reading fails
+     * @throws WorldLoadException if the stream is not a valid binary map of a supported version,
+     *     or the map has more than {@link #MAX_CELLS} cells
+     */
+    public static List<Tile> read(Dimensions dimensions, int originX, int originY,
+                                  InputStream input) throws IOException, WorldLoadException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input));
+        try {
+            if (in.readInt() != MAGIC) {
+                throw new WorldLoadException("Not a binary world map");
+            }
+            int version = in.readUnsignedByte();
+            if (version < 1 || version > VERSION) {
+                throw new WorldLoadException("Unsupported binary map version " + version);
+            }
+
+            int width = readVarInt(in);
+            int height = readVarInt(in);
+            if ((long) width * height > MAX_CELLS) {
+                throw new WorldLoadException("Binary map of " + width + "x" + height
+                        + " is larger than " + MAX_CELLS + " cells");
+            }
+            int size = width * height;
+
+            // Read every run before creating any tiles, so a header claiming a large map costs
+            // nothing unless the stream really holds runs covering it.
+            byte[] symbols = new byte[16];
+            int[] lengths = new int[16];
+            int runs = 0;
+            for (int covered = 0; covered < size; runs++) {
+                int symbol = in.readUnsignedByte();
+                int length = readVarInt(in);
+                if (length <= 0 || length > size - covered) {
+                    throw new WorldLoadException("Run of " + length + " at cell " + covered
+                            + " does not fit a " + width + "x" + height + " map");
+                }
+                if (runs == lengths.length) {
+                    symbols = Arrays.copyOf(symbols, runs * 2);
+                    lengths = Arrays.copyOf(lengths, runs * 2);
+                }
+                symbols[runs] = (byte) symbol;
+                lengths[runs] = length;
+                covered += length;
+            }
+
+            Tile[] cells = new Tile[size];
+            int cell = 0;
+            for (int run = 0; run < runs; run++) {
+                char symbol = (char) (symbols[run] & 0xFF);
+                for (int end = cell + lengths[run]; cell < end; cell++) {
+                    if (symbol == EMPTY) {
+                        continue;
+                    }
+                    int x = originX + cell % width;
+                    int y = originY + cell / width;
+                    try {
+                        cells[cell] = TileFactory.fromSymbol(
+                                dimensions.tileToPixel(x), dimensions.tileToPixel(y), symbol);
+                    } catch (IllegalArgumentException e) {
+                        throw new WorldLoadException(
+                                "Invalid symbol '" + symbol + "' at position ("
+                                        + x + ", " + y + ")"
+                        );
+                    }
+                }
+            }
+
+            int states = readVarInt(in);
+            cell = 0;
+            for (int i = 0; i < states; i++) {
+                int delta = readVarInt(in);
+                if (delta > size - cell) {
+                    throw new WorldLoadException("State at cell " + ((long) cell + delta)
+                            + " is outside a " + width + "x" + height + " map");
+                }
+                cell += delta;
+                int kind = in.readUnsignedByte();
+                int value = readVarInt(in);
+                restoreState(cells, cell, kind, value);
+            }
+
+            List<Tile> tiles = new ArrayList<>(cells.length);
+            for (Tile tile : cells) {
+                if (tile != null) {
+                    tiles.add(tile);
+                }
+            }
+            return tiles;
+        } catch (EOFException e) {
+            throw new WorldLoadException("Binary world map is truncated");
+        }
+    }
+
+    /**
+     * Converts a text map file to the binary format, e.g.
+     * {@code java builder.world.BinaryMapFormat resources/uqLogo.map uqLogo.jbmp}.
+     *
+     * @param args the text map path, then the binary map path
+     * @throws Exception if the conversion fails
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.err.println("Usage: BinaryMapFormat <text map> <binary map>");
+            System.exit(2);
+        }
+        convertText(args[0], args[1]);
+    }
+
+    private static void restoreState(Tile[] cells, int cell, int kind, int value)
+            throws WorldLoadException {
+        Tile tile = cell < cells.length ? cells[cell] : null;
+        if (kind == STATE_ORE && tile instanceof OreVein) {
+            Ore ore = ((OreVein) tile).getOre();
+            ore.setValue(value);
+            if (value == 0) {
+                // Mined out: dropped from the vein on its next tick, as it was when saved.
+                ore.markForRemoval();
+            }
+        } else if (kind == STATE_ORE_TICKS && tile instanceof OreVein) {
+            ((OreVein) tile).getOre().setTickCounter(value);
+        } else if (kind == STATE_CABBAGE_TIMER && tile != null && cabbageOn(tile) != null) {
+            cabbageOn(tile).setTimerTicks(value);
+        } else if (kind == STATE_CABBAGE && tile instanceof Dirt) {
+            Cabbage cabbage = new Cabbage(tile.getX(), tile.getY());
+            if (value >= cabbage.stageCount()) {
+                throw new WorldLoadException("Invalid cabbage stage " + value + " at cell " + cell);
+            }
+            cabbage.setGrowthStage(value);
+            tile.placeOn(cabbage);
+        } else {
+            throw new WorldLoadException("State of kind " + kind + " does not fit cell " + cell);
+        }
+    }
+
+    private static Cabbage cabbageOn(Tile tile) {
+        for (Entity entity : tile.getStackedEntities()) {
+            if (entity instanceof Cabbage && !entity.isMarkedForRemoval()) {
+                return (Cabbage) entity;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Writes the magic number, version, size and run-length encoded cells.
+     */
+    private static void writeHeader(DataOutputStream out, MapSource source) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        writeVarInt(out, source.width());
+        writeVarInt(out, source.height());
+
+        char run = 0;
+        int length = 0;
+        for (int y = 0; y < source.height(); y++) {
+            for (int x = 0; x < source.width(); x++) {
+                char symbol = source.symbolAt(x, y);
+                if (length > 0 && symbol != run) {
+                    out.writeByte(run);
+                    writeVarInt(out, length);
+                    length = 0;
+                }
+                run = symbol;
+                length++;
+            }
+        }
+        if (length > 0) {
+            out.writeByte(run);
+            writeVarInt(out, length);
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Reads a varint, which must fit in a non-negative int.
+     */
+    private static int readVarInt(DataInputStream in) throws IOException, WorldLoadException {
+        long value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value > Integer.MAX_VALUE) {
+                    break;
+                }
+                return (int) value;
+            }
+        }
+        throw new WorldLoadException("Malformed varint in binary world map");
+    }
+}
@@ -0,0 +1,133 @@
+package builder.world;
+
+import builder.entities.tiles.Tile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A hash table from packed cell keys (see {@link TileGrid#key}) to tile stacks.
+ *
+ * <p>Keys are kept in a primitive array and probed linearly, so looking up a cell neither boxes
+ * its key nor follows a chain of entries. The table doubles once it is half full, and removal
+ * shifts later entries of the probe sequence back rather than leaving tombstones.
+ */
+class CellTable {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private List<Tile>[] stacks = newStacks(INITIAL_CAPACITY);
+    private int mask = INITIAL_CAPACITY - 1;
+    private int size = 0;
+
+    /**
+     * Returns the stack of a cell.
+     *
+     * @param key the packed cell key
+     * @return the cell's stack, or null if the cell has none
+     */
+    List<Tile> get(long key) {
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            List<Tile> stack = stacks[slot];
+            if (stack == null || keys[slot] == key) {
+                return stack;
+            }
+        }
+    }
+
+    /**
+     * Returns the stack of a cell, adding an empty one if the cell has none.
+     *
+     * @param key the packed cell key
+     * @return the cell's stack
+     */
+    List<Tile> getOrCreate(long key) {
+        int slot = slot(key);
+        while (stacks[slot] != null) {
+            if (keys[slot] == key) {
+                return stacks[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        List<Tile> stack = new ArrayList<>(1);
+        keys[slot] = key;
+        stacks[slot] = stack;
+        if (++size * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        return stack;
+    }
+
+    /**
+     * Removes a cell's stack, if it has one.
+     *
+     * @param key the packed cell key
+     */
+    void remove(long key) {
+        int slot = slot(key);
+        while (stacks[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (stacks[slot] == null) {
+            return;
+        }
+        size--;
+        // Shift back any later entry whose probe sequence passes through the freed slot.
+        int free = slot;
+        for (int next = (free + 1) & mask; stacks[next] != null; next = (next + 1) & mask) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                stacks[free] = stacks[next];
+                free = next;
+            }
+        }
+        stacks[free] = null;
+    }
+
+    /**
+     * Returns the number of cells with a stack.
+     *
+     * @return the cell count
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Removes every cell.
+     */
+    void clear() {
+        Arrays.fill(stacks, null);
+        size = 0;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        List<Tile>[] oldStacks = stacks;
+        keys = new long[capacity];
+        stacks = newStacks(capacity);
+        mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldStacks[i] != null) {
+                int slot = slot(oldKeys[i]);
+                while (stacks[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                stacks[slot] = oldStacks[i];
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Tile>[] newStacks(int capacity) {
+        return (List<Tile>[]) new List[capacity];
+    }
+}
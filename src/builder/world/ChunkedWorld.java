@@ -0,0 +1,335 @@
+package builder.world;
+
+import builder.GameState;
+import builder.Tickable;
+import builder.entities.tiles.Tile;
+import builder.entities.tiles.TileFactory;
+import builder.player.Player;
+import builder.ui.RenderableGroup;
+import engine.EngineState;
+import engine.renderer.Dimensions;
+import engine.renderer.Renderable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A {@link World} that splits a (possibly very large) map into square chunks of tiles.
+ *
+ * <p>Chunks are materialized from a {@link MapSource} the first time they are needed, either
+ * because they are near the player or because a tile in them is looked up or placed. At most
+ * {@code maxChunks} chunks are kept loaded; beyond that the least recently used one is evicted.
+ *
+ * <p>A chunk becomes dirty once it no longer matches the source: a tile has been placed in it,
+ * a tile's stack or art has changed (such as planting or tilling), or a stacked entity has been
+ * interacted with or used (such as mining ore). Evicting a dirty chunk spills it to a file in
+ * the {@link BinaryMapFormat}, which records tilled dirt, crops and ore values; it is read back
+ * from there rather than from the source when next needed. Memory use is therefore bounded by
+ * {@code maxChunks} however much of the map has been changed. Entities stacked on tiles that the
+ * binary format does not record are lost on eviction.
+ *
+ * <p>Only loaded chunks are ticked, rendered, or returned from {@link #allTiles()}. Chunks are not
+ * evicted while they are being ticked, and the 3x3 block of chunks last loaded around the player
+ * (see {@link #loadAround}) is never evicted, so with fewer than nine {@code maxChunks} up to nine
+ * chunks stay loaded.
+ */
+public class ChunkedWorld implements RenderableGroup, Tickable, World {
+    /**
+     * Default width and height of a chunk, in tiles.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 32;
+
+    /**
+     * Default number of chunks to keep loaded.
+     */
+    public static final int DEFAULT_MAX_CHUNKS = 64;
+
+    private final Dimensions dimensions;
+    private final MapSource source;
+    private final int chunkSize;
+    private final int maxChunks;
+    private final LinkedHashMap<Long, BeanWorld> loaded = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<Long> dirty = new HashSet<>();
+    private final Set<Long> spilled = new HashSet<>();
+    private final Set<Long> pinned = new HashSet<>();
+    private Path spillDirectory;
+    private boolean ticking = false;
+
+    /**
+     * Creates a chunked world with the default chunk size and cache size.
+     *
+     * @param dimensions dimensions providing tile sizes
+     * @param source     where to read tile symbols from
+     */
+    public ChunkedWorld(Dimensions dimensions, MapSource source) {
+        this(dimensions, source, DEFAULT_CHUNK_SIZE, DEFAULT_MAX_CHUNKS);
+    }
+
+    /**
+     * Creates a chunked world.
+     *
+     * @requires chunkSize &gt; 0, maxChunks &gt; 0
+     * @param dimensions dimensions providing tile sizes
+     * @param source     where to read tile symbols from
+     * @param chunkSize  width and height of a chunk, in tiles
+     * @param maxChunks  number of chunks to keep loaded
+     */
+    public ChunkedWorld(Dimensions dimensions, MapSource source, int chunkSize, int maxChunks) {
+        this.dimensions = dimensions;
+        this.source = source;
+        this.chunkSize = chunkSize;
+        this.maxChunks = maxChunks;
+    }
+
+    /**
+     * Returns the number of chunks currently held in memory.
+     *
+     * @return loaded chunk count
+     */
+    public int loadedChunks() {
+        return loaded.size();
+    }
+
+    /**
+     * Returns the number of chunks that have been spilled to disk on eviction, whether or not
+     * they have since been loaded again.
+     *
+     * @return spilled chunk count
+     */
+    public int spilledChunks() {
+        return spilled.size();
+    }
+
+    @Override
+    public List<Tile> tilesAtPosition(int x, int y, Dimensions dimensions) {
+        return chunkAtPixel(x, y).tilesAtPosition(x, y, dimensions);
+    }
+
+    @Override
+    public int tilesAtPosition(int x, int y, Dimensions dimensions, List<Tile> out) {
+        return chunkAtPixel(x, y).tilesAtPosition(x, y, dimensions, out);
+    }
+
+    @Override
+    public void forEachTileAt(int x, int y, Dimensions dimensions, Consumer<Tile> action) {
+        chunkAtPixel(x, y).forEachTileAt(x, y, dimensions, action);
+    }
+
+    @Override
+    public Tile firstNonWalkableAt(int x, int y, Dimensions dimensions) {
+        return chunkAtPixel(x, y).firstNonWalkableAt(x, y, dimensions);
+    }
+
+    @Override
+    public List<Tile> allTiles() {
+        List<Tile> tiles = new ArrayList<>();
+        for (BeanWorld chunk : loaded.values()) {
+            tiles.addAll(chunk.allTiles());
+        }
+        return tiles;
+    }
+
+    @Override
+    public void place(Tile tile) {
+        chunkAtPixel(tile.getX(), tile.getY()).place(tile);
+    }
+
+    /**
+     * Loads the chunks around the player, then ticks every loaded chunk.
+     *
+     * @param state the current engine state
+     * @param game  the current game state
+     */
+    @Override
+    public void tick(EngineState state, GameState game) {
+        Player player = game.getPlayer();
+        if (player != null) {
+            loadAround(player.getX(), player.getY());
+        }
+
+        // Ticking may place tiles in chunks that are not loaded yet.
+        List<BeanWorld> chunks = new ArrayList<>(loaded.values());
+        ticking = true;
+        try {
+            for (BeanWorld chunk : chunks) {
+                chunk.tick(state, game);
+            }
+        } finally {
+            ticking = false;
+        }
+        evictOverflow();
+    }
+
+    @Override
+    public List<Renderable> render() {
+        List<Renderable> renderables = new ArrayList<>();
+        for (BeanWorld chunk : loaded.values()) {
+            renderables.addAll(chunk.render());
+        }
+        return renderables;
+    }
+
+    /**
+     * Makes sure the chunk containing the given pixel and its eight neighbours are loaded, and
+     * pins them in memory until the next call.
+     *
+     * @param x the x-coordinate in pixels
+     * @param y the y-coordinate in pixels
+     */
+    public void loadAround(int x, int y) {
+        int chunkX = Math.floorDiv(dimensions.pixelToTile(x), chunkSize);
+        int chunkY = Math.floorDiv(dimensions.pixelToTile(y), chunkSize);
+        pinned.clear();
+        for (int dy = -1; dy <= 1; dy++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                pinned.add(TileGrid.key(chunkX + dx, chunkY + dy));
+            }
+        }
+        for (int dy = -1; dy <= 1; dy++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                chunk(chunkX + dx, chunkY + dy);
+            }
+        }
+    }
+
+    private BeanWorld chunkAtPixel(int x, int y) {
+        return chunk(
+                Math.floorDiv(dimensions.pixelToTile(x), chunkSize),
+                Math.floorDiv(dimensions.pixelToTile(y), chunkSize)
+        );
+    }
+
+    private BeanWorld chunk(int chunkX, int chunkY) {
+        long key = TileGrid.key(chunkX, chunkY);
+        BeanWorld chunk = loaded.get(key);
+        if (chunk == null) {
+            if (spilled.contains(key)) {
+                chunk = unspill(chunkX, chunkY);
+                // Still differs from the source, so it must be spilled again when evicted.
+                dirty.add(key);
+            } else {
+                chunk = materialize(chunkX, chunkY);
+            }
+            chunk.addListener(tile -> dirty.add(key));
+            loaded.put(key, chunk);
+            evictOverflow();
+        }
+        return chunk;
+    }
+
+    /**
+     * Evicts least recently used chunks until no more than {@code maxChunks} are loaded, spilling
+     * dirty ones. Nothing is evicted during a tick, and pinned chunks are never evicted.
+     */
+    private void evictOverflow() {
+        if (ticking) {
+            return;
+        }
+        Iterator<Map.Entry<Long, BeanWorld>> eldest = loaded.entrySet().iterator();
+        while (loaded.size() > maxChunks && eldest.hasNext()) {
+            Map.Entry<Long, BeanWorld> entry = eldest.next();
+            long key = entry.getKey();
+            if (pinned.contains(key)) {
+                continue;
+            }
+            if (dirty.remove(key)) {
+                spill(key, entry.getValue());
+            }
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Writes a dirty chunk to its spill file.
+     */
+    private void spill(long key, BeanWorld chunk) {
+        int chunkX = (int) (key >> 32);
+        int chunkY = (int) key;
+        try {
+            if (spillDirectory == null) {
+                spillDirectory = Files.createTempDirectory("chunks");
+                spillDirectory.toFile().deleteOnExit();
+            }
+            Path file = spillFile(chunkX, chunkY);
+            try (OutputStream out = Files.newOutputStream(file)) {
+                BinaryMapFormat.write(chunk, dimensions,
+                        chunkX * chunkSize, chunkY * chunkSize, out);
+            }
+            if (spilled.add(key)) {
+                file.toFile().deleteOnExit();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(
+                    "Could not spill chunk (" + chunkX + ", " + chunkY + ")", e
+            );
+        }
+    }
+
+    /**
+     * Reads a chunk back from its spill file.
+     */
+    private BeanWorld unspill(int chunkX, int chunkY) {
+        BeanWorld chunk = new BeanWorld();
+        try (InputStream in = Files.newInputStream(spillFile(chunkX, chunkY))) {
+            for (Tile tile : BinaryMapFormat.read(dimensions,
+                    chunkX * chunkSize, chunkY * chunkSize, in)) {
+                chunk.place(tile);
+            }
+        } catch (IOException | WorldLoadException e) {
+            throw new IllegalStateException(
+                    "Could not read spilled chunk (" + chunkX + ", " + chunkY + ")", e
+            );
+        }
+        return chunk;
+    }
+
+    private Path spillFile(int chunkX, int chunkY) {
+        return spillDirectory.resolve("chunk_" + chunkX + "_" + chunkY + ".jbmp");
+    }
+
+    /**
+     * Reads a chunk's tiles from the map source. Chunks outside the map are empty.
+     */
+    private BeanWorld materialize(int chunkX, int chunkY) {
+        BeanWorld chunk = new BeanWorld();
+        int startX = Math.max(0, chunkX * chunkSize);
+        int startY = Math.max(0, chunkY * chunkSize);
+        int endX = Math.min(source.width(), (chunkX + 1) * chunkSize);
+        int endY = Math.min(source.height(), (chunkY + 1) * chunkSize);
+
+        for (int tileY = startY; tileY < endY; tileY++) {
+            try {
+                source.checkRow(tileY);
+            } catch (WorldLoadException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+            for (int tileX = startX; tileX < endX; tileX++) {
+                char symbol = source.symbolAt(tileX, tileY);
+                try {
+                    chunk.place(TileFactory.fromSymbol(
+                            dimensions.tileToPixel(tileX),
+                            dimensions.tileToPixel(tileY),
+                            symbol
+                    ));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalStateException(
+                            "Invalid symbol '" + symbol + "' at position ("
+                                    + tileX + ", " + tileY + ")", e
+                    );
+                }
+            }
+        }
+        return chunk;
+    }
+}
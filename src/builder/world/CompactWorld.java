@@ -0,0 +1,505 @@
+package builder.world;
+
+import builder.GameState;
+import builder.Tickable;
+import builder.entities.resources.Ore;
+import builder.entities.tiles.OreVein;
+import builder.entities.tiles.Tile;
+import builder.entities.tiles.TileListener;
+import builder.entities.tiles.TileType;
+import builder.timing.Scheduled;
+import builder.timing.TimerWheel;
+import builder.ui.RenderableGroup;
+import engine.EngineState;
+import engine.renderer.Dimensions;
+import engine.renderer.Renderable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A memory-compact {@link World} for very large rectangular maps.
+ *
+ * <p>Each cell is stored as a {@link TileType} ordinal in a byte array (tilled dirt is its own
+ * type), with the remaining ore of ore veins in a second, lazily allocated byte array, instead of
+ * as a full {@link Tile}. A cell is materialized into real tiles (a view) the first time something
+ * needs them: a lookup, a placement, or rendering it. Unvisited cells cost one or two bytes each.
+ *
+ * <p>At most {@code maxViews} views are kept. Once there are more, the views that have not been
+ * used recently are written back into the per-cell arrays and dropped, oldest first, at the end
+ * of a tick; a view used since the last time it was considered gets a second chance. Only views
+ * that the arrays can describe are dropped: a single standard tile with nothing stacked on it, or
+ * an ore vein holding only its ore. Cells with crops, extra stacked entities or several tiles
+ * stay materialized until they can be described again.
+ *
+ * <p>Like {@link BeanWorld}, the world owns a {@link TimerWheel} that drives the crops and ores
+ * of materialized cells, and only ticks tiles that have stacked entities needing a tick.
+ *
+ * <p>{@link #allTiles()} and {@link #render()} have to materialize every cell; on large maps use
+ * {@link #render(Viewport, Dimensions)} instead.
+ */
+public class CompactWorld implements RenderableGroup, Tickable, World {
+    /**
+     * Default number of cell views to keep.
+     */
+    public static final int DEFAULT_MAX_VIEWS = 1 << 14;
+
+    private static final byte EMPTY = -1;
+
+    private final Dimensions dimensions;
+    private final int width;
+    private final int height;
+    private final int maxViews;
+    private final byte[] types;
+    private byte[] oreValues;
+    private final CellTable views = new CellTable();
+    private int[] viewOrder = new int[64];
+    private int viewCount = 0;
+    private final BitSet used = new BitSet();
+    private final Set<Tile> active = new LinkedHashSet<>();
+    private final List<Tile> pendingActive = new ArrayList<>();
+    private final List<Tile> pendingPlacements = new ArrayList<>();
+    private final List<Tile> removals = new ArrayList<>();
+    private final TimerWheel timers = new TimerWheel();
+    private final TileListener scheduler = new TileListener() {
+        @Override
+        public void stackChanged(Tile tile) {
+            CompactWorld.this.stackChanged(tile);
+        }
+    };
+    private boolean ticking = false;
+
+    /**
+     * Creates a compact world by reading every cell of a map source, keeping the default number
+     * of views.
+     *
+     * @param dimensions dimensions providing tile sizes
+     * @param source     where to read tile symbols from
+     * @throws WorldLoadException if the source contains an unknown symbol or a malformed row
+     */
+    public CompactWorld(Dimensions dimensions, MapSource source) throws WorldLoadException {
+        this(dimensions, source, DEFAULT_MAX_VIEWS);
+    }
+
+    /**
+     * Creates a compact world by reading every cell of a map source.
+     *
+     * @requires maxViews &gt; 0
+     * @param dimensions dimensions providing tile sizes
+     * @param source     where to read tile symbols from
+     * @param maxViews   number of cell views to keep before dropping the least recently used
+     * @throws WorldLoadException if the source contains an unknown symbol or a malformed row
+     */
+    public CompactWorld(Dimensions dimensions, MapSource source, int maxViews)
+            throws WorldLoadException {
+        this.dimensions = dimensions;
+        this.width = source.width();
+        this.height = source.height();
+        this.maxViews = maxViews;
+        this.types = new byte[width * height];
+
+        for (int y = 0; y < height; y++) {
+            source.checkRow(y);
+            for (int x = 0; x < width; x++) {
+                char symbol = source.symbolAt(x, y);
+                TileType type = TileType.fromSymbol(symbol);
+                if (type == null) {
+                    throw new WorldLoadException(
+                            "Invalid symbol '" + symbol + "' at position (" + x + ", " + y + ")"
+                    );
+                }
+                types[y * width + x] = (byte) type.ordinal();
+            }
+        }
+    }
+
+    /**
+     * Returns the type of the bottom tile in a cell without materializing it.
+     *
+     * @param tileX the column of the cell
+     * @param tileY the row of the cell
+     * @return the cell's type, or null if the cell is outside the map, empty, or holds a tile of
+     *     a non-standard class
+     */
+    public TileType typeAt(int tileX, int tileY) {
+        if (!inBounds(tileX, tileY)) {
+            return null;
+        }
+        int cell = tileY * width + tileX;
+        List<Tile> view = views.get(cell);
+        if (view != null) {
+            return view.isEmpty() ? null : TileType.of(view.get(0));
+        }
+        return types[cell] == EMPTY ? null : TileType.fromOrdinal(types[cell]);
+    }
+
+    /**
+     * Sets how much ore is left in an ore vein cell, e.g. when restoring a saved world. If the
+     * cell has not been materialized, only its per-cell state is updated.
+     *
+     * @requires typeAt(tileX, tileY) == TileType.ORE_VEIN, 0 &lt;= value &lt;= 127
+     * @param tileX the column of the cell
+     * @param tileY the row of the cell
+     * @param value the remaining ore value
+     */
+    public void setOreValue(int tileX, int tileY, int value) {
+        int cell = tileY * width + tileX;
+        List<Tile> view = views.get(cell);
+        if (view != null) {
+            for (Tile tile : view) {
+                if (tile instanceof OreVein) {
+                    ((OreVein) tile).getOre().setValue(value);
+                }
+            }
+            return;
+        }
+        storeOreValue(cell, value);
+    }
+
+    /**
+     * Returns the number of cells currently materialized into tiles.
+     *
+     * @return the number of cell views
+     */
+    public int materializedCells() {
+        return views.size();
+    }
+
+    /**
+     * Returns the number of tiles that will be ticked on the next tick.
+     *
+     * @return the size of the active set
+     */
+    public int activeTiles() {
+        return active.size();
+    }
+
+    @Override
+    public List<Tile> tilesAtPosition(int x, int y, Dimensions dimensions) {
+        return new ArrayList<>(cellAt(x, y, dimensions));
+    }
+
+    @Override
+    public int tilesAtPosition(int x, int y, Dimensions dimensions, List<Tile> out) {
+        out.clear();
+        out.addAll(cellAt(x, y, dimensions));
+        return out.size();
+    }
+
+    @Override
+    public Tile firstNonWalkableAt(int x, int y, Dimensions dimensions) {
+        int tileX = dimensions.pixelToTile(x);
+        int tileY = dimensions.pixelToTile(y);
+        if (!inBounds(tileX, tileY)) {
+            return null;
+        }
+        int cell = tileY * width + tileX;
+        if (views.get(cell) == null && (types[cell] == EMPTY
+                || TileType.fromOrdinal(types[cell]).canWalkThrough())) {
+            // Answered from the tile type without materializing the cell.
+            return null;
+        }
+        for (Tile tile : view(cell)) {
+            if (!tile.canWalkThrough()) {
+                return tile;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<Tile> allTiles() {
+        List<Tile> tiles = new ArrayList<>();
+        for (int cell = 0; cell < types.length; cell++) {
+            tiles.addAll(view(cell));
+        }
+        return tiles;
+    }
+
+    @Override
+    public void place(Tile tile) {
+        if (ticking) {
+            pendingPlacements.add(tile);
+            return;
+        }
+        int tileX = dimensions.pixelToTile(tile.getX());
+        int tileY = dimensions.pixelToTile(tile.getY());
+        if (!inBounds(tileX, tileY)) {
+            throw new IllegalArgumentException(
+                    "Tile at (" + tileX + ", " + tileY + ") is outside the "
+                            + width + "x" + height + " map"
+            );
+        }
+        List<Tile> view = view(tileY * width + tileX);
+        // A placement usually replaces a tile that has just been marked for removal.
+        dropMarked(view);
+        view.add(tile);
+        adopt(tile);
+    }
+
+    /**
+     * Returns the timer wheel advanced by this world's ticks, for scheduling timed events.
+     *
+     * @return the world's timer wheel
+     */
+    public TimerWheel getTimerWheel() {
+        return timers;
+    }
+
+    /**
+     * Runs the timer wheel events that are due and ticks the tiles whose stacked entities need a
+     * tick, then drops removed tiles, adds tiles placed during the tick, and writes back views
+     * beyond {@code maxViews}. Cells that are not materialized have nothing to tick.
+     *
+     * @param state the current engine state
+     * @param game  the current game state
+     */
+    @Override
+    public void tick(EngineState state, GameState game) {
+        ticking = true;
+        try {
+            timers.advance();
+            Iterator<Tile> iterator = active.iterator();
+            while (iterator.hasNext()) {
+                Tile tile = iterator.next();
+                tile.tick(state);
+                if (tile.isMarkedForRemoval()) {
+                    removals.add(tile);
+                }
+                if (!tile.hasTickingEntities()) {
+                    iterator.remove();
+                }
+            }
+        } finally {
+            ticking = false;
+        }
+
+        for (Tile tile : pendingActive) {
+            stackChanged(tile);
+        }
+        pendingActive.clear();
+        for (Tile tile : removals) {
+            List<Tile> view = views.get(cellOf(tile));
+            if (view != null) {
+                dropMarked(view);
+            }
+        }
+        removals.clear();
+        for (Tile tile : pendingPlacements) {
+            place(tile);
+        }
+        pendingPlacements.clear();
+        evictOverflow();
+    }
+
+    /**
+     * Returns the renderables of the cells inside the viewport, materializing only those cells.
+     *
+     * @param viewport   the visible rectangle of the world
+     * @param dimensions the dimensions used to convert pixels to tile positions
+     * @return renderables in draw order, row by row
+     */
+    public List<Renderable> render(Viewport viewport, Dimensions dimensions) {
+        int minTileX = Math.max(0, dimensions.pixelToTile(viewport.minX()));
+        int minTileY = Math.max(0, dimensions.pixelToTile(viewport.minY()));
+        int maxTileX = Math.min(width - 1, dimensions.pixelToTile(viewport.maxX()));
+        int maxTileY = Math.min(height - 1, dimensions.pixelToTile(viewport.maxY()));
+
+        List<Renderable> renderables = new ArrayList<>();
+        for (int tileY = minTileY; tileY <= maxTileY; tileY++) {
+            for (int tileX = minTileX; tileX <= maxTileX; tileX++) {
+                for (Tile tile : view(tileY * width + tileX)) {
+                    renderables.addAll(tile.render());
+                }
+            }
+        }
+        return renderables;
+    }
+
+    @Override
+    public List<Renderable> render() {
+        List<Renderable> renderables = new ArrayList<>();
+        for (Tile tile : allTiles()) {
+            renderables.addAll(tile.render());
+        }
+        return renderables;
+    }
+
+    private boolean inBounds(int tileX, int tileY) {
+        return tileX >= 0 && tileY >= 0 && tileX < width && tileY < height;
+    }
+
+    private int cellOf(Tile tile) {
+        return dimensions.pixelToTile(tile.getY()) * width + dimensions.pixelToTile(tile.getX());
+    }
+
+    private List<Tile> cellAt(int x, int y, Dimensions dimensions) {
+        int tileX = dimensions.pixelToTile(x);
+        int tileY = dimensions.pixelToTile(y);
+        if (!inBounds(tileX, tileY)) {
+            return Collections.emptyList();
+        }
+        return view(tileY * width + tileX);
+    }
+
+    /**
+     * Returns the tiles of a cell, materializing them from the per-cell arrays on first use.
+     */
+    private List<Tile> view(int cell) {
+        used.set(cell);
+        List<Tile> view = views.get(cell);
+        if (view != null) {
+            return view;
+        }
+
+        view = views.getOrCreate(cell);
+        if (viewCount == viewOrder.length) {
+            viewOrder = Arrays.copyOf(viewOrder, viewCount * 2);
+        }
+        viewOrder[viewCount++] = cell;
+        if (types[cell] != EMPTY) {
+            Tile tile = TileType.fromOrdinal(types[cell]).create(
+                    dimensions.tileToPixel(cell % width),
+                    dimensions.tileToPixel(cell / width)
+            );
+            if (tile instanceof OreVein && oreValues != null && oreValues[cell] >= 0) {
+                Ore ore = ((OreVein) tile).getOre();
+                ore.setValue(oreValues[cell]);
+                if (ore.getValue() == 0) {
+                    // A depleted vein; the next tick drops the ore.
+                    ore.markForRemoval();
+                }
+            }
+            view.add(tile);
+            adopt(tile);
+        }
+        return view;
+    }
+
+    /**
+     * Starts tracking a tile that has joined a view.
+     */
+    private void adopt(Tile tile) {
+        tile.setListener(scheduler);
+        attachScheduled(tile);
+        if (tile.hasTickingEntities()) {
+            active.add(tile);
+        }
+    }
+
+    private void stackChanged(Tile tile) {
+        if (ticking) {
+            pendingActive.add(tile);
+            return;
+        }
+        attachScheduled(tile);
+        if (tile.hasTickingEntities() && !tile.isMarkedForRemoval()) {
+            active.add(tile);
+        }
+    }
+
+    private void attachScheduled(Tile tile) {
+        tile.forEachStacked(entity -> {
+            if (entity instanceof Scheduled && !((Scheduled) entity).isAttached()) {
+                ((Scheduled) entity).attach(timers);
+            }
+        });
+    }
+
+    private void dropMarked(List<Tile> view) {
+        Iterator<Tile> iterator = view.iterator();
+        while (iterator.hasNext()) {
+            Tile tile = iterator.next();
+            if (tile.isMarkedForRemoval()) {
+                iterator.remove();
+                active.remove(tile);
+                tile.setListener(null);
+            }
+        }
+    }
+
+    /**
+     * Writes back and drops views, oldest first, until at most three quarters of
+     * {@code maxViews} remain or every view has been considered. Views used since they were
+     * last considered are kept, once.
+     */
+    private void evictOverflow() {
+        if (views.size() <= maxViews) {
+            return;
+        }
+        int target = maxViews - maxViews / 4;
+        int kept = 0;
+        for (int i = 0; i < viewCount; i++) {
+            int cell = viewOrder[i];
+            if (views.size() > target) {
+                if (used.get(cell)) {
+                    used.clear(cell);
+                } else if (writeBack(cell)) {
+                    continue;
+                }
+            }
+            viewOrder[kept++] = cell;
+        }
+        viewCount = kept;
+    }
+
+    /**
+     * Stores a view's state in the per-cell arrays and drops the view, if the arrays can
+     * describe it.
+     *
+     * @return true if the view was dropped
+     */
+    private boolean writeBack(int cell) {
+        List<Tile> view = views.get(cell);
+        dropMarked(view);
+        if (view.size() > 1) {
+            return false;
+        }
+
+        if (view.isEmpty()) {
+            types[cell] = EMPTY;
+        } else {
+            Tile tile = view.get(0);
+            TileType type = TileType.of(tile);
+            if (type == null || active.contains(tile)) {
+                return false;
+            }
+            int oreValue = -1;
+            if (tile instanceof OreVein) {
+                Ore ore = ((OreVein) tile).getOre();
+                if (tile.stackSize() == 0) {
+                    oreValue = 0;
+                } else if (tile.stackSize() == 1 && tile.getStackedEntities().get(0) == ore) {
+                    oreValue = ore.getValue() == ore.getOriginalValue() ? -1 : ore.getValue();
+                } else {
+                    return false;
+                }
+            } else if (tile.stackSize() != 0) {
+                return false;
+            }
+            types[cell] = (byte) type.ordinal();
+            if (oreValue >= 0 || oreValues != null) {
+                storeOreValue(cell, oreValue);
+            }
+            tile.setListener(null);
+        }
+        views.remove(cell);
+        used.clear(cell);
+        return true;
+    }
+
+    private void storeOreValue(int cell, int value) {
+        if (oreValues == null) {
+            // Allocated on first use; untouched ore veins keep their default value.
+            oreValues = new byte[types.length];
+            Arrays.fill(oreValues, (byte) -1);
+        }
+        oreValues[cell] = (byte) value;
+    }
+}
@@ -0,0 +1,46 @@
+package builder.world;
+
+/**
+ * A source of tile symbols for a rectangular world map, read one cell at a time.
+ *
+ * <p>Symbols use the same alphabet as {@link WorldBuilder#fromString} (see
+ * {@link builder.entities.tiles.TileFactory#fromSymbol(int, int, char)}).
+ */
+public interface MapSource {
+
+    /**
+     * Returns the width of the map in tiles.
+     *
+     * @return the number of columns
+     */
+    int width();
+
+    /**
+     * Returns the height of the map in tiles.
+     *
+     * @return the number of rows
+     */
+    int height();
+
+    /**
+     * Returns the tile symbol at the given cell.
+     *
+     * @requires 0 &lt;= tileX &lt; width(), 0 &lt;= tileY &lt; height()
+     * @param tileX the column of the cell
+     * @param tileY the row of the cell
+     * @return the symbol describing the tile in that cell
+     */
+    char symbolAt(int tileX, int tileY);
+
+    /**
+     * Checks that a row of the source is well formed, for sources that cannot check every row
+     * up front. Readers call this before reading a row's symbols. Does nothing by default.
+     *
+     * @requires 0 &lt;= tileY &lt; height()
+     * @param tileY the row to check
+     * @throws WorldLoadException if the row is malformed, such as being shorter or longer than
+     *                            {@link #width()}
+     */
+    default void checkRow(int tileY) throws WorldLoadException {
+    }
+}
@@ -0,0 +1,158 @@
+package builder.world;
+
+import builder.entities.tiles.Tile;
+import engine.EngineState;
+import engine.renderer.Dimensions;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Ticks a list of tiles on a fork-join pool, one task per square region of the map.
+ *
+ * <p>While a region is being ticked, world mutations made by its tiles (placements and stack
+ * changes) are recorded in the region instead of being applied. Each recorded mutation remembers
+ * the position of the tile that caused it in the original tick order, so once every region has
+ * finished the mutations can be replayed in exactly the order a sequential tick would have made
+ * them.
+ */
+class ParallelTicker {
+    /**
+     * Width and height of a region, in tiles.
+     */
+    static final int REGION_SIZE = 16;
+
+    private static final ThreadLocal<Region> CURRENT = new ThreadLocal<>();
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a ticker running on the given pool.
+     *
+     * @param pool the pool to run region tasks on
+     */
+    ParallelTicker(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the region being ticked on the calling thread, if any.
+     *
+     * @return the current region, or null when not inside a parallel tick
+     */
+    static Region current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Ticks every tile, grouped into regions, and waits for all regions to finish.
+     *
+     * @param order the tiles to tick, in sequential tick order
+     * @param state the current engine state
+     * @return the outcome of the tick, with mutations in sequential order
+     */
+    Result tick(List<Tile> order, EngineState state) {
+        Dimensions dimensions = state.getDimensions();
+        Map<Long, Region> regions = new TreeMap<>();
+        for (int i = 0; i < order.size(); i++) {
+            Tile tile = order.get(i);
+            long key = TileGrid.key(
+                    Math.floorDiv(dimensions.pixelToTile(tile.getX()), REGION_SIZE),
+                    Math.floorDiv(dimensions.pixelToTile(tile.getY()), REGION_SIZE)
+            );
+            regions.computeIfAbsent(key, k -> new Region()).indices.add(i);
+        }
+
+        Result result = new Result(order.size());
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(regions.size());
+        for (Region region : regions.values()) {
+            tasks.add(pool.submit(() -> region.tick(order, state, result)));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+
+        for (Region region : regions.values()) {
+            result.mutations.addAll(region.mutations);
+        }
+        // Stable, so mutations made by one tile keep their relative order.
+        result.mutations.sort(Comparator.comparingInt(mutation -> mutation.source));
+        return result;
+    }
+
+    /**
+     * A group of nearby tiles ticked together, with the mutations they made.
+     */
+    static class Region {
+        private final List<Integer> indices = new ArrayList<>();
+        private final List<Mutation> mutations = new ArrayList<>();
+        private int source;
+
+        private void tick(List<Tile> order, EngineState state, Result result) {
+            CURRENT.set(this);
+            try {
+                for (int index : indices) {
+                    source = index;
+                    Tile tile = order.get(index);
+                    tile.tick(state);
+                    result.marked[index] = tile.isMarkedForRemoval();
+                    result.idle[index] = !tile.hasTickingEntities();
+                }
+            } finally {
+                CURRENT.remove();
+            }
+        }
+
+        /**
+         * Records a tile placed by the tile currently ticking.
+         *
+         * @param tile the placed tile
+         */
+        void deferPlacement(Tile tile) {
+            mutations.add(new Mutation(source, tile, true));
+        }
+
+        /**
+         * Records a stack change on a tile, made by the tile currently ticking.
+         *
+         * @param tile the tile whose stack changed
+         */
+        void deferStackChange(Tile tile) {
+            mutations.add(new Mutation(source, tile, false));
+        }
+    }
+
+    /**
+     * A placement or stack change made during a parallel tick.
+     */
+    static class Mutation {
+        final int source;
+        final Tile tile;
+        final boolean placement;
+
+        Mutation(int source, Tile tile, boolean placement) {
+            this.source = source;
+            this.tile = tile;
+            this.placement = placement;
+        }
+    }
+
+    /**
+     * What happened to each ticked tile, indexed by position in the tick order.
+     */
+    static class Result {
+        final boolean[] marked;
+        final boolean[] idle;
+        final List<Mutation> mutations = new ArrayList<>();
+
+        Result(int size) {
+            this.marked = new boolean[size];
+            this.idle = new boolean[size];
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package builder.world;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A {@link MapSource} over a memory-mapped text map file.
+ *
+ * <p>The file uses the same format as {@link WorldBuilder#fromFile}, except that it need not be
+ * square or match the window size. Every row must have the same width. Only the first row is
+ * scanned when opening, so opening cost does not grow with map size; cells are read from the
+ * mapping when they are asked for. The width of the other rows is checked by
+ * {@link #checkRow(int)}, which readers call before reading each row.
+ */
+public class TextMapSource implements MapSource {
+    private final MappedByteBuffer buffer;
+    private final int width;
+    private final int height;
+    private final int stride;
+    private final int newline;
+
+    /**
+     * Opens and maps the given map file.
+     *
+     * @param filepath path to the world text file
+     * @throws IOException        if the file cannot be read or mapped
+     * @throws WorldLoadException if the first row is empty or the file is not a whole number of
+     *                            rows
+     */
+    public TextMapSource(String filepath) throws IOException, WorldLoadException {
+        Path path = Paths.get(filepath);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        int size = buffer.limit();
+        int lineEnd = 0;
+        while (lineEnd < size && buffer.get(lineEnd) != '\n') {
+            lineEnd++;
+        }
+        int newline = lineEnd < size ? 1 : 0;
+        if (lineEnd > 0 && buffer.get(lineEnd - 1) == '\r') {
+            lineEnd--;
+            newline++;
+        }
+        this.newline = newline;
+        if (lineEnd == 0) {
+            throw new WorldLoadException("Line 0 has 0 characters");
+        }
+
+        this.width = lineEnd;
+        this.stride = width + newline;
+        // The final row may or may not end with a newline.
+        this.height = (size + newline) / stride;
+        if (height * stride - newline != size && height * stride != size) {
+            throw new WorldLoadException(
+                    "Expected rows of " + width + " characters, file has " + size + " bytes"
+            );
+        }
+    }
+
+    @Override
+    public int width() {
+        return width;
+    }
+
+    @Override
+    public int height() {
+        return height;
+    }
+
+    @Override
+    public char symbolAt(int tileX, int tileY) {
+        return (char) (buffer.get(tileY * stride + tileX) & 0xFF);
+    }
+
+    /**
+     * Checks that the row ends exactly where a row of the first row's width should: at its line
+     * terminator, or, for the last row, possibly at the end of the file. A row that is too short
+     * or too long moves the terminators of it and the rows after it.
+     *
+     * @param tileY the row to check
+     * @throws WorldLoadException if the row does not end where expected
+     */
+    @Override
+    public void checkRow(int tileY) throws WorldLoadException {
+        int end = tileY * stride + width;
+        boolean aligned = end == buffer.limit() && tileY == height - 1
+                || (newline == 2
+                        ? buffer.get(end) == '\r' && buffer.get(end + 1) == '\n'
+                        : newline == 1 && buffer.get(end) == '\n');
+        for (int i = tileY * stride; aligned && i < end; i++) {
+            aligned = buffer.get(i) != '\n' && buffer.get(i) != '\r';
+        }
+        if (!aligned) {
+            throw new WorldLoadException(
+                    "Line " + tileY + " does not have " + width + " characters"
+            );
+        }
+    }
+}
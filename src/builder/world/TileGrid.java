@@ -0,0 +1,152 @@
+package builder.world;
+
+import builder.entities.tiles.Tile;
+import engine.renderer.Dimensions;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A cell-indexed grid of tile stacks.
+ *
+ * <p>Tiles are bucketed by their tile coordinate so that looking up the tiles in a cell costs the
+ * same regardless of how many tiles the world holds. The buckets are held in a {@link CellTable},
+ * so lookups do not allocate. Tile coordinates depend on the tile size, so the grid is (re)built
+ * against the {@link Dimensions} it is queried with.
+ *
+ * <p>The grid also keeps a {@link WalkabilityMap} of the cells holding a tile that cannot be
+ * walked through, updated as tiles are added and removed.
+ */
+class TileGrid {
+    private final CellTable cells = new CellTable();
+    private final WalkabilityMap blocked = new WalkabilityMap();
+    private Dimensions dimensions;
+    private int tileSize = -1;
+
+    /**
+     * Whether the grid has been built for the given dimensions.
+     *
+     * @param dimensions the dimensions the grid will be queried with
+     * @return true if the grid is already indexed for these dimensions
+     */
+    boolean isIndexedFor(Dimensions dimensions) {
+        return this.dimensions != null && this.tileSize == dimensions.tileSize();
+    }
+
+    /**
+     * Rebuilds the grid from scratch for the given dimensions.
+     *
+     * @param dimensions the dimensions used to convert pixels to tile positions
+     * @param tiles      every tile in the world, in placement order
+     */
+    void rebuild(Dimensions dimensions, List<Tile> tiles) {
+        this.dimensions = dimensions;
+        this.tileSize = dimensions.tileSize();
+        cells.clear();
+        blocked.clear();
+        for (Tile tile : tiles) {
+            add(tile);
+        }
+    }
+
+    /**
+     * Adds a tile to the top of its cell's stack. Does nothing if the grid is not yet built.
+     *
+     * @param tile the tile to index
+     */
+    void add(Tile tile) {
+        if (dimensions == null) {
+            return;
+        }
+        int tileX = dimensions.pixelToTile(tile.getX());
+        int tileY = dimensions.pixelToTile(tile.getY());
+        cells.getOrCreate(key(tileX, tileY)).add(tile);
+        if (!tile.canWalkThrough()) {
+            blocked.set(tileX, tileY, true);
+        }
+    }
+
+    /**
+     * Removes a tile from its cell's stack. Does nothing if the grid is not yet built.
+     *
+     * @param tile the tile to remove from the index
+     */
+    void remove(Tile tile) {
+        if (dimensions == null) {
+            return;
+        }
+        int tileX = dimensions.pixelToTile(tile.getX());
+        int tileY = dimensions.pixelToTile(tile.getY());
+        long key = key(tileX, tileY);
+        List<Tile> cell = cells.get(key);
+        if (cell != null) {
+            cell.remove(tile);
+            if (cell.isEmpty()) {
+                cells.remove(key);
+            }
+            if (!tile.canWalkThrough()) {
+                blocked.set(tileX, tileY, !isWalkable(cell));
+            }
+        }
+    }
+
+    /**
+     * Whether every cell overlapping the given pixel rectangle can be walked through.
+     *
+     * @requires {@link #isIndexedFor(Dimensions)} for the dimensions in use
+     * @param left   the leftmost pixel column, inclusive
+     * @param top    the topmost pixel row, inclusive
+     * @param right  the rightmost pixel column, inclusive
+     * @param bottom the bottom pixel row, inclusive
+     * @return true if no cell in the rectangle holds a tile that cannot be walked through
+     */
+    boolean isAreaWalkable(int left, int top, int right, int bottom) {
+        return !blocked.anyBlocked(
+                dimensions.pixelToTile(left), dimensions.pixelToTile(top),
+                dimensions.pixelToTile(right), dimensions.pixelToTile(bottom));
+    }
+
+    private static boolean isWalkable(List<Tile> cell) {
+        for (int i = 0; i < cell.size(); i++) {
+            if (!cell.get(i).canWalkThrough()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the tiles in the cell containing the given pixel, in placement order.
+     *
+     * @requires {@link #isIndexedFor(Dimensions)} for the dimensions in use
+     * @param x the x-coordinate in pixels
+     * @param y the y-coordinate in pixels
+     * @return the live cell stack, which callers must not modify; empty if no tiles are there
+     */
+    List<Tile> cellAt(int x, int y) {
+        return cell(dimensions.pixelToTile(x), dimensions.pixelToTile(y));
+    }
+
+    /**
+     * Returns the tiles in the given cell, in placement order.
+     *
+     * @param tileX the cell column
+     * @param tileY the cell row
+     * @return the live cell stack, which callers must not modify; empty if no tiles are there
+     */
+    List<Tile> cell(int tileX, int tileY) {
+        List<Tile> cell = cells.get(key(tileX, tileY));
+        return cell == null ? Collections.emptyList() : cell;
+    }
+
+    /**
+     * Packs a tile coordinate into a single map key.
+     *
+     * @param tileX the cell column
+     * @param tileY the cell row
+     * @return the packed key
+     */
+    static long key(int tileX, int tileY) {
+        return ((long) tileX << 32) | (tileY & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,117 @@
+package builder.world;
+
+/**
+ * The rectangle of the world that is visible on screen, in pixels.
+ *
+ * <p>A viewport may have a margin, which widens the rectangle on every side so that tiles just
+ * off screen are included as well (for example, to avoid pop-in while scrolling).
+ */
+public class Viewport {
+    private final int x;
+    private final int y;
+    private final int width;
+    private final int height;
+    private final int margin;
+
+    /**
+     * Creates a viewport with no margin.
+     *
+     * @param x      the left edge, in pixels
+     * @param y      the top edge, in pixels
+     * @param width  the visible width, in pixels
+     * @param height the visible height, in pixels
+     */
+    public Viewport(int x, int y, int width, int height) {
+        this(x, y, width, height, 0);
+    }
+
+    /**
+     * Creates a viewport.
+     *
+     * @requires width &gt; 0, height &gt; 0, margin &gt;= 0
+     * @param x      the left edge, in pixels
+     * @param y      the top edge, in pixels
+     * @param width  the visible width, in pixels
+     * @param height the visible height, in pixels
+     * @param margin extra pixels to include on every side
+     */
+    public Viewport(int x, int y, int width, int height, int margin) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.margin = margin;
+    }
+
+    /**
+     * Returns the left-most visible pixel, including the margin.
+     *
+     * @return the minimum x-coordinate
+     */
+    public int minX() {
+        return x - margin;
+    }
+
+    /**
+     * Returns the top-most visible pixel, including the margin.
+     *
+     * @return the minimum y-coordinate
+     */
+    public int minY() {
+        return y - margin;
+    }
+
+    /**
+     * Returns the right-most visible pixel, including the margin.
+     *
+     * @return the maximum x-coordinate
+     */
+    public int maxX() {
+        return x + width - 1 + margin;
+    }
+
+    /**
+     * Returns the bottom-most visible pixel, including the margin.
+     *
+     * @return the maximum y-coordinate
+     */
+    public int maxY() {
+        return y + height - 1 + margin;
+    }
+
+    /**
+     * Returns a copy of this viewport moved so its top-left corner is at the given pixel.
+     *
+     * @param x the new left edge, in pixels
+     * @param y the new top edge, in pixels
+     * @return the moved viewport
+     */
+    public Viewport moveTo(int x, int y) {
+        return new Viewport(x, y, width, height, margin);
+    }
+
+    /**
+     * Returns a copy of this viewport with a different margin.
+     *
+     * @param margin extra pixels to include on every side
+     * @return the widened (or narrowed) viewport
+     */
+    public Viewport withMargin(int margin) {
+        return new Viewport(x, y, width, height, margin);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof Viewport)) {
+            return false;
+        }
+        Viewport viewport = (Viewport) other;
+        return x == viewport.x && y == viewport.y && width == viewport.width
+                && height == viewport.height && margin == viewport.margin;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((((x * 31) + y) * 31 + width) * 31 + height) * 31 + margin;
+    }
+}
@@ -0,0 +1,136 @@
+package builder.world;
+
+/**
+ * A bitmap of the cells that cannot be walked through, one bit per cell.
+ *
+ * <p>The bitmap covers the bounding rectangle of every cell ever blocked, growing (by doubling)
+ * when a cell outside it is blocked. Cells outside the rectangle are walkable, as are cells with
+ * no tiles, so testing a cell is one bounds check and one bit test.
+ */
+class WalkabilityMap {
+    private int originX;
+    private int originY;
+    private int width;
+    private int height;
+    private long[] bits = new long[0];
+
+    /**
+     * Whether the given cell cannot be walked through.
+     *
+     * @param tileX the cell column
+     * @param tileY the cell row
+     * @return true if the cell is blocked
+     */
+    boolean isBlocked(int tileX, int tileY) {
+        int column = tileX - originX;
+        int row = tileY - originY;
+        if (column < 0 || row < 0 || column >= width || row >= height) {
+            return false;
+        }
+        int bit = row * width + column;
+        return (bits[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Whether any cell in the given rectangle of cells cannot be walked through.
+     *
+     * @param fromX the first column, inclusive
+     * @param fromY the first row, inclusive
+     * @param toX   the last column, inclusive
+     * @param toY   the last row, inclusive
+     * @return true if any cell in the rectangle is blocked
+     */
+    boolean anyBlocked(int fromX, int fromY, int toX, int toY) {
+        for (int tileY = fromY; tileY <= toY; tileY++) {
+            for (int tileX = fromX; tileX <= toX; tileX++) {
+                if (isBlocked(tileX, tileY)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marks a cell as blocked or walkable.
+     *
+     * @param tileX   the cell column
+     * @param tileY   the cell row
+     * @param blocked true if the cell cannot be walked through
+     */
+    void set(int tileX, int tileY, boolean blocked) {
+        if (blocked) {
+            include(tileX, tileY);
+        } else if (!isBlocked(tileX, tileY)) {
+            return;
+        }
+        int bit = (tileY - originY) * width + (tileX - originX);
+        if (blocked) {
+            bits[bit >>> 6] |= 1L << bit;
+        } else {
+            bits[bit >>> 6] &= ~(1L << bit);
+        }
+    }
+
+    /**
+     * Marks every cell as walkable.
+     */
+    void clear() {
+        width = 0;
+        height = 0;
+        bits = new long[0];
+    }
+
+    /**
+     * Grows the bitmap, if needed, to cover the given cell.
+     */
+    private void include(int tileX, int tileY) {
+        if (width == 0) {
+            resize(tileX, tileY, 1, 1);
+            return;
+        }
+        int column = tileX - originX;
+        int row = tileY - originY;
+        if (column >= 0 && row >= 0 && column < width && row < height) {
+            return;
+        }
+        int newOriginX = originX;
+        int newWidth = width;
+        while (tileX < newOriginX || tileX >= newOriginX + newWidth) {
+            if (tileX < newOriginX) {
+                newOriginX -= newWidth;
+            }
+            newWidth *= 2;
+        }
+        int newOriginY = originY;
+        int newHeight = height;
+        while (tileY < newOriginY || tileY >= newOriginY + newHeight) {
+            if (tileY < newOriginY) {
+                newOriginY -= newHeight;
+            }
+            newHeight *= 2;
+        }
+        resize(newOriginX, newOriginY, newWidth, newHeight);
+    }
+
+    private void resize(int newOriginX, int newOriginY, int newWidth, int newHeight) {
+        long[] old = bits;
+        int oldOriginX = originX;
+        int oldOriginY = originY;
+        int oldWidth = width;
+        int oldHeight = height;
+        originX = newOriginX;
+        originY = newOriginY;
+        width = newWidth;
+        height = newHeight;
+        bits = new long[(int) (((long) newWidth * newHeight + 63) >>> 6)];
+        for (int row = 0; row < oldHeight; row++) {
+            for (int column = 0; column < oldWidth; column++) {
+                int bit = row * oldWidth + column;
+                if ((old[bit >>> 6] & (1L << bit)) != 0) {
+                    set(oldOriginX + column, oldOriginY + row, true);
+                }
+            }
+        }
+    }
+}
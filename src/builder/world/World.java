@@ -2,7 +2,9 @@ package builder.world;
 
 import builder.entities.tiles.Tile;
 import engine.renderer.Dimensions;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Represents a world that manages and provides access to tiles.
@@ -19,6 +21,82 @@ public interface World {
      */
     List<Tile> tilesAtPosition(int x, int y, Dimensions dimensions);
 
+    /**
+     * Fills a caller-supplied list with the tiles located at the given pixel coordinates.
+     * Unlike {@link #tilesAtPosition(int, int, Dimensions)}, implementations should not
+     * allocate, so the same buffer can be reused every frame.
+     *
+     * @param x          the x-coordinate in pixels
+     * @param y          the y-coordinate in pixels
+     * @param dimensions the dimensions used to convert pixels to tile positions
+     * @param out        the list to clear and fill with the tiles at the given position
+     * @return the number of tiles found
+     */
+    default int tilesAtPosition(int x, int y, Dimensions dimensions, List<Tile> out) {
+        out.clear();
+        out.addAll(tilesAtPosition(x, y, dimensions));
+        return out.size();
+    }
+
+    /**
+     * Calls the given action on each tile located at the given pixel coordinates, in placement
+     * order. The action must not place tiles in this world.
+     *
+     * @param x          the x-coordinate in pixels
+     * @param y          the y-coordinate in pixels
+     * @param dimensions the dimensions used to convert pixels to tile positions
+     * @param action     the action to perform on each tile
+     */
+    default void forEachTileAt(int x, int y, Dimensions dimensions, Consumer<Tile> action) {
+        for (Tile tile : tilesAtPosition(x, y, dimensions)) {
+            action.accept(tile);
+        }
+    }
+
+    /**
+     * Returns the first tile at the given pixel coordinates that cannot be walked through.
+     *
+     * @param x          the x-coordinate in pixels
+     * @param y          the y-coordinate in pixels
+     * @param dimensions the dimensions used to convert pixels to tile positions
+     * @return the first non-walkable tile, or null if every tile there is walkable
+     */
+    default Tile firstNonWalkableAt(int x, int y, Dimensions dimensions) {
+        for (Tile tile : tilesAtPosition(x, y, dimensions)) {
+            if (!tile.canWalkThrough()) {
+                return tile;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether every cell overlapping the given pixel rectangle can be walked through, i.e. holds
+     * no tile for which {@link Tile#canWalkThrough()} is false.
+     *
+     * @param left       the leftmost pixel column, inclusive
+     * @param top        the topmost pixel row, inclusive
+     * @param right      the rightmost pixel column, inclusive
+     * @param bottom     the bottom pixel row, inclusive
+     * @param dimensions the dimensions used to convert pixels to tile positions
+     * @return true if the whole rectangle can be walked through
+     */
+    default boolean isAreaWalkable(int left, int top, int right, int bottom,
+                                   Dimensions dimensions) {
+        int fromX = dimensions.pixelToTile(left);
+        int toX = dimensions.pixelToTile(right);
+        int toY = dimensions.pixelToTile(bottom);
+        for (int tileY = dimensions.pixelToTile(top); tileY <= toY; tileY++) {
+            for (int tileX = fromX; tileX <= toX; tileX++) {
+                if (firstNonWalkableAt(dimensions.tileToPixel(tileX),
+                        dimensions.tileToPixel(tileY), dimensions) != null) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     /**
      * Returns all tiles contained in the world.
      *
@@ -26,6 +104,17 @@ public interface World {
      */
     List<Tile> allTiles();
 
+    /**
+     * Returns an immutable view of all tiles contained in the world. Unlike {@link #allTiles()},
+     * the same view may be returned from repeated calls until the world changes, so it is cheap
+     * to poll every frame. The view does not change when the world does.
+     *
+     * @return an unmodifiable list of all tiles
+     */
+    default List<Tile> snapshot() {
+        return Collections.unmodifiableList(allTiles());
+    }
+
     /**
      * Places a tile in the world.
      *
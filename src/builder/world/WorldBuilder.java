@@ -1,13 +1,16 @@
 package builder.world;
 
 import builder.entities.tiles.Tile;
-import builder.entities.tiles.TileFactory;
+import builder.metrics.WorldLoadEvent;
 import engine.renderer.Dimensions;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.ArrayList;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 
 /**
@@ -24,6 +27,7 @@ public class WorldBuilder {
     /**
      * Parses a textual world representation into tiles.
      * Each line corresponds to rows; each character is a tile symbol.
+     * Rows are decoded in parallel (see {@link WorldParser}).
      *
      * @param dimensions dimensions providing tile/window sizes
      * @param text       the raw world text (lines of symbols)
@@ -34,63 +38,91 @@ public class WorldBuilder {
             Dimensions dimensions,
             String text
     ) throws WorldLoadException {
-        String[] lines = text.split("\n");
-        int expectedLines = dimensions.windowSize() / dimensions.tileSize();
-        int expectedCharsPerLine = expectedLines;
+        return WorldParser.parse(dimensions, text);
+    }
 
-        if (lines.length != expectedLines) {
-            throw new WorldLoadException(
-                    "Expected " + expectedLines + " lines, got " + lines.length
-            );
+    /**
+     * Loads a world from a file path, parsing its textual content into tiles.
+     * The file is memory-mapped and parsed in place, without first being read into a string.
+     *
+     * @param dimensions dimensions providing tile/window sizes
+     * @param filepath   path to the world text file
+     * @return a {@link BeanWorld} containing the parsed tiles
+     * @throws IOException         if file reading fails
+     * @throws WorldLoadException  if the file content is invalid
+     */
+    public static BeanWorld fromFile(
+            Dimensions dimensions,
+            String filepath
+    ) throws IOException, WorldLoadException {
+        WorldLoadEvent stage = WorldLoadEvent.start(filepath, "map");
+        MappedByteBuffer content;
+        try (FileChannel channel = FileChannel.open(Paths.get(filepath), StandardOpenOption.READ)) {
+            content = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
         }
+        stage.finish(0);
 
-        List<Tile> tiles = new ArrayList<>();
-
-        for (int y = 0; y < lines.length; y++) {
-            String line = lines[y];
-            if (line.length() != expectedCharsPerLine) {
-                throw new WorldLoadException(
-                        "Line " + y + " has " + line.length()
-                                + " characters, expected " + expectedCharsPerLine
-                );
-            }
+        stage = WorldLoadEvent.start(filepath, "parse");
+        List<Tile> tiles = WorldParser.parse(dimensions, WorldParser.asChars(content));
+        stage.finish(tiles.size());
 
-            for (int x = 0; x < line.length(); x++) {
-                char symbol = line.charAt(x);
-                int pixelX = x * dimensions.tileSize();
-                int pixelY = y * dimensions.tileSize();
+        stage = WorldLoadEvent.start(filepath, "place");
+        BeanWorld world = fromTiles(tiles);
+        stage.finish(tiles.size());
+        return world;
+    }
 
-                try {
-                    Tile tile = TileFactory.fromSymbol(pixelX, pixelY, symbol);
-                    tiles.add(tile);
-                } catch (Exception e) {
-                    throw new WorldLoadException(
-                            "Invalid symbol '" + symbol + "' at position ("
-                                    + x + ", " + y + ")"
-                    );
-                }
-            }
+    /**
+     * Loads a world from a binary map file (see {@link BinaryMapFormat}), including tilled dirt,
+     * crops and partially mined ore. The map may be any size.
+     *
+     * @param dimensions dimensions providing tile sizes
+     * @param filepath   path to the binary map file
+     * @return a {@link BeanWorld} containing the loaded tiles
+     * @throws IOException        if file reading fails
+     * @throws WorldLoadException if the file is not a valid binary map
+     */
+    public static BeanWorld fromBinaryFile(
+            Dimensions dimensions,
+            String filepath
+    ) throws IOException, WorldLoadException {
+        try (InputStream in = Files.newInputStream(Paths.get(filepath))) {
+            return fromTiles(BinaryMapFormat.read(dimensions, in));
         }
+    }
 
-        return tiles;
+    /**
+     * Opens a map file as a {@link ChunkedWorld}. Unlike {@link #fromFile(Dimensions, String)}
+     * the map may be any rectangular size; tiles are only created as chunks are needed.
+     *
+     * @param dimensions dimensions providing tile sizes
+     * @param filepath   path to the world text file
+     * @return a chunked world reading from the file
+     * @throws IOException        if the file cannot be opened
+     * @throws WorldLoadException if the file is not a rectangular map
+     */
+    public static ChunkedWorld chunkedFromFile(
+            Dimensions dimensions,
+            String filepath
+    ) throws IOException, WorldLoadException {
+        return new ChunkedWorld(dimensions, new TextMapSource(filepath));
     }
 
     /**
-     * Loads a world from a file path, parsing its textual content into tiles.
+     * Loads a map file of any rectangular size into a {@link CompactWorld}, which stores one
+     * byte per cell and only creates tiles for cells as they are used.
      *
-     * @param dimensions dimensions providing tile/window sizes
+     * @param dimensions dimensions providing tile sizes
      * @param filepath   path to the world text file
-     * @return a {@link BeanWorld} containing the parsed tiles
-     * @throws IOException         if file reading fails
-     * @throws WorldLoadException  if the file content is invalid
+     * @return a compact world holding the whole map
+     * @throws IOException        if the file cannot be opened
+     * @throws WorldLoadException if the file is not a rectangular map of valid symbols
      */
-    public static BeanWorld fromFile(
+    public static CompactWorld compactFromFile(
             Dimensions dimensions,
             String filepath
     ) throws IOException, WorldLoadException {
-        String content = new String(Files.readAllBytes(Paths.get(filepath)));
-        List<Tile> tiles = fromString(dimensions, content);
-        return fromTiles(tiles);
+        return new CompactWorld(dimensions, new TextMapSource(filepath));
     }
 
     /**
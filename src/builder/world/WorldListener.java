@@ -0,0 +1,18 @@
+package builder.world;
+
+import builder.entities.tiles.Tile;
+
+/**
+ * Receives notifications about changes to the tiles of a {@link BeanWorld}.
+ */
+public interface WorldListener {
+
+    /**
+     * Called after a tile has been placed in or removed from the world, after the entities
+     * stacked on it or its art have changed, or after it has forwarded an interaction or use to
+     * its stacked entities. Changes made during a tick are reported once the tick ends.
+     *
+     * @param tile the tile that changed
+     */
+    void tileChanged(Tile tile);
+}
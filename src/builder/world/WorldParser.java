@@ -0,0 +1,179 @@
+package builder.world;
+
+import builder.entities.tiles.Tile;
+import builder.entities.tiles.TileFactory;
+import engine.renderer.Dimensions;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Decodes the textual world format used by {@link WorldBuilder}.
+ *
+ * <p>Row boundaries are found with a single scan over the text, without splitting it into line
+ * strings. Rows are then decoded into tiles in parallel. Errors are reported exactly as a
+ * row-by-row, left-to-right decode would report them: the first row that is the wrong length or
+ * contains an unknown symbol wins.
+ */
+class WorldParser {
+
+    private WorldParser() {
+    }
+
+    /**
+     * Parses a world whose rows and columns must both match the window size in tiles.
+     *
+     * @param dimensions dimensions providing tile/window sizes
+     * @param text       the raw world text (lines of symbols)
+     * @return the created tiles, row by row
+     * @throws WorldLoadException if the input dimensions/content are invalid
+     */
+    static List<Tile> parse(Dimensions dimensions, CharSequence text) throws WorldLoadException {
+        int[] bounds = rowBounds(text);
+        int rows = bounds.length / 2;
+        int expectedLines = dimensions.windowSize() / dimensions.tileSize();
+        int expectedCharsPerLine = expectedLines;
+
+        if (rows != expectedLines) {
+            throw new WorldLoadException(
+                    "Expected " + expectedLines + " lines, got " + rows
+            );
+        }
+
+        // Rows at and after the first one of the wrong length are never decoded.
+        int badLength = rows;
+        for (int y = 0; y < rows; y++) {
+            if (bounds[2 * y + 1] - bounds[2 * y] != expectedCharsPerLine) {
+                badLength = y;
+                break;
+            }
+        }
+
+        Tile[] tiles = new Tile[badLength * expectedCharsPerLine];
+        int[] badSymbol = new int[badLength];
+        IntStream.range(0, badLength).parallel().forEach(y ->
+                badSymbol[y] = decodeRow(dimensions, text, bounds[2 * y], y,
+                        expectedCharsPerLine, tiles)
+        );
+
+        for (int y = 0; y < badLength; y++) {
+            if (badSymbol[y] >= 0) {
+                int x = badSymbol[y];
+                throw new WorldLoadException(
+                        "Invalid symbol '" + text.charAt(bounds[2 * y] + x) + "' at position ("
+                                + x + ", " + y + ")"
+                );
+            }
+        }
+        if (badLength < rows) {
+            int length = bounds[2 * badLength + 1] - bounds[2 * badLength];
+            throw new WorldLoadException(
+                    "Line " + badLength + " has " + length
+                            + " characters, expected " + expectedCharsPerLine
+            );
+        }
+        return new ArrayList<>(Arrays.asList(tiles));
+    }
+
+    /**
+     * Decodes one row into the shared tile array.
+     *
+     * @return the column of the first invalid symbol, or -1 if the whole row is valid
+     */
+    private static int decodeRow(Dimensions dimensions, CharSequence text, int start, int y,
+                                 int width, Tile[] tiles) {
+        int pixelY = y * dimensions.tileSize();
+        for (int x = 0; x < width; x++) {
+            char symbol = text.charAt(start + x);
+            int pixelX = x * dimensions.tileSize();
+            try {
+                tiles[y * width + x] = TileFactory.fromSymbol(pixelX, pixelY, symbol);
+            } catch (Exception e) {
+                return x;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the start and end of each newline-separated row. As with {@link String#split},
+     * trailing empty rows are dropped, except that empty text is a single empty row.
+     *
+     * @param text the raw world text
+     * @return pairs of (start inclusive, end exclusive) offsets, one pair per row
+     */
+    static int[] rowBounds(CharSequence text) {
+        int length = text.length();
+        if (length == 0) {
+            return new int[] {0, 0};
+        }
+
+        int[] bounds = new int[16];
+        int count = 0;
+        int start = 0;
+        int lastNonEmpty = 0;
+        for (int i = 0; i <= length; i++) {
+            if (i == length || text.charAt(i) == '\n') {
+                if (count + 2 > bounds.length) {
+                    bounds = Arrays.copyOf(bounds, bounds.length * 2);
+                }
+                bounds[count++] = start;
+                bounds[count++] = i;
+                if (i > start) {
+                    lastNonEmpty = count;
+                }
+                start = i + 1;
+            }
+        }
+        return Arrays.copyOf(bounds, lastNonEmpty);
+    }
+
+    /**
+     * Views the bytes of a buffer as single-byte characters, without copying them.
+     *
+     * @param buffer the buffer to view, from its position to its limit
+     * @return a character sequence over the buffer
+     */
+    static CharSequence asChars(ByteBuffer buffer) {
+        return new ByteChars(buffer, buffer.position(), buffer.limit());
+    }
+
+    private static class ByteChars implements CharSequence {
+        private final ByteBuffer buffer;
+        private final int start;
+        private final int end;
+
+        private ByteChars(ByteBuffer buffer, int start, int end) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buffer.get(start + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return new ByteChars(buffer, start + from, start + to);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder(length());
+            for (int i = 0; i < length(); i++) {
+                builder.append(charAt(i));
+            }
+            return builder.toString();
+        }
+    }
+}
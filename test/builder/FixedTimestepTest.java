@@ -0,0 +1,86 @@
+package builder;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class FixedTimestepTest {
+    private static final long MILLIS = 1_000_000L;
+
+    private long now;
+    private FixedTimestep timestep;
+
+    @Before
+    public void setUp() {
+        now = 0;
+        // 100 steps per second (10ms per step), 25 frames per second (40ms per frame).
+        timestep = new FixedTimestep(100, 25, 5, () -> now);
+    }
+
+    @Test
+    public void testFirstAdvanceOnlyStartsClock() {
+        now = 1000 * MILLIS;
+        assertEquals(0, timestep.advance());
+    }
+
+    @Test
+    public void testStepsFollowElapsedTimeNotFrames() {
+        timestep.advance();
+
+        int steps = 0;
+        for (int frame = 0; frame < 100; frame++) {
+            now += 4 * MILLIS;
+            steps += timestep.advance();
+        }
+
+        // 400ms at 10ms per step, however it was split into frames.
+        assertEquals(40, steps);
+    }
+
+    @Test
+    public void testRemainderCarriesOverToNextFrame() {
+        timestep.advance();
+
+        now += 15 * MILLIS;
+        assertEquals(1, timestep.advance());
+        assertEquals(0.5, timestep.interpolation(), 1e-9);
+
+        now += 5 * MILLIS;
+        assertEquals(1, timestep.advance());
+    }
+
+    @Test
+    public void testCatchUpIsCapped() {
+        timestep.advance();
+
+        now += 1000 * MILLIS;
+        assertEquals(5, timestep.advance());
+        assertEquals(95, timestep.droppedSteps());
+
+        now += 10 * MILLIS;
+        assertEquals(1, timestep.advance());
+    }
+
+    @Test
+    public void testRendersAtMostAtRenderRate() {
+        timestep.advance();
+        assertTrue(timestep.shouldRender());
+
+        int rendered = 0;
+        for (int frame = 0; frame < 100; frame++) {
+            now += 10 * MILLIS;
+            timestep.advance();
+            if (timestep.shouldRender()) {
+                rendered++;
+            }
+        }
+
+        // One second at 25 frames per second.
+        assertEquals(25, rendered);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsZeroStepRate() {
+        new FixedTimestep(0, 0);
+    }
+}
@@ -0,0 +1,197 @@
+package builder;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import builder.entities.resources.Cabbage;
+import builder.entities.tiles.Dirt;
+import builder.entities.tiles.Grass;
+import builder.entities.tiles.OreVein;
+import builder.entities.tiles.Tile;
+import builder.inventory.Inventory;
+import builder.inventory.TinyInventory;
+import builder.inventory.items.Hoe;
+import builder.inventory.items.Jackhammer;
+import builder.pathfinding.Goal;
+import builder.player.ChickenFarmer;
+import builder.player.Player;
+import builder.ui.AnimationClock;
+import builder.world.BeanWorld;
+import builder.world.World;
+import builder.world.WorldLoadException;
+import engine.EngineState;
+import engine.renderer.Dimensions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class GameSnapshotTest {
+    private MockDimensions dimensions;
+    private BeanWorld world;
+    private Inventory inventory;
+    private Cabbage cabbage;
+
+    @Before
+    public void setUp() {
+        dimensions = new MockDimensions();
+        world = new BeanWorld();
+        world.place(new Grass(0, 0));
+
+        Dirt tilled = new Dirt(25, 0);
+        tilled.till();
+        world.place(tilled);
+
+        Dirt planted = new Dirt(50, 0);
+        planted.till();
+        cabbage = new Cabbage(50, 0);
+        planted.placeOn(cabbage);
+        world.place(planted);
+        cabbage.setGrowthStage(2);
+
+        OreVein depleted = new OreVein(0, 25);
+        depleted.getOre().setValue(0);
+        depleted.getOre().markForRemoval();
+        world.place(depleted);
+
+        world.place(new OreVein(25, 25));
+
+        inventory = new TinyInventory(3);
+        inventory.addCoins(17);
+        inventory.addFood(4);
+        inventory.setItem(0, new Hoe());
+        inventory.setItem(2, new Jackhammer());
+        inventory.setActiveSlot(2);
+    }
+
+    @Test
+    public void testSaveLoadRoundTrip() throws IOException, WorldLoadException {
+        Player player = new ChickenFarmer(60, 35, new AnimationClock());
+        GameState game = new MockGameState(world, player, inventory);
+        Path file = Files.createTempFile("snapshot", ".jbsv");
+        GameSnapshot loaded;
+        try {
+            GameSnapshot.capture(game, dimensions).writeTo(file.toString());
+            loaded = GameSnapshot.readFrom(file.toString());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        assertEquals(60, loaded.getPlayerX());
+        assertEquals(35, loaded.getPlayerY());
+
+        Inventory restored = new TinyInventory(3);
+        loaded.restoreInventory(restored);
+        assertEquals(17, restored.getCoins());
+        assertEquals(4, restored.getFood());
+        assertEquals(2, restored.getActiveSlot());
+        assertTrue(restored.getItem(0) instanceof Hoe);
+        assertNull(restored.getItem(1));
+        assertTrue(restored.getItem(2) instanceof Jackhammer);
+
+        BeanWorld restoredWorld = loaded.restoreWorld(dimensions);
+        assertEquals(5, restoredWorld.allTiles().size());
+
+        Dirt tilled = (Dirt) tileAt(restoredWorld, 25, 0);
+        assertTrue(tilled.isTilled());
+        assertEquals(0, tilled.stackSize());
+
+        Dirt planted = (Dirt) tileAt(restoredWorld, 50, 0);
+        assertTrue(planted.isTilled());
+        Cabbage growing = (Cabbage) planted.getStackedEntities().get(0);
+        assertEquals(2, growing.getGrowthStage());
+        assertEquals(cabbage.getTimerTicks(), growing.getTimerTicks());
+
+        OreVein depleted = (OreVein) tileAt(restoredWorld, 0, 25);
+        assertFalse(Goal.ORE_VEINS.isGoal(depleted));
+        OreVein full = (OreVein) tileAt(restoredWorld, 25, 25);
+        assertTrue(Goal.ORE_VEINS.isGoal(full));
+        assertEquals(full.getOre().getOriginalValue(), full.getOre().getValue());
+
+        // The depleted vein's ore is dropped on the first tick, as it was before saving.
+        restoredWorld.tick(new MockEngineState(), game);
+        assertEquals(0, depleted.stackSize());
+        assertEquals(1, full.stackSize());
+    }
+
+    private Tile tileAt(World world, int x, int y) {
+        List<Tile> tiles = world.tilesAtPosition(x, y, dimensions);
+        assertEquals(1, tiles.size());
+        return tiles.get(0);
+    }
+
+    private static class MockGameState implements GameState {
+        private final World world;
+        private final Player player;
+        private final Inventory inventory;
+
+        MockGameState(World world, Player player, Inventory inventory) {
+            this.world = world;
+            this.player = player;
+            this.inventory = inventory;
+        }
+
+        @Override
+        public World getWorld() {
+            return world;
+        }
+
+        @Override
+        public Player getPlayer() {
+            return player;
+        }
+
+        @Override
+        public Inventory getInventory() {
+            return inventory;
+        }
+    }
+
+    private static class MockDimensions implements Dimensions {
+        @Override
+        public int pixelToTile(int pixel) {
+            return pixel / 25;
+        }
+
+        @Override
+        public int tileToPixel(int tile) {
+            return tile * 25;
+        }
+
+        @Override
+        public int tileSize() {
+            return 25;
+        }
+
+        @Override
+        public int windowSize() {
+            return 500;
+        }
+    }
+
+    private static class MockEngineState implements EngineState {
+        private final MockDimensions dimensions = new MockDimensions();
+
+        @Override
+        public Dimensions getDimensions() {
+            return dimensions;
+        }
+
+        @Override
+        public int currentTick() {
+            return 0;
+        }
+
+        @Override
+        public engine.input.KeyState getKeys() {
+            return null;
+        }
+
+        @Override
+        public engine.input.MouseState getMouse() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package builder;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+public class InputRecordingTest {
+
+    @Test
+    public void testSaveLoadRoundTrip() throws IOException {
+        InputRecording recording = new InputRecording();
+        recording.add("", false);
+        for (int i = 0; i < 200; i++) {
+            recording.add("d", false);
+        }
+        recording.add("d", true);
+        recording.add("d", true);
+        recording.add("ws", false);
+        recording.add("", false);
+
+        InputRecording loaded = roundTrip(recording);
+
+        assertEquals(recording.size(), loaded.size());
+        for (int frame = 0; frame < recording.size(); frame++) {
+            assertEquals(recording.keysAt(frame), loaded.keysAt(frame));
+            assertEquals(recording.leftPressedAt(frame), loaded.leftPressedAt(frame));
+        }
+    }
+
+    @Test
+    public void testRepeatedFramesAreRunLengthEncoded() throws IOException {
+        InputRecording recording = new InputRecording();
+        recording.add("", false);
+        for (int i = 0; i < 200; i++) {
+            recording.add("d", false);
+        }
+        recording.add("d", true);
+        recording.add("d", true);
+        recording.add("ws", false);
+
+        assertEquals(Arrays.asList("0", "0d*200", "1d*2", "0ws"), saved(recording));
+    }
+
+    @Test
+    public void testLoadScript() throws IOException {
+        InputRecording script = load("0d*3\n\n1\n0 w*2\n");
+
+        assertEquals(6, script.size());
+        assertEquals("d", script.keysAt(0));
+        assertEquals("d", script.keysAt(2));
+        assertFalse(script.leftPressedAt(2));
+        assertEquals("", script.keysAt(3));
+        assertTrue(script.leftPressedAt(3));
+        assertEquals(" w", script.keysAt(5));
+    }
+
+    @Test
+    public void testRepeatOfZeroAddsNoFrames() throws IOException {
+        assertEquals(1, load("0d*0\n0a\n").size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadMouseState() throws IOException {
+        load("0d\n2d\n");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadRepeatCount() throws IOException {
+        load("0d*x\n");
+    }
+
+    private InputRecording roundTrip(InputRecording recording) throws IOException {
+        Path file = Files.createTempFile("input", ".txt");
+        try {
+            recording.save(file.toString());
+            return InputRecording.load(file.toString());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private List<String> saved(InputRecording recording) throws IOException {
+        Path file = Files.createTempFile("input", ".txt");
+        try {
+            recording.save(file.toString());
+            return Files.readAllLines(file, StandardCharsets.UTF_8);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private InputRecording load(String text) throws IOException {
+        Path file = Files.createTempFile("input", ".txt");
+        try {
+            Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+            return InputRecording.load(file.toString());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package builder.entities;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import builder.ui.AnimationClock;
+import engine.EngineState;
+import engine.renderer.Dimensions;
+
+public class CrowdTest {
+    private static final int AGENTS = Crowd.PARALLEL_THRESHOLD + Crowd.BATCH_SIZE + 123;
+    private static final int TICKS = 200;
+
+    @Test
+    public void testParallelTickMatchesSequentialTick() {
+        Crowd sequential = run(42, false);
+        Crowd parallel = run(42, true);
+
+        assertEquals(sequential.size(), parallel.size());
+        for (int agent = 0; agent < AGENTS; agent++) {
+            assertEquals(sequential.getX(agent), parallel.getX(agent));
+            assertEquals(sequential.getY(agent), parallel.getY(agent));
+            assertEquals(sequential.getDirection(agent), parallel.getDirection(agent));
+        }
+    }
+
+    @Test
+    public void testSameSeedSameMovement() {
+        Crowd first = run(7, true);
+        Crowd second = run(7, true);
+
+        for (int agent = 0; agent < AGENTS; agent++) {
+            assertEquals(first.getX(agent), second.getX(agent));
+            assertEquals(first.getY(agent), second.getY(agent));
+        }
+    }
+
+    @Test
+    public void testDifferentSeedDifferentMovement() {
+        Crowd first = run(7, false);
+        Crowd second = run(8, false);
+
+        int differing = 0;
+        for (int agent = 0; agent < AGENTS; agent++) {
+            if (first.getX(agent) != second.getX(agent)
+                    || first.getY(agent) != second.getY(agent)) {
+                differing++;
+            }
+        }
+        assertTrue(differing > AGENTS / 2);
+    }
+
+    /**
+     * Spawns the same agents into a crowd with the given seed and ticks it.
+     */
+    private Crowd run(long seed, boolean parallel) {
+        AnimationClock animations = new AnimationClock();
+        Crowd crowd = new Crowd(16, seed, animations);
+        crowd.setParallelTick(parallel);
+        for (int agent = 0; agent < AGENTS; agent++) {
+            crowd.spawn((agent % 300) * 25, (agent / 300) * 25);
+        }
+        MockEngineState state = new MockEngineState();
+        for (int i = 0; i < TICKS; i++) {
+            state.tick++;
+            animations.advance();
+            crowd.tick(state, null);
+        }
+        return crowd;
+    }
+
+    private static class MockDimensions implements Dimensions {
+        @Override
+        public int pixelToTile(int pixel) {
+            return pixel / 25;
+        }
+
+        @Override
+        public int tileToPixel(int tile) {
+            return tile * 25;
+        }
+
+        @Override
+        public int tileSize() {
+            return 25;
+        }
+
+        @Override
+        public int windowSize() {
+            return 500;
+        }
+    }
+
+    private static class MockEngineState implements EngineState {
+        private final MockDimensions dimensions = new MockDimensions();
+        private int tick = 0;
+
+        @Override
+        public Dimensions getDimensions() {
+            return dimensions;
+        }
+
+        @Override
+        public int currentTick() {
+            return tick;
+        }
+
+        @Override
+        public engine.input.KeyState getKeys() {
+            return null;
+        }
+
+        @Override
+        public engine.input.MouseState getMouse() {
+            return null;
+        }
+    }
+}
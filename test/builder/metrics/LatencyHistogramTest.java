@@ -0,0 +1,126 @@
+package builder.metrics;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.max());
+        assertEquals(0, histogram.mean(), 0);
+        assertEquals(0, histogram.percentile(50));
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        for (long value = 0; value < 16; value++) {
+            assertEquals(value, LatencyHistogram.upperBound(LatencyHistogram.bucketOf(value)));
+
+            // Recorded below a larger value, so the percentile is the bucket bound, not the max.
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.record(value);
+            histogram.record(1000);
+            assertEquals(value, histogram.percentile(50));
+        }
+    }
+
+    @Test
+    public void testPowersOfTwo() {
+        for (int power = 0; power < 63; power++) {
+            long value = 1L << power;
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(bucket > LatencyHistogram.bucketOf(value - 1) || value == 1);
+            assertEquals(bucket, LatencyHistogram.bucketOf(value + (value >> 5)));
+            assertWithinBound(value);
+            assertWithinBound(value - 1);
+            assertWithinBound(value + 1);
+        }
+    }
+
+    @Test
+    public void testBucketsAreContiguous() {
+        // Every bucket's upper bound is followed directly by the next bucket's first value.
+        int last = LatencyHistogram.bucketOf(Long.MAX_VALUE);
+        for (int bucket = 0; bucket < last; bucket++) {
+            long upper = LatencyHistogram.upperBound(bucket);
+            assertEquals(bucket, LatencyHistogram.bucketOf(upper));
+            assertEquals(bucket + 1, LatencyHistogram.bucketOf(upper + 1));
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBound(last));
+    }
+
+    @Test
+    public void testLongMaxValue() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(1, histogram.count());
+        assertEquals(Long.MAX_VALUE, histogram.max());
+        assertEquals(Long.MAX_VALUE, histogram.percentile(50));
+        assertEquals(Long.MAX_VALUE, histogram.percentile(100));
+        assertEquals(Long.MAX_VALUE, histogram.mean(), 0);
+    }
+
+    @Test
+    public void testNegativeValuesRecordedAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MIN_VALUE);
+
+        assertEquals(2, histogram.count());
+        assertEquals(0, histogram.max());
+        assertEquals(0, histogram.mean(), 0);
+        assertEquals(0, histogram.percentile(100));
+    }
+
+    @Test
+    public void testPercentilesWithinErrorBound() {
+        SplittableRandom random = new SplittableRandom(3);
+        List<Long> values = new ArrayList<>();
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 10_000; i++) {
+            // Spread over many magnitudes, from nanoseconds to seconds.
+            long value = random.nextLong(1L << random.nextInt(1, 34));
+            values.add(value);
+            histogram.record(value);
+        }
+        values.sort(null);
+
+        for (double percentile : new double[] {1, 10, 50, 90, 99, 99.9, 100}) {
+            int rank = (int) Math.max(1, Math.ceil(percentile / 100 * values.size()));
+            long exact = values.get(rank - 1);
+            long reported = histogram.percentile(percentile);
+            assertTrue(percentile + ": " + reported + " < " + exact, reported >= exact);
+            assertTrue(percentile + ": " + reported + " > " + exact + " + 6.25%",
+                    reported <= exact + exact / 16);
+        }
+        assertEquals(values.get(values.size() - 1).longValue(), histogram.max());
+    }
+
+    @Test
+    public void testReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(100);
+        histogram.reset();
+
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.max());
+        assertEquals(0, histogram.percentile(100));
+    }
+
+    /**
+     * Asserts that a value is reported as no less than itself and no more than 1/16 above it.
+     */
+    private static void assertWithinBound(long value) {
+        long upper = LatencyHistogram.upperBound(LatencyHistogram.bucketOf(value));
+        assertTrue(value + " reported as " + upper, upper >= value);
+        assertTrue(value + " reported as " + upper, upper - value <= value / 16);
+    }
+}
@@ -0,0 +1,164 @@
+package builder.pathfinding;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import builder.HeadlessRunner;
+import builder.entities.resources.Cabbage;
+import builder.entities.tiles.Dirt;
+import builder.entities.tiles.Grass;
+import builder.entities.tiles.OreVein;
+import builder.entities.tiles.Tile;
+import builder.entities.tiles.Water;
+import builder.world.BeanWorld;
+import engine.game.Direction;
+import engine.renderer.Dimensions;
+
+import java.util.SplittableRandom;
+
+public class FlowFieldsTest {
+    private static final int TILE = 25;
+
+    private Dimensions dimensions;
+    private HeadlessRunner.HeadlessState state;
+    private BeanWorld world;
+
+    @Before
+    public void setUp() {
+        dimensions = new HeadlessRunner.HeadlessDimensions(TILE, 500);
+        state = new HeadlessRunner.HeadlessState(dimensions);
+        state.next("", false);
+        // A 5x3 field of grass:
+        //   . . W . .
+        //   . . W . O
+        //   . . . . .
+        world = new BeanWorld();
+        for (int y = 0; y < 3; y++) {
+            for (int x = 0; x < 5; x++) {
+                Tile tile;
+                if (x == 2 && y < 2) {
+                    tile = new Water(x * TILE, y * TILE);
+                } else if (x == 4 && y == 1) {
+                    tile = new OreVein(x * TILE, y * TILE);
+                } else {
+                    tile = new Grass(x * TILE, y * TILE);
+                }
+                world.place(tile);
+            }
+        }
+    }
+
+    @Test
+    public void testDistancesGoAroundWater() {
+        FlowField field = new FlowFields(world, dimensions).toward(Goal.ORE_VEINS);
+
+        assertEquals(0, field.distanceAt(4 * TILE, TILE));
+        assertNull(field.directionAt(4 * TILE, TILE));
+        // From the top left, down and around the water
+        assertEquals(7, field.distanceAt(0, 0));
+        assertEquals(Direction.SOUTH, field.directionAt(TILE, 0));
+        // Water and cells outside the map cannot reach the goal
+        assertEquals(-1, field.distanceAt(2 * TILE, 0));
+        assertEquals(-1, field.distanceAt(10 * TILE, 0));
+    }
+
+    @Test
+    public void testFieldFollowsReplacedTiles() {
+        FlowFields service = new FlowFields(world, dimensions);
+        FlowField field = service.toward(Goal.ORE_VEINS);
+
+        replace(new Grass(2 * TILE, 0));
+        service.update();
+        assertEquals(5, field.distanceAt(0, 0));
+        assertEquals(Direction.EAST, field.directionAt(TILE, 0));
+
+        replace(new Water(3 * TILE, 0));
+        replace(new Water(3 * TILE, 2 * TILE));
+        service.update();
+        assertEquals(-1, field.distanceAt(0, 0));
+    }
+
+    @Test
+    public void testUpdatedFieldMatchesRecomputedField() {
+        FlowFields service = new FlowFields(world, dimensions);
+        FlowField field = service.toward(Goal.ORE_VEINS);
+        SplittableRandom random = new SplittableRandom(11);
+
+        for (int round = 0; round < 200; round++) {
+            int changes = 1 + random.nextInt(3);
+            for (int i = 0; i < changes; i++) {
+                int x = random.nextInt(5) * TILE;
+                int y = random.nextInt(3) * TILE;
+                switch (random.nextInt(4)) {
+                    case 0 -> replace(new Water(x, y));
+                    case 1 -> replace(new OreVein(x, y));
+                    default -> replace(new Grass(x, y));
+                }
+            }
+            service.update();
+            assertMatches(new FlowFields(world, dimensions).toward(Goal.ORE_VEINS), field);
+        }
+    }
+
+    @Test
+    public void testFieldFindsCabbageOnceGrown() {
+        Dirt dirt = new Dirt(0, 2 * TILE);
+        replace(dirt);
+        dirt.till();
+        Cabbage cabbage = new Cabbage(dirt.getX(), dirt.getY());
+        dirt.placeOn(cabbage);
+        world.tick(state, null);
+
+        FlowFields service = new FlowFields(world, dimensions);
+        FlowField field = service.toward(Goal.COLLECTABLE_CABBAGES);
+        assertEquals(-1, field.distanceAt(0, 2 * TILE));
+
+        for (int ticks = 0; cabbage.getGrowthStage() < cabbage.stageCount() - 1; ticks++) {
+            assertTrue("cabbage never grew", ticks < 100_000);
+            world.tick(state, null);
+        }
+        service.update();
+        assertEquals(0, field.distanceAt(0, 2 * TILE));
+        assertEquals(4, field.distanceAt(4 * TILE, 2 * TILE));
+        assertEquals(Direction.WEST, field.directionAt(4 * TILE, 2 * TILE));
+    }
+
+    /**
+     * Checks that an updated field has the same distances as a recomputed one, and that each of
+     * its directions leads one step closer to a goal. Directions may differ between the two where
+     * two neighbours are equally close.
+     */
+    private void assertMatches(FlowField expected, FlowField actual) {
+        for (int y = 0; y < 3 * TILE; y += TILE) {
+            for (int x = 0; x < 5 * TILE; x += TILE) {
+                int distance = expected.distanceAt(x, y);
+                assertEquals(distance, actual.distanceAt(x, y));
+                Direction direction = actual.directionAt(x, y);
+                if (distance > 0) {
+                    int nextX = x + switch (direction) {
+                        case EAST -> TILE;
+                        case WEST -> -TILE;
+                        default -> 0;
+                    };
+                    int nextY = y + switch (direction) {
+                        case SOUTH -> TILE;
+                        case NORTH -> -TILE;
+                        default -> 0;
+                    };
+                    assertEquals(distance - 1, actual.distanceAt(nextX, nextY));
+                } else {
+                    assertNull(direction);
+                }
+            }
+        }
+    }
+
+    private void replace(Tile tile) {
+        for (Tile old : world.tilesAtPosition(tile.getX(), tile.getY(), dimensions)) {
+            old.markForRemoval();
+        }
+        world.place(tile);
+        world.tick(state, null);
+    }
+}
@@ -0,0 +1,137 @@
+package builder.player;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import builder.inventory.items.Item;
+import builder.ui.AnimationClock;
+import builder.ui.SpriteGallery;
+import engine.EngineState;
+import engine.art.sprites.Sprite;
+import engine.game.Direction;
+import engine.renderer.Dimensions;
+import engine.timing.Animation;
+import engine.timing.AnimationDuration;
+
+import java.util.Optional;
+
+public class ChickenFarmerTest {
+    private AnimationClock animations;
+    private ChickenFarmer farmer;
+    private CountingAnimation animation;
+    private Item item;
+    private MockEngineState state;
+
+    @Before
+    public void setUp() {
+        animations = new AnimationClock();
+        farmer = new ChickenFarmer(0, 0, animations);
+        animation = new CountingAnimation();
+        item = () -> Optional.of(animation);
+        state = new MockEngineState();
+    }
+
+    @Test
+    public void testUseAnimationAdvancesWhileUsed() {
+        for (int i = 1; i <= 5; i++) {
+            farmer.use(item);
+            tick();
+            assertEquals(i, animation.ticks);
+        }
+    }
+
+    @Test
+    public void testDropsBackOnFirstTickWithoutUse() {
+        farmer.use(item);
+        tick();
+        assertEquals(1, animation.ticks);
+
+        // Back to the default sprite, so the animation is no longer ticked.
+        tick();
+        tick();
+        assertEquals(1, animation.ticks);
+
+        farmer.use(item);
+        tick();
+        assertEquals(2, animation.ticks);
+    }
+
+    @Test
+    public void testMovingStopsUseAnimation() {
+        farmer.use(item);
+        tick();
+        farmer.use(item);
+        farmer.move(Direction.EAST, 1);
+        tick();
+        assertEquals(1, animation.ticks);
+    }
+
+    private void tick() {
+        state.tick++;
+        animations.advance();
+        farmer.tick(state);
+    }
+
+    private static class CountingAnimation extends Animation {
+        private int ticks = 0;
+
+        CountingAnimation() {
+            super(AnimationDuration.FAST,
+                    new Sprite[] {SpriteGallery.chickenFarmer.getSprite("down")});
+        }
+
+        @Override
+        public void tick(EngineState state) {
+            super.tick(state);
+            ticks++;
+        }
+    }
+
+    private static class MockDimensions implements Dimensions {
+        @Override
+        public int pixelToTile(int pixel) {
+            return pixel / 25;
+        }
+
+        @Override
+        public int tileToPixel(int tile) {
+            return tile * 25;
+        }
+
+        @Override
+        public int tileSize() {
+            return 25;
+        }
+
+        @Override
+        public int windowSize() {
+            return 500;
+        }
+    }
+
+    private static class MockEngineState implements EngineState {
+        private final MockDimensions dimensions = new MockDimensions();
+        private int tick = 0;
+
+        @Override
+        public Dimensions getDimensions() {
+            return dimensions;
+        }
+
+        @Override
+        public int currentTick() {
+            return tick;
+        }
+
+        @Override
+        public engine.input.KeyState getKeys() {
+            return null;
+        }
+
+        @Override
+        public engine.input.MouseState getMouse() {
+            return null;
+        }
+    }
+}
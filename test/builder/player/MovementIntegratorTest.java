@@ -0,0 +1,189 @@
+package builder.player;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import builder.entities.tiles.Water;
+import builder.world.BeanWorld;
+import engine.renderer.Dimensions;
+
+public class MovementIntegratorTest {
+    private static final int SIZE = 25;
+
+    private MockDimensions dimensions;
+    private BeanWorld world;
+    private int x;
+    private int y;
+
+    @Before
+    public void setUp() {
+        dimensions = new MockDimensions();
+        world = new BeanWorld();
+        x = 0;
+        y = 0;
+    }
+
+    @Test
+    public void testFastMoveStopsAtWallEast() {
+        wall(4, 0);
+        MovementIntegrator movement = new MovementIntegrator(10 * SIZE);
+
+        step(movement, 1, 0);
+        assertEquals(3 * SIZE, x);
+        // Already flush against the wall, so it cannot move any further.
+        step(movement, 1, 0);
+        assertEquals(3 * SIZE, x);
+    }
+
+    @Test
+    public void testFastMoveStopsAtWallWest() {
+        wall(1, 0);
+        x = 8 * SIZE;
+        MovementIntegrator movement = new MovementIntegrator(3 * SIZE + 7);
+
+        for (int i = 0; i < 5; i++) {
+            step(movement, -1, 0);
+        }
+        assertEquals(2 * SIZE, x);
+    }
+
+    @Test
+    public void testFastMoveStopsAtWallSouth() {
+        wall(0, 2);
+        MovementIntegrator movement = new MovementIntegrator(4 * SIZE);
+
+        step(movement, 0, 1);
+        assertEquals(SIZE, y);
+    }
+
+    @Test
+    public void testFastMoveStopsAtThinWallOffGrid() {
+        // Starting between cells, at a speed not a multiple of the tile size.
+        wall(5, 0);
+        x = 13;
+        MovementIntegrator movement = new MovementIntegrator(2 * SIZE + 11);
+
+        for (int i = 0; i < 3; i++) {
+            step(movement, 1, 0);
+        }
+        assertEquals(4 * SIZE, x);
+    }
+
+    @Test
+    public void testFastMoveWithoutWallCoversFullDistance() {
+        wall(20, 0);
+        MovementIntegrator movement = new MovementIntegrator(4 * SIZE);
+
+        step(movement, 1, 0);
+        assertEquals(4 * SIZE, x);
+    }
+
+    @Test
+    public void testDiagonalSlidesAlongWall() {
+        // A wall along the row below the box.
+        for (int column = 0; column < 10; column++) {
+            wall(column, 1);
+        }
+        MovementIntegrator movement = new MovementIntegrator(10);
+
+        for (int i = 0; i < 10; i++) {
+            step(movement, 1, 1);
+            assertEquals(0, y);
+            assertEquals(0, movement.movedY());
+        }
+        // Ten ticks of the diagonal step, 10 * sqrt(1/2) = 7.07 pixels each.
+        assertEquals(70, x);
+    }
+
+    @Test
+    public void testDiagonalSlidesAlongWallAfterHittingIt() {
+        // A wall along the column to the left of the box, which walks north-west into it.
+        for (int row = 0; row < 10; row++) {
+            wall(0, row);
+        }
+        x = SIZE + 3;
+        y = 8 * SIZE;
+        MovementIntegrator movement = new MovementIntegrator(5);
+
+        for (int i = 0; i < 20; i++) {
+            step(movement, -1, -1);
+        }
+        assertEquals(SIZE, x);
+        assertTrue(y < 8 * SIZE - 60);
+    }
+
+    @Test
+    public void testFractionalSpeedAddsUpExactly() {
+        double[] speeds = {0.1, 0.25, 0.3, 0.7, 1.1, 2.3};
+        for (double speed : speeds) {
+            x = 0;
+            MovementIntegrator movement = new MovementIntegrator(speed);
+            for (int i = 0; i < 1000; i++) {
+                movement.integrate(x, y, SIZE, SIZE, 1, 0, null, dimensions);
+                x += movement.movedX();
+            }
+            assertEquals("speed " + speed, Math.round(speed * 1000), x);
+        }
+    }
+
+    @Test
+    public void testFractionalSpeedAddsUpExactlyWest() {
+        x = 1000;
+        MovementIntegrator movement = new MovementIntegrator(0.1);
+        for (int i = 0; i < 100; i++) {
+            movement.integrate(x, y, SIZE, SIZE, -1, 0, null, dimensions);
+            x += movement.movedX();
+        }
+        assertEquals(990, x);
+    }
+
+    @Test
+    public void testStoppingDropsFraction() {
+        MovementIntegrator movement = new MovementIntegrator(0.5);
+        movement.integrate(x, y, SIZE, SIZE, 1, 0, null, dimensions);
+        assertEquals(0, movement.movedX());
+        movement.integrate(x, y, SIZE, SIZE, 0, 0, null, dimensions);
+        movement.integrate(x, y, SIZE, SIZE, 1, 0, null, dimensions);
+        assertEquals(0, movement.movedX());
+        movement.integrate(x, y, SIZE, SIZE, 1, 0, null, dimensions);
+        assertEquals(1, movement.movedX());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeSpeed() {
+        new MovementIntegrator(-1);
+    }
+
+    private void wall(int column, int row) {
+        world.place(new Water(column * SIZE, row * SIZE));
+    }
+
+    private void step(MovementIntegrator movement, int directionX, int directionY) {
+        movement.integrate(x, y, SIZE, SIZE, directionX, directionY, world, dimensions);
+        x += movement.movedX();
+        y += movement.movedY();
+    }
+
+    private static class MockDimensions implements Dimensions {
+        @Override
+        public int pixelToTile(int pixel) {
+            return Math.floorDiv(pixel, SIZE);
+        }
+
+        @Override
+        public int tileToPixel(int tile) {
+            return tile * SIZE;
+        }
+
+        @Override
+        public int tileSize() {
+            return SIZE;
+        }
+
+        @Override
+        public int windowSize() {
+            return 20 * SIZE;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package builder.player;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+public class PlayerIndexTest {
+    private PlayerIndex index;
+
+    @Before
+    public void setUp() {
+        index = new PlayerIndex();
+    }
+
+    @Test
+    public void testPlayersInOneCellChainInOrder() {
+        index.clear(4);
+        for (int player = 0; player < 4; player++) {
+            index.add(player, 3, 7);
+        }
+
+        assertTrue(index.isFirstInCell(0));
+        for (int player = 1; player < 4; player++) {
+            assertFalse(index.isFirstInCell(player));
+        }
+        assertEquals(List.of(0, 1, 2, 3), chain(0));
+    }
+
+    @Test
+    public void testSeparateCells() {
+        index.clear(3);
+        index.add(0, 0, 0);
+        index.add(1, 1, 0);
+        index.add(2, 0, 1);
+
+        for (int player = 0; player < 3; player++) {
+            assertTrue(index.isFirstInCell(player));
+            assertEquals(-1, index.nextInCell(player));
+        }
+    }
+
+    @Test
+    public void testCollidingCellsKeepSeparateChains() {
+        // In the initial 16-slot table, (2, 1) and (3, 3) hash to the same slot, as do (1, 1)
+        // and (2, 3), so the later cell of each pair is probed into the next free slot.
+        index.clear(7);
+        index.add(0, 2, 1);
+        index.add(1, 3, 3);
+        index.add(2, 2, 1);
+        index.add(3, 3, 3);
+        index.add(4, 1, 1);
+        index.add(5, 2, 3);
+        index.add(6, 1, 1);
+
+        assertEquals(List.of(0, 2), chain(0));
+        assertEquals(List.of(1, 3), chain(1));
+        assertEquals(List.of(4, 6), chain(4));
+        assertEquals(List.of(5), chain(5));
+        assertFalse(index.isFirstInCell(2));
+        assertFalse(index.isFirstInCell(3));
+        assertFalse(index.isFirstInCell(6));
+    }
+
+    @Test
+    public void testNegativeAndFarCells() {
+        index.clear(4);
+        index.add(0, -1, -1);
+        index.add(1, Integer.MAX_VALUE, Integer.MIN_VALUE);
+        index.add(2, -1, -1);
+        index.add(3, 1, 1);
+
+        assertEquals(List.of(0, 2), chain(0));
+        assertEquals(List.of(1), chain(1));
+        assertEquals(List.of(3), chain(3));
+    }
+
+    @Test
+    public void testClearForgetsPreviousTick() {
+        index.clear(2);
+        index.add(0, 5, 5);
+        index.add(1, 5, 5);
+
+        index.clear(2);
+        index.add(0, 5, 5);
+        index.add(1, 6, 5);
+        assertTrue(index.isFirstInCell(1));
+        assertEquals(-1, index.nextInCell(0));
+    }
+
+    @Test
+    public void testGrowsAndShrinksWithPlayerCount() {
+        SplittableRandom random = new SplittableRandom(5);
+        for (int players : new int[] {3, 8, 9, 1000, 5, 4096, 2}) {
+            // Few enough cells that many players share one, and many cells share a home slot.
+            int cells = Math.max(1, players / 3);
+            int[][] positions = new int[players][];
+            for (int player = 0; player < players; player++) {
+                positions[player] = new int[] {random.nextInt(cells), random.nextInt(3)};
+            }
+            assertMatchesReference(positions);
+        }
+    }
+
+    /**
+     * Indexes the players at the given cells, and checks every chain against a grouping of the
+     * players by cell in player order.
+     */
+    private void assertMatchesReference(int[][] positions) {
+        index.clear(positions.length);
+        Map<Long, List<Integer>> expected = new LinkedHashMap<>();
+        for (int player = 0; player < positions.length; player++) {
+            index.add(player, positions[player][0], positions[player][1]);
+            long cell = ((long) positions[player][0] << 32) | positions[player][1];
+            expected.computeIfAbsent(cell, key -> new ArrayList<>()).add(player);
+        }
+
+        int heads = 0;
+        for (int player = 0; player < positions.length; player++) {
+            if (index.isFirstInCell(player)) {
+                heads++;
+            }
+        }
+        assertEquals(expected.size(), heads);
+        for (List<Integer> players : expected.values()) {
+            assertTrue(index.isFirstInCell(players.get(0)));
+            assertEquals(players, chain(players.get(0)));
+        }
+    }
+
+    private List<Integer> chain(int first) {
+        List<Integer> chain = new ArrayList<>();
+        for (int player = first; player != -1; player = index.nextInCell(player)) {
+            chain.add(player);
+        }
+        return chain;
+    }
+}
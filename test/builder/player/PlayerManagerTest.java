@@ -0,0 +1,175 @@
+package builder.player;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import builder.GameState;
+import builder.HeadlessRunner;
+import builder.InputRecording;
+import builder.JavaBeanGameState;
+import builder.entities.tiles.Grass;
+import builder.inventory.Inventory;
+import builder.inventory.TinyInventory;
+import builder.ui.AnimationClock;
+import builder.world.BeanWorld;
+import engine.EngineState;
+import engine.renderer.Renderable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PlayerManagerTest {
+    private static final InputSource CLICKING = new InputSource() {
+        @Override
+        public boolean isDown(EngineState state, char key) {
+            return false;
+        }
+
+        @Override
+        public boolean isLeftPressed(EngineState state) {
+            return true;
+        }
+    };
+
+    private HeadlessRunner.HeadlessState state;
+    private BeanWorld world;
+    private Inventory inventory;
+    private PlayerManager manager;
+    private List<String> actions;
+
+    @Before
+    public void setUp() {
+        state = new HeadlessRunner.HeadlessState(new HeadlessRunner.HeadlessDimensions(25, 500));
+        world = new BeanWorld();
+        inventory = new TinyInventory(3);
+        manager = new PlayerManager(0, 0, new AnimationClock());
+        actions = new ArrayList<>();
+    }
+
+    @Test
+    public void testPlayersSharingCellEachActOnceInOrder() {
+        Inventory second = new TinyInventory(3);
+        Inventory elsewhere = new TinyInventory(3);
+        Inventory fourth = new TinyInventory(3);
+        Player screen = manager.getPlayer();
+        Player secondPlayer = manager.addPlayer(0, 0, second, CLICKING);
+        Player elsewherePlayer = manager.addPlayer(100, 0, elsewhere, CLICKING);
+        Player fourthPlayer = manager.addPlayer(0, 0, fourth, CLICKING);
+
+        // Players act on the cell below their position.
+        world.place(new RecordingTile(0, 25, "shared"));
+        world.place(new RecordingTile(100, 25, "other"));
+        tick(true);
+
+        List<String> expected = List.of(
+                "shared interact " + describe(screen, inventory),
+                "shared use " + describe(screen, inventory),
+                "shared interact " + describe(secondPlayer, second),
+                "shared use " + describe(secondPlayer, second),
+                "other interact " + describe(elsewherePlayer, elsewhere),
+                "other use " + describe(elsewherePlayer, elsewhere),
+                "shared interact " + describe(fourthPlayer, fourth),
+                "shared use " + describe(fourthPlayer, fourth));
+        assertEquals(expected.size(), actions.size());
+        assertEquals(filter(expected, "shared"), filter(actions, "shared"));
+        assertEquals(filter(expected, "other"), filter(actions, "other"));
+    }
+
+    @Test
+    public void testNotUsingOnlyInteracts() {
+        world.place(new RecordingTile(0, 25, "shared"));
+        tick(false);
+
+        assertEquals(List.of("shared interact " + describe(manager.getPlayer(), inventory)),
+                actions);
+    }
+
+    @Test
+    public void testRenderListIsReused() {
+        List<Renderable> first = manager.render();
+        assertSame(first, manager.render());
+        assertEquals(1, first.size());
+
+        Player added = manager.addPlayer(50, 50, new TinyInventory(3), CLICKING);
+        List<Renderable> second = manager.render();
+        assertEquals(2, second.size());
+        assertSame(added, second.get(1));
+        assertSame(second, manager.render());
+
+        manager.removePlayer(added);
+        assertEquals(1, manager.render().size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testRenderListIsUnmodifiable() {
+        manager.render().clear();
+    }
+
+    @Test
+    public void testReplayingAdvancesOneFramePerTick() {
+        InputRecording recording = new InputRecording();
+        recording.add("d", false);
+        recording.add("", false);
+        recording.add("d", false);
+        Player replaying = manager.addPlayer(0, 0, new TinyInventory(3),
+                InputSource.replaying(recording, 0));
+
+        // Every manager tick runs in the same engine tick, as steps of one engine frame do.
+        state.next("", false);
+        int[] moved = new int[4];
+        for (int i = 0; i < moved.length; i++) {
+            int x = replaying.getX();
+            manager.tick(state, new JavaBeanGameState(world, manager.getPlayer(), inventory));
+            moved[i] = replaying.getX() - x;
+        }
+        assertTrue(moved[0] > 0);
+        assertEquals(0, moved[1]);
+        assertTrue(moved[2] > 0);
+        // Back to the start of the recording.
+        assertTrue(moved[3] > 0);
+    }
+
+    private void tick(boolean using) {
+        state.next("", using);
+        GameState game = new JavaBeanGameState(world, manager.getPlayer(), inventory);
+        manager.tick(state, game);
+    }
+
+    private static String describe(Player player, Inventory inventory) {
+        return System.identityHashCode(player) + "/" + System.identityHashCode(inventory);
+    }
+
+    private static List<String> filter(List<String> actions, String tile) {
+        List<String> kept = new ArrayList<>();
+        for (String action : actions) {
+            if (action.startsWith(tile + " ")) {
+                kept.add(action);
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * A tile recording who interacted with or used it, and with which inventory.
+     */
+    private class RecordingTile extends Grass {
+        private final String name;
+
+        RecordingTile(int x, int y, String name) {
+            super(x, y);
+            this.name = name;
+        }
+
+        @Override
+        public void interact(EngineState state, GameState game) {
+            actions.add(name + " interact " + describe(game.getPlayer(), game.getInventory()));
+            super.interact(state, game);
+        }
+
+        @Override
+        public void use(EngineState state, GameState game) {
+            actions.add(name + " use " + describe(game.getPlayer(), game.getInventory()));
+        }
+    }
+}
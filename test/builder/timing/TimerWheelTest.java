@@ -0,0 +1,102 @@
+package builder.timing;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TimerWheelTest {
+    private TimerWheel wheel;
+    private List<Long> fired;
+
+    @Before
+    public void setUp() {
+        wheel = new TimerWheel();
+        fired = new ArrayList<>();
+    }
+
+    private void scheduleRecording(long delay) {
+        wheel.schedule(delay, () -> fired.add(wheel.now()));
+    }
+
+    private void advance(long ticks) {
+        for (long i = 0; i < ticks; i++) {
+            wheel.advance();
+        }
+    }
+
+    @Test
+    public void testTaskRunsExactlyWhenDue() {
+        scheduleRecording(3);
+
+        advance(2);
+        assertTrue(fired.isEmpty());
+
+        advance(1);
+        assertEquals(List.of(3L), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testTasksAcrossLevelsRunOnTheirDeadline() {
+        long[] delays = {1, 63, 64, 65, 100, 4095, 4096, 4097, 300000};
+        for (long delay : delays) {
+            scheduleRecording(delay);
+        }
+        assertEquals(delays.length, wheel.size());
+
+        advance(300000);
+
+        assertEquals(delays.length, fired.size());
+        for (int i = 0; i < delays.length; i++) {
+            assertEquals(delays[i], (long) fired.get(i));
+        }
+    }
+
+    @Test
+    public void testTasksDueTogetherRunInSchedulingOrder() {
+        List<String> order = new ArrayList<>();
+        wheel.schedule(70, () -> order.add("first"));
+        wheel.schedule(70, () -> order.add("second"));
+
+        advance(70);
+
+        assertEquals(List.of("first", "second"), order);
+    }
+
+    @Test
+    public void testCancelledTaskDoesNotRun() {
+        TimerWheel.Timeout timeout = wheel.schedule(5, () -> fired.add(wheel.now()));
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.isPending());
+        assertFalse(timeout.cancel());
+
+        advance(10);
+        assertTrue(fired.isEmpty());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testTaskCanRescheduleItself() {
+        Runnable[] task = new Runnable[1];
+        task[0] = () -> {
+            fired.add(wheel.now());
+            if (fired.size() < 3) {
+                wheel.schedule(64, task[0]);
+            }
+        };
+        wheel.schedule(64, task[0]);
+
+        advance(500);
+
+        assertEquals(List.of(64L, 128L, 192L), fired);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroDelayRejected() {
+        wheel.schedule(0, () -> { });
+    }
+}
@@ -0,0 +1,79 @@
+package builder.ui;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import builder.HeadlessRunner;
+import engine.EngineState;
+import engine.art.sprites.Sprite;
+import engine.timing.Animation;
+import engine.timing.AnimationDuration;
+
+public class AnimationClockTest {
+    private AnimationClock clock;
+    private CountingAnimation animation;
+    private EngineState state;
+
+    @Before
+    public void setUp() {
+        clock = new AnimationClock();
+        animation = new CountingAnimation();
+        clock.shared("test.walk", () -> animation);
+        state = new HeadlessRunner.HeadlessState(new HeadlessRunner.HeadlessDimensions(25, 500));
+    }
+
+    @Test
+    public void testSameNameSameAnimation() {
+        assertSame(animation, clock.shared("test.walk", CountingAnimation::new));
+        assertNotSame(animation, clock.shared("test.run", CountingAnimation::new));
+    }
+
+    @Test
+    public void testClocksDoNotShareAnimations() {
+        AnimationClock other = new AnimationClock();
+        assertNotSame(animation, other.shared("test.walk", CountingAnimation::new));
+    }
+
+    @Test
+    public void testTickedAtMostOncePerStep() {
+        for (int step = 1; step <= 3; step++) {
+            clock.advance();
+            clock.tickShown(animation, state);
+            clock.tickShown(animation, state);
+            assertEquals(step, animation.ticks);
+        }
+        assertEquals(3, clock.step());
+    }
+
+    @Test
+    public void testNotTickedWhileNotShown() {
+        for (int step = 0; step < 5; step++) {
+            clock.advance();
+        }
+        assertEquals(0, animation.ticks);
+
+        clock.tickShown(animation, state);
+        assertEquals(1, animation.ticks);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTickingUnknownAnimation() {
+        clock.tickShown(new CountingAnimation(), state);
+    }
+
+    private static class CountingAnimation extends Animation {
+        private int ticks = 0;
+
+        CountingAnimation() {
+            super(AnimationDuration.FAST,
+                    new Sprite[] {SpriteGallery.chickenFarmer.getSprite("down")});
+        }
+
+        @Override
+        public void tick(EngineState state) {
+            super.tick(state);
+            ticks++;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package builder.ui;
+
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import builder.entities.tiles.Grass;
+import builder.entities.tiles.Water;
+import engine.renderer.Renderable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class VisualChangesTest {
+
+    @After
+    public void tearDown() {
+        VisualChanges.setTracking(false);
+    }
+
+    @Test
+    public void testNothingRecordedUntilTracking() {
+        VisualChanges.setTracking(false);
+        VisualChanges.changed(new Grass(0, 0));
+
+        List<Renderable> out = new ArrayList<>();
+        assertEquals(0, VisualChanges.drainTo(out));
+        assertTrue(out.isEmpty());
+    }
+
+    @Test
+    public void testDrainEmptiesRecord() {
+        VisualChanges.setTracking(true);
+        Grass grass = new Grass(0, 0);
+        VisualChanges.changed(grass);
+        VisualChanges.changed(grass);
+        VisualChanges.changed(new Water(25, 0));
+
+        List<Renderable> out = new ArrayList<>();
+        assertEquals(2, VisualChanges.drainTo(out));
+        assertTrue(out.contains(grass));
+        assertEquals(0, VisualChanges.drainTo(new ArrayList<>()));
+    }
+
+    @Test
+    public void testDisablingDiscardsRecord() {
+        VisualChanges.setTracking(true);
+        VisualChanges.changed(new Grass(0, 0));
+        VisualChanges.setTracking(false);
+        VisualChanges.setTracking(true);
+
+        assertEquals(0, VisualChanges.drainTo(new ArrayList<>()));
+    }
+}
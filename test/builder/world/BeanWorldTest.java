@@ -81,6 +81,30 @@ public class BeanWorldTest {
         assertEquals(1, world.allTiles().size());
     }
 
+    @Test
+    public void testSnapshotSharedUntilWorldChanges() {
+        Tile dirt = new Dirt(0, 0);
+        world.place(dirt);
+
+        List<Tile> snapshot1 = world.snapshot();
+        assertSame(snapshot1, world.snapshot());
+
+        Tile grass = new Grass(25, 25);
+        world.place(grass);
+
+        // The old snapshot is stable; a new one reflects the change
+        List<Tile> snapshot2 = world.snapshot();
+        assertNotSame(snapshot1, snapshot2);
+        assertEquals(1, snapshot1.size());
+        assertEquals(2, snapshot2.size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSnapshotIsUnmodifiable() {
+        world.place(new Dirt(0, 0));
+        world.snapshot().clear();
+    }
+
     @Test
     public void testTilesAtPositionExactMatch() {
         Tile dirt = new Dirt(0, 0);  // tile position (0,0)
@@ -143,6 +167,22 @@ public class BeanWorldTest {
         assertEquals(grass, tilesAtOther.get(0));
     }
 
+    @Test
+    public void testTilesAtPositionSeesTilesPlacedAfterLookup() {
+        Tile dirt = new Dirt(0, 0);
+        world.place(dirt);
+        assertEquals(1, world.tilesAtPosition(0, 0, dimensions).size());
+
+        // Tiles placed after the first lookup must still be found
+        Tile grass = new Grass(0, 0);
+        world.place(grass);
+
+        List<Tile> tilesFound = world.tilesAtPosition(0, 0, dimensions);
+        assertEquals(2, tilesFound.size());
+        assertEquals(dirt, tilesFound.get(0));
+        assertEquals(grass, tilesFound.get(1));
+    }
+
     @Test
     public void testRenderEmptyWorld() {
         List<Renderable> renderables = world.render();
@@ -164,6 +204,27 @@ public class BeanWorldTest {
         assertTrue(renderables.size() >= 2);
     }
 
+    @Test
+    public void testRenderViewportOnlyIncludesVisibleTiles() {
+        Tile dirt = new Dirt(0, 0);
+        Tile grass = new Grass(25, 0);
+        Tile water = new Water(1000, 1000);
+
+        world.place(dirt);
+        world.place(grass);
+        world.place(water);
+
+        List<Renderable> renderables = world.render(new Viewport(0, 0, 50, 25), dimensions);
+        assertEquals(2, renderables.size());
+        assertTrue(renderables.contains(dirt));
+        assertTrue(renderables.contains(grass));
+
+        // A margin pulls in tiles just outside the visible rectangle
+        renderables = world.render(new Viewport(0, 0, 25, 25, 25), dimensions);
+        assertTrue(renderables.contains(grass));
+        assertFalse(renderables.contains(water));
+    }
+
     @Test
     public void testTickCallsTickOnAllTiles() {
         MockTile mockTile1 = new MockTile(0, 0);
@@ -178,6 +239,61 @@ public class BeanWorldTest {
         assertTrue("Second tile should have been ticked", mockTile2.wasTickCalled());
     }
 
+    @Test
+    public void testTileReplacedDuringTickIsCompacted() {
+        ReplacingTile replacing = new ReplacingTile(0, 0, world);
+        world.place(replacing);
+
+        world.tick(engineState, gameState);
+
+        // The replaced tile is dropped and the replacement appears once the tick ends
+        List<Tile> tilesFound = world.tilesAtPosition(0, 0, dimensions);
+        assertEquals(1, tilesFound.size());
+        assertTrue(tilesFound.get(0) instanceof Dirt);
+        assertEquals(1, world.allTiles().size());
+
+        // Further ticks keep the tile count constant
+        world.tick(engineState, gameState);
+        assertEquals(1, world.allTiles().size());
+    }
+
+    @Test
+    public void testIdleTilesLeaveActiveSet() {
+        world.place(new Grass(0, 0));
+        world.place(new Water(25, 25));
+        assertEquals(2, world.activeTiles());
+
+        // Tiles with nothing stacked on them are only ticked once
+        world.tick(engineState, gameState);
+        assertEquals(0, world.activeTiles());
+    }
+
+    @Test
+    public void testAreaWalkability() {
+        world.place(new Grass(0, 0));
+        world.place(new Water(50, 50));
+        world.place(new Water(-500, 1000));
+
+        assertTrue(world.isAreaWalkable(0, 0, 49, 49, dimensions));
+        assertFalse(world.isAreaWalkable(26, 26, 50, 50, dimensions));
+        assertFalse(world.isAreaWalkable(-500, 1000, -500, 1000, dimensions));
+        // Cells without tiles can be walked through
+        assertTrue(world.isAreaWalkable(1000, 1000, 2000, 2000, dimensions));
+    }
+
+    @Test
+    public void testReplacedWaterBecomesWalkable() {
+        Water water = new Water(50, 50);
+        world.place(water);
+        assertFalse(world.isAreaWalkable(50, 50, 50, 50, dimensions));
+
+        water.markForRemoval();
+        world.place(new Grass(50, 50));
+        world.tick(engineState, gameState);
+
+        assertTrue(world.isAreaWalkable(50, 50, 50, 50, dimensions));
+    }
+
     @Test
     public void testTickWithNoTiles() {
         // Should not throw exception
@@ -185,6 +301,47 @@ public class BeanWorldTest {
     }
 
     // Mock classes for testing
+    @Test
+    public void testParallelTickMatchesSequentialTick() {
+        BeanWorld sequential = mutatingWorld();
+        BeanWorld parallel = mutatingWorld();
+        parallel.setParallelTick(true);
+        assertTrue(parallel.activeTiles() >= BeanWorld.PARALLEL_THRESHOLD);
+
+        for (int tick = 0; tick < 8; tick++) {
+            sequential.tick(engineState, gameState);
+            parallel.tick(engineState, gameState);
+            assertTrue(parallel.activeTiles() >= BeanWorld.PARALLEL_THRESHOLD);
+
+            List<Tile> expected = sequential.allTiles();
+            List<Tile> actual = parallel.allTiles();
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                MutatingTile want = (MutatingTile) expected.get(i);
+                MutatingTile got = (MutatingTile) actual.get(i);
+                assertEquals(want.id, got.id);
+                assertEquals(want.getX(), got.getX());
+                assertEquals(want.getY(), got.getY());
+                assertEquals(want.stackSize(), got.stackSize());
+                assertEquals(want.art, got.art);
+            }
+        }
+    }
+
+    /**
+     * Builds a world of 48x48 tiles that place tiles, stack and remove entities and change their
+     * art as they tick.
+     */
+    private BeanWorld mutatingWorld() {
+        BeanWorld mutating = new BeanWorld();
+        for (int y = 0; y < 48; y++) {
+            for (int x = 0; x < 48; x++) {
+                mutating.place(new MutatingTile(x * 25, y * 25, y * 48 + x, mutating));
+            }
+        }
+        return mutating;
+    }
+
     private static class MockDimensions implements Dimensions {
         @Override
         public int pixelToTile(int pixel) {
@@ -279,4 +436,74 @@ public class BeanWorldTest {
             return true; // Default behavior for testing
         }
     }
-}
\ No newline at end of file
+
+    private static class ReplacingTile extends Tile {
+        private final BeanWorld world;
+
+        public ReplacingTile(int x, int y, BeanWorld world) {
+            super(x, y, builder.ui.SpriteGallery.grass);
+            this.world = world;
+        }
+
+        @Override
+        public void tick(EngineState state) {
+            super.tick(state);
+            if (!isMarkedForRemoval()) {
+                markForRemoval();
+                world.place(new Dirt(getX(), getY()));
+            }
+        }
+    }
+
+    private static class MutatingTile extends Tile {
+        private final int id;
+        private final BeanWorld world;
+        private int ticks = 0;
+        private String art = "grass";
+
+        public MutatingTile(int x, int y, int id, BeanWorld world) {
+            super(x, y, builder.ui.SpriteGallery.grass);
+            this.id = id;
+            this.world = world;
+            placeOn(new Ticker(x, y));
+        }
+
+        @Override
+        public void tick(EngineState state) {
+            super.tick(state);
+            if (isMarkedForRemoval()) {
+                return;
+            }
+            ticks++;
+            switch ((id + ticks) % 4) {
+                case 0:
+                    markForRemoval();
+                    world.place(new MutatingTile(getX(), getY(), id + 10000, world));
+                    break;
+                case 1:
+                    placeOn(new Ticker(getX(), getY()));
+                    break;
+                case 2:
+                    art = art.equals("grass") ? "tilled" : "grass";
+                    setArt(art.equals("grass")
+                            ? builder.ui.SpriteGallery.grass : builder.ui.SpriteGallery.tilled);
+                    break;
+                default:
+                    if (stackSize() > 1) {
+                        getStackedEntities().get(stackSize() - 1).markForRemoval();
+                    }
+                    break;
+            }
+        }
+    }
+
+    private static class Ticker extends engine.game.Entity implements engine.game.HasTick {
+        public Ticker(int x, int y) {
+            super(x, y);
+        }
+
+        @Override
+        public void tick(EngineState state) {
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package builder.world;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import builder.entities.tiles.Dirt;
+import builder.entities.tiles.Grass;
+import builder.entities.tiles.OreVein;
+import builder.entities.tiles.Tile;
+import builder.entities.tiles.TileFactory;
+import builder.entities.tiles.Water;
+import engine.renderer.Dimensions;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class BinaryMapFormatTest {
+    private final Dimensions dimensions = new MockDimensions();
+
+    @Test
+    public void testWriteReadRoundTrip() throws IOException, WorldLoadException {
+        BeanWorld world = new BeanWorld();
+        world.place(new Grass(0, 0));
+        world.place(new Water(25, 0));
+        Dirt tilled = new Dirt(50, 0);
+        tilled.till();
+        world.place(tilled);
+        world.place(new Dirt(0, 25));
+        OreVein vein = new OreVein(25, 25);
+        vein.getOre().setValue(6);
+        world.place(vein);
+        world.place(new Grass(50, 25));
+
+        List<Tile> tiles = read(write(world));
+
+        assertEquals(6, tiles.size());
+        String symbols = "";
+        for (Tile tile : tiles) {
+            symbols += TileFactory.symbolOf(tile);
+        }
+        assertEquals("gwtdog", symbols);
+        assertEquals(50, tiles.get(2).getX());
+        assertEquals(25, tiles.get(4).getY());
+        assertTrue(((Dirt) tiles.get(2)).isTilled());
+        assertEquals(6, ((OreVein) tiles.get(4)).getOre().getValue());
+    }
+
+    @Test
+    public void testEmptyCellsAreSkipped() throws IOException, WorldLoadException {
+        BeanWorld world = new BeanWorld();
+        world.place(new Grass(75, 50));
+
+        List<Tile> tiles = read(write(world));
+        assertEquals(1, tiles.size());
+        assertEquals(75, tiles.get(0).getX());
+        assertEquals(50, tiles.get(0).getY());
+    }
+
+    @Test
+    public void testConvertTextMatchesTextMap() throws IOException, WorldLoadException {
+        Path text = Files.createTempFile("map", ".map");
+        Path binary = Files.createTempFile("map", ".jbmp");
+        try {
+            Files.write(text, "gggdd\ngwwdo\nttggg\n".getBytes(StandardCharsets.US_ASCII));
+            BinaryMapFormat.convertText(text.toString(), binary.toString());
+
+            MapSource source = new TextMapSource(text.toString());
+            List<Tile> tiles = BinaryMapFormat.read(dimensions, Files.newInputStream(binary));
+            assertEquals(source.width() * source.height(), tiles.size());
+            for (Tile tile : tiles) {
+                int x = dimensions.pixelToTile(tile.getX());
+                int y = dimensions.pixelToTile(tile.getY());
+                assertEquals(source.symbolAt(x, y), TileFactory.symbolOf(tile));
+            }
+        } finally {
+            Files.deleteIfExists(text);
+            Files.deleteIfExists(binary);
+        }
+    }
+
+    @Test(expected = WorldLoadException.class)
+    public void testBadMagic() throws IOException, WorldLoadException {
+        read(new byte[] {'J', 'B', 'M', 'X', 2, 1, 1, 'g', 1, 0});
+    }
+
+    @Test(expected = WorldLoadException.class)
+    public void testUnsupportedVersion() throws IOException, WorldLoadException {
+        read(header(9, 1, 1));
+    }
+
+    @Test(expected = WorldLoadException.class)
+    public void testTooManyCells() throws IOException, WorldLoadException {
+        // A few bytes must not be able to make the reader allocate a huge map.
+        read(header(BinaryMapFormat.VERSION, 4097, 4096));
+    }
+
+    @Test(expected = WorldLoadException.class)
+    public void testDimensionsOverflowingAnInt() throws IOException, WorldLoadException {
+        read(header(BinaryMapFormat.VERSION, Integer.MAX_VALUE, 3));
+    }
+
+    @Test(expected = WorldLoadException.class)
+    public void testVarIntBeyondAnInt() throws IOException, WorldLoadException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(BinaryMapFormat.MAGIC);
+        out.writeByte(BinaryMapFormat.VERSION);
+        out.write(new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F});
+        out.writeByte(1);
+        read(bytes.toByteArray());
+    }
+
+    @Test(expected = WorldLoadException.class)
+    public void testRunLongerThanMap() throws IOException, WorldLoadException {
+        read(concat(header(BinaryMapFormat.VERSION, 2, 2), new byte[] {'g', 5, 0}));
+    }
+
+    @Test(expected = WorldLoadException.class)
+    public void testTruncatedRuns() throws IOException, WorldLoadException {
+        read(concat(header(BinaryMapFormat.VERSION, 2, 2), new byte[] {'g', 3}));
+    }
+
+    @Test(expected = WorldLoadException.class)
+    public void testStateOutsideMap() throws IOException, WorldLoadException {
+        read(concat(header(BinaryMapFormat.VERSION, 2, 2), new byte[] {'o', 4, 1, 9, 2, 3}));
+    }
+
+    private byte[] write(World world) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryMapFormat.write(world, dimensions, bytes);
+        return bytes.toByteArray();
+    }
+
+    private List<Tile> read(byte[] bytes) throws IOException, WorldLoadException {
+        return BinaryMapFormat.read(dimensions, new ByteArrayInputStream(bytes));
+    }
+
+    private static byte[] header(int version, int width, int height) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(BinaryMapFormat.MAGIC);
+        out.writeByte(version);
+        writeVarInt(out, width);
+        writeVarInt(out, height);
+        return bytes.toByteArray();
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] both = new byte[first.length + second.length];
+        System.arraycopy(first, 0, both, 0, first.length);
+        System.arraycopy(second, 0, both, first.length, second.length);
+        return both;
+    }
+
+    private static class MockDimensions implements Dimensions {
+        @Override
+        public int pixelToTile(int pixel) {
+            return pixel / 25;
+        }
+
+        @Override
+        public int tileToPixel(int tile) {
+            return tile * 25;
+        }
+
+        @Override
+        public int tileSize() {
+            return 25;
+        }
+
+        @Override
+        public int windowSize() {
+            return 100;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package builder.world;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import builder.entities.tiles.Grass;
+import builder.entities.tiles.Tile;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class CellTableTest {
+    private CellTable table;
+
+    @Before
+    public void setUp() {
+        table = new CellTable();
+    }
+
+    @Test
+    public void testMissingCellHasNoStack() {
+        assertNull(table.get(TileGrid.key(3, 4)));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void testGetOrCreateReturnsSameStack() {
+        long key = TileGrid.key(-2, 7);
+        List<Tile> stack = table.getOrCreate(key);
+        stack.add(new Grass(0, 0));
+
+        assertSame(stack, table.getOrCreate(key));
+        assertSame(stack, table.get(key));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void testRemoveKeepsOtherCellsReachable() {
+        // Enough keys to collide and to grow the table several times.
+        for (int x = 0; x < 200; x++) {
+            table.getOrCreate(TileGrid.key(x, 0)).add(new Grass(x, 0));
+        }
+        for (int x = 0; x < 200; x += 2) {
+            table.remove(TileGrid.key(x, 0));
+        }
+
+        assertEquals(100, table.size());
+        for (int x = 0; x < 200; x++) {
+            List<Tile> stack = table.get(TileGrid.key(x, 0));
+            if (x % 2 == 0) {
+                assertNull(stack);
+            } else {
+                assertEquals(x, stack.get(0).getX());
+            }
+        }
+    }
+
+    @Test
+    public void testMatchesHashMapUnderRandomChanges() {
+        Map<Long, List<Tile>> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            long key = TileGrid.key(random.nextInt(40) - 20, random.nextInt(40) - 20);
+            if (random.nextBoolean()) {
+                List<Tile> stack = table.getOrCreate(key);
+                expected.putIfAbsent(key, stack);
+                assertSame(expected.get(key), stack);
+            } else {
+                table.remove(key);
+                expected.remove(key);
+            }
+            assertEquals(expected.size(), table.size());
+        }
+        for (int x = -20; x < 20; x++) {
+            for (int y = -20; y < 20; y++) {
+                long key = TileGrid.key(x, y);
+                assertSame(expected.get(key), table.get(key));
+            }
+        }
+    }
+
+    @Test
+    public void testClearRemovesEveryCell() {
+        table.getOrCreate(TileGrid.key(1, 1));
+        table.getOrCreate(TileGrid.key(2, 2));
+        table.clear();
+
+        assertEquals(0, table.size());
+        assertNull(table.get(TileGrid.key(1, 1)));
+    }
+}
@@ -0,0 +1,271 @@
+package builder.world;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import builder.GameState;
+import builder.entities.resources.Cabbage;
+import builder.entities.tiles.Dirt;
+import builder.entities.tiles.Grass;
+import builder.entities.tiles.OreVein;
+import builder.entities.tiles.Tile;
+import builder.inventory.Inventory;
+import builder.inventory.TinyInventory;
+import builder.inventory.items.Jackhammer;
+import builder.player.ChickenFarmer;
+import builder.ui.AnimationClock;
+import engine.EngineState;
+import engine.renderer.Dimensions;
+
+import java.util.List;
+
+public class ChunkedWorldTest {
+    private static final String[] MAP = {
+        "ddddoddddggg",
+        "ddddddddgggg",
+        "ddddddddgggg",
+        "ddddddddgggg",
+    };
+
+    private ChunkedWorld world;
+    private MockDimensions dimensions;
+
+    @Before
+    public void setUp() {
+        dimensions = new MockDimensions();
+        world = new ChunkedWorld(dimensions, new StringMapSource(MAP), 4, 2);
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedChunk() {
+        Tile first = tileAt(0, 0);
+        tileAt(4, 0);
+        tileAt(8, 0);
+
+        assertEquals(2, world.loadedChunks());
+        assertEquals(0, world.spilledChunks());
+        // The first chunk was evicted, so it is read from the source again.
+        assertNotSame(first, tileAt(0, 0));
+    }
+
+    @Test
+    public void testUnmodifiedChunkReloadsFromSource() {
+        tileAt(0, 0);
+        evictFirstChunk();
+
+        Tile dirt = tileAt(0, 0);
+        assertTrue(dirt instanceof Dirt);
+        assertFalse(((Dirt) dirt).isTilled());
+        assertEquals(0, world.spilledChunks());
+    }
+
+    @Test
+    public void testTilledDirtSurvivesEviction() {
+        ((Dirt) tileAt(1, 1)).till();
+        evictFirstChunk();
+        assertEquals(1, world.spilledChunks());
+
+        Tile dirt = tileAt(1, 1);
+        assertTrue(dirt instanceof Dirt);
+        assertTrue(((Dirt) dirt).isTilled());
+        assertFalse(((Dirt) tileAt(0, 0)).isTilled());
+    }
+
+    @Test
+    public void testPlantedCabbageSurvivesEviction() {
+        Dirt dirt = (Dirt) tileAt(2, 3);
+        dirt.till();
+        dirt.placeOn(new Cabbage(dirt.getX(), dirt.getY()));
+        evictFirstChunk();
+
+        Tile reloaded = tileAt(2, 3);
+        assertEquals(1, reloaded.stackSize());
+        assertTrue(reloaded.getStackedEntities().get(0) instanceof Cabbage);
+    }
+
+    @Test
+    public void testMinedOreSurvivesEviction() {
+        OreVein vein = (OreVein) tileAt(4, 0);
+        vein.use(new MockEngineState(), new MockGameState(world));
+        assertEquals(8, vein.getOre().getValue());
+
+        tileAt(0, 0);
+        tileAt(8, 0);
+        assertEquals(1, world.spilledChunks());
+
+        OreVein reloaded = (OreVein) tileAt(4, 0);
+        assertNotSame(vein, reloaded);
+        assertEquals(8, reloaded.getOre().getValue());
+    }
+
+    @Test
+    public void testReloadedChunkIsSpilledAgain() {
+        Dirt dirt = (Dirt) tileAt(0, 0);
+        dirt.till();
+        evictFirstChunk();
+
+        Dirt reloaded = (Dirt) tileAt(0, 0);
+        reloaded.placeOn(new Cabbage(reloaded.getX(), reloaded.getY()));
+        evictFirstChunk();
+
+        Tile again = tileAt(0, 0);
+        assertTrue(((Dirt) again).isTilled());
+        assertEquals(1, again.stackSize());
+    }
+
+    @Test
+    public void testPlacedTilesAreNotPinnedInMemory() {
+        for (int chunk = 0; chunk < 10; chunk++) {
+            world.place(new Grass(dimensions.tileToPixel(chunk * 4), dimensions.tileToPixel(8)));
+        }
+        assertEquals(2, world.loadedChunks());
+        assertEquals(8, world.spilledChunks());
+
+        for (int chunk = 0; chunk < 10; chunk++) {
+            List<Tile> tiles = tilesAt(chunk * 4, 8);
+            assertEquals(1, tiles.size());
+            assertTrue(tiles.get(0) instanceof Grass);
+        }
+        assertEquals(2, world.loadedChunks());
+    }
+
+    @Test
+    public void testChunksAroundPlayerStayLoaded() {
+        // The player stands in chunk (0, 0), and only two chunks may be loaded.
+        MockGameState game = new MockGameState(world);
+        Dirt dirt = (Dirt) tileAt(1, 1);
+        dirt.till();
+
+        for (int i = 0; i < 3; i++) {
+            world.tick(new MockEngineState(), game);
+            assertEquals(9, world.loadedChunks());
+            assertEquals(0, world.spilledChunks());
+        }
+        assertSame(dirt, tileAt(1, 1));
+    }
+
+    @Test
+    public void testChunksLeftBehindAreEvicted() {
+        MockGameState game = new MockGameState(world);
+        ((Dirt) tileAt(1, 1)).till();
+        world.tick(new MockEngineState(), game);
+
+        // Five chunks to the east, the block around chunk (0, 0) is no longer pinned.
+        game.getPlayer().setX(dimensions.tileToPixel(20));
+        world.tick(new MockEngineState(), game);
+        assertEquals(9, world.loadedChunks());
+        assertEquals(1, world.spilledChunks());
+        assertTrue(((Dirt) tileAt(1, 1)).isTilled());
+    }
+
+    private void evictFirstChunk() {
+        tileAt(4, 0);
+        tileAt(8, 0);
+    }
+
+    private Tile tileAt(int tileX, int tileY) {
+        List<Tile> tiles = tilesAt(tileX, tileY);
+        return tiles.get(tiles.size() - 1);
+    }
+
+    private List<Tile> tilesAt(int tileX, int tileY) {
+        return world.tilesAtPosition(
+                dimensions.tileToPixel(tileX), dimensions.tileToPixel(tileY), dimensions);
+    }
+
+    private static class StringMapSource implements MapSource {
+        private final String[] rows;
+
+        StringMapSource(String[] rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int width() {
+            return rows[0].length();
+        }
+
+        @Override
+        public int height() {
+            return rows.length;
+        }
+
+        @Override
+        public char symbolAt(int tileX, int tileY) {
+            return rows[tileY].charAt(tileX);
+        }
+    }
+
+    private static class MockDimensions implements Dimensions {
+        @Override
+        public int pixelToTile(int pixel) {
+            return pixel / 25;
+        }
+
+        @Override
+        public int tileToPixel(int tile) {
+            return tile * 25;
+        }
+
+        @Override
+        public int tileSize() {
+            return 25;
+        }
+
+        @Override
+        public int windowSize() {
+            return 800;
+        }
+    }
+
+    private static class MockEngineState implements EngineState {
+        private final MockDimensions dimensions = new MockDimensions();
+
+        @Override
+        public Dimensions getDimensions() {
+            return dimensions;
+        }
+
+        @Override
+        public int currentTick() {
+            return 0;
+        }
+
+        @Override
+        public engine.input.KeyState getKeys() {
+            return null;
+        }
+
+        @Override
+        public engine.input.MouseState getMouse() {
+            return null;
+        }
+    }
+
+    private static class MockGameState implements GameState {
+        private final World world;
+        private final ChickenFarmer player = new ChickenFarmer(0, 0, new AnimationClock());
+        private final Inventory inventory = new TinyInventory(1);
+
+        MockGameState(World world) {
+            this.world = world;
+            inventory.setItem(0, new Jackhammer());
+        }
+
+        @Override
+        public World getWorld() {
+            return world;
+        }
+
+        @Override
+        public ChickenFarmer getPlayer() {
+            return player;
+        }
+
+        @Override
+        public Inventory getInventory() {
+            return inventory;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package builder.world;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import builder.entities.resources.Cabbage;
+import builder.entities.tiles.Dirt;
+import builder.entities.tiles.OreVein;
+import builder.entities.tiles.Tile;
+import builder.entities.tiles.TileType;
+import builder.entities.tiles.Water;
+import engine.EngineState;
+import engine.renderer.Dimensions;
+
+import java.util.List;
+
+public class CompactWorldTest {
+    private static final int SIZE = 32;
+    private static final int MAX_VIEWS = 64;
+
+    private CompactWorld world;
+    private MockDimensions dimensions;
+    private MockEngineState engineState;
+
+    @Before
+    public void setUp() throws WorldLoadException {
+        dimensions = new MockDimensions();
+        engineState = new MockEngineState();
+        world = new CompactWorld(dimensions, new PatternMapSource(), MAX_VIEWS);
+    }
+
+    @Test
+    public void testTypeQueriesDoNotMaterialize() {
+        assertEquals(TileType.DIRT, world.typeAt(0, 0));
+        assertEquals(TileType.ORE_VEIN, world.typeAt(5, 0));
+        assertNull(world.typeAt(SIZE, 0));
+        assertNull(world.firstNonWalkableAt(0, 0, dimensions));
+        assertEquals(0, world.materializedCells());
+    }
+
+    @Test
+    public void testIdleTilesAreNotTicked() {
+        for (int x = 0; x < 8; x++) {
+            tileAt(x, 0);
+        }
+        assertEquals(8, world.materializedCells());
+        assertEquals(0, world.activeTiles());
+    }
+
+    @Test
+    public void testViewsStayBoundedAfterVisitingEveryCell() {
+        for (int y = 0; y < SIZE; y += 4) {
+            for (int x = 0; x < SIZE; x += 4) {
+                world.render(new Viewport(x * 25, y * 25, 100, 100), dimensions);
+                world.tick(engineState, null);
+                assertTrue(world.materializedCells() <= MAX_VIEWS + 16);
+            }
+        }
+        assertTrue(world.materializedCells() <= MAX_VIEWS);
+    }
+
+    @Test
+    public void testTilledDirtSurvivesWriteBack() {
+        Dirt dirt = (Dirt) tileAt(1, 1);
+        dirt.till();
+        evictAll();
+
+        Tile reloaded = tileAt(1, 1);
+        assertNotSame(dirt, reloaded);
+        assertTrue(((Dirt) reloaded).isTilled());
+        assertEquals(TileType.TILLED_DIRT, world.typeAt(1, 1));
+    }
+
+    @Test
+    public void testMinedOreSurvivesWriteBack() {
+        OreVein vein = (OreVein) tileAt(5, 0);
+        vein.getOre().setValue(4);
+        evictAll();
+
+        OreVein reloaded = (OreVein) tileAt(5, 0);
+        assertNotSame(vein, reloaded);
+        assertEquals(4, reloaded.getOre().getValue());
+    }
+
+    @Test
+    public void testDepletedOreStaysDepleted() {
+        OreVein vein = (OreVein) tileAt(5, 0);
+        vein.getOre().setValue(0);
+        vein.getOre().markForRemoval();
+        evictAll();
+
+        Tile reloaded = tileAt(5, 0);
+        world.tick(engineState, null);
+        assertEquals(0, reloaded.stackSize());
+    }
+
+    @Test
+    public void testCellWithCropStaysMaterialized() {
+        Dirt dirt = (Dirt) tileAt(2, 2);
+        dirt.till();
+        dirt.placeOn(new Cabbage(dirt.getX(), dirt.getY()));
+        evictAll();
+
+        assertSame(dirt, tileAt(2, 2));
+    }
+
+    @Test
+    public void testPlacedTileSurvivesWriteBack() {
+        Tile replaced = tileAt(3, 3);
+        replaced.markForRemoval();
+        world.place(new Water(75, 75));
+        assertEquals(1, world.tilesAtPosition(75, 75, dimensions).size());
+        evictAll();
+
+        assertEquals(TileType.WATER, world.typeAt(3, 3));
+        assertNotNull(world.firstNonWalkableAt(75, 75, dimensions));
+    }
+
+    /**
+     * Uses every cell outside the top-left corner, twice, so every unused view in the corner is
+     * written back.
+     */
+    private void evictAll() {
+        for (int round = 0; round < 2; round++) {
+            for (int y = 8; y < SIZE; y++) {
+                for (int x = 0; x < SIZE; x++) {
+                    tileAt(x, y);
+                }
+                world.tick(engineState, null);
+            }
+        }
+    }
+
+    private Tile tileAt(int tileX, int tileY) {
+        List<Tile> tiles = world.tilesAtPosition(tileX * 25, tileY * 25, dimensions);
+        return tiles.get(tiles.size() - 1);
+    }
+
+    /**
+     * Dirt everywhere, with an ore vein every eight cells along the top row.
+     */
+    private static class PatternMapSource implements MapSource {
+        @Override
+        public int width() {
+            return SIZE;
+        }
+
+        @Override
+        public int height() {
+            return SIZE;
+        }
+
+        @Override
+        public char symbolAt(int tileX, int tileY) {
+            return tileY == 0 && tileX % 8 == 5 ? 'o' : 'd';
+        }
+    }
+
+    private static class MockDimensions implements Dimensions {
+        @Override
+        public int pixelToTile(int pixel) {
+            return pixel / 25;
+        }
+
+        @Override
+        public int tileToPixel(int tile) {
+            return tile * 25;
+        }
+
+        @Override
+        public int tileSize() {
+            return 25;
+        }
+
+        @Override
+        public int windowSize() {
+            return 800;
+        }
+    }
+
+    private static class MockEngineState implements EngineState {
+        private final MockDimensions dimensions = new MockDimensions();
+
+        @Override
+        public Dimensions getDimensions() {
+            return dimensions;
+        }
+
+        @Override
+        public int currentTick() {
+            return 0;
+        }
+
+        @Override
+        public engine.input.KeyState getKeys() {
+            return null;
+        }
+
+        @Override
+        public engine.input.MouseState getMouse() {
+            return null;
+        }
+    }
+}
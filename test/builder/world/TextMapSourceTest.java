@@ -0,0 +1,113 @@
+package builder.world;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import engine.renderer.Dimensions;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class TextMapSourceTest {
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("map", ".map");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testReadsRows() throws IOException, WorldLoadException {
+        MapSource source = open("gdo\nwgg\n");
+        assertEquals(3, source.width());
+        assertEquals(2, source.height());
+        checkAllRows(source);
+        assertEquals('o', source.symbolAt(2, 0));
+        assertEquals('w', source.symbolAt(0, 1));
+    }
+
+    @Test
+    public void testLastRowWithoutNewline() throws IOException, WorldLoadException {
+        MapSource source = open("gdo\nwgg");
+        assertEquals(2, source.height());
+        checkAllRows(source);
+    }
+
+    @Test
+    public void testCarriageReturns() throws IOException, WorldLoadException {
+        MapSource source = open("gdo\r\nwgg\r\nddd\r\n");
+        assertEquals(3, source.width());
+        assertEquals(3, source.height());
+        checkAllRows(source);
+        assertEquals('d', source.symbolAt(2, 2));
+    }
+
+    @Test(expected = WorldLoadException.class)
+    public void testShortRowThenLongRow() throws IOException, WorldLoadException {
+        // The right number of bytes in total, but the rows are misaligned.
+        checkAllRows(open("gggg\nggg\nggggg\n"));
+    }
+
+    @Test(expected = WorldLoadException.class)
+    public void testTwoShortRowsFillingOne() throws IOException, WorldLoadException {
+        checkAllRows(open("gggg\ngg\ng\n"));
+    }
+
+    @Test(expected = WorldLoadException.class)
+    public void testShortLastRow() throws IOException, WorldLoadException {
+        checkAllRows(open("gggg\nggg\n"));
+    }
+
+    @Test(expected = WorldLoadException.class)
+    public void testCompactWorldRejectsMisalignedRows() throws IOException, WorldLoadException {
+        new CompactWorld(new MockDimensions(), open("gggg\nggg\nggggg\n"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testChunkedWorldRejectsMisalignedRows() throws IOException, WorldLoadException {
+        ChunkedWorld world = new ChunkedWorld(new MockDimensions(), open("gggg\nggg\nggggg\n"));
+        world.tilesAtPosition(0, 0, new MockDimensions());
+    }
+
+    private MapSource open(String text) throws IOException, WorldLoadException {
+        Files.write(file, text.getBytes(StandardCharsets.US_ASCII));
+        return new TextMapSource(file.toString());
+    }
+
+    private static void checkAllRows(MapSource source) throws WorldLoadException {
+        for (int y = 0; y < source.height(); y++) {
+            source.checkRow(y);
+        }
+    }
+
+    private static class MockDimensions implements Dimensions {
+        @Override
+        public int pixelToTile(int pixel) {
+            return pixel / 25;
+        }
+
+        @Override
+        public int tileToPixel(int tile) {
+            return tile * 25;
+        }
+
+        @Override
+        public int tileSize() {
+            return 25;
+        }
+
+        @Override
+        public int windowSize() {
+            return 100;
+        }
+    }
+}
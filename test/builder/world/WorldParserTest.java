@@ -0,0 +1,160 @@
+package builder.world;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import builder.entities.tiles.Tile;
+import builder.entities.tiles.TileFactory;
+import engine.renderer.Dimensions;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class WorldParserTest {
+    private final Dimensions dimensions = new MockDimensions();
+
+    @Test
+    public void testParsesRowByRow() throws WorldLoadException {
+        List<Tile> tiles = WorldParser.parse(dimensions, "gggg\ngddg\ngwwg\ngggo");
+
+        assertEquals(16, tiles.size());
+        assertEquals(25, tiles.get(5).getX());
+        assertEquals(25, tiles.get(5).getY());
+        assertEquals('d', TileFactory.symbolOf(tiles.get(5)));
+        assertEquals('o', TileFactory.symbolOf(tiles.get(15)));
+    }
+
+    @Test
+    public void testTrailingNewlinesAreIgnored() throws WorldLoadException {
+        assertSameAsBaseline("gggg\ngggg\ngggg\ngggg\n");
+        assertSameAsBaseline("gggg\ngggg\ngggg\ngggg\n\n\n");
+        assertEquals(16, WorldParser.parse(dimensions, "gggg\ngggg\ngggg\ngggg\n").size());
+    }
+
+    @Test
+    public void testCarriageReturnsAreNotStripped() {
+        assertSameAsBaseline("gggg\r\ngggg\r\ngggg\r\ngggg\r\n");
+        assertSameAsBaseline("gggg\r\ngggg\r\ngggg\r\ngggg");
+    }
+
+    @Test
+    public void testWrongLineCount() {
+        assertSameAsBaseline("gggg\ngggg\ngggg");
+        assertSameAsBaseline("gggg\ngggg\ngggg\ngggg\ngggg");
+        assertSameAsBaseline("");
+        assertSameAsBaseline("gggg\n\ngggg\ngggg\ngggg");
+    }
+
+    @Test
+    public void testWrongLineLength() {
+        assertSameAsBaseline("gggg\nggg\ngggg\ngggg");
+        assertSameAsBaseline("gggg\ngggg\ngggg\nggggg");
+        assertSameAsBaseline("gggg\n\ngggg\ngggg");
+    }
+
+    @Test
+    public void testEarlierBadSymbolWinsOverLaterBadLength() {
+        assertSameAsBaseline("gggg\ngxgg\ngggg\ngg");
+    }
+
+    @Test
+    public void testEarlierBadLengthWinsOverLaterBadSymbol() {
+        assertSameAsBaseline("gggg\nggggg\ngggg\nxggg");
+    }
+
+    @Test
+    public void testFirstBadSymbolWins() {
+        assertSameAsBaseline("gggg\ngggy\nxggg\ngggg");
+        assertSameAsBaseline("gggg\ngyxg\ngggg\ngggg");
+    }
+
+    @Test
+    public void testByteBufferMatchesString() throws WorldLoadException {
+        String text = "gggg\ngddg\ngwwg\ngggo\n";
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+
+        List<Tile> fromString = WorldParser.parse(dimensions, text);
+        List<Tile> fromBuffer = WorldParser.parse(dimensions, WorldParser.asChars(buffer));
+        assertEquals(fromString.size(), fromBuffer.size());
+        for (int i = 0; i < fromString.size(); i++) {
+            assertEquals(TileFactory.symbolOf(fromString.get(i)),
+                    TileFactory.symbolOf(fromBuffer.get(i)));
+        }
+    }
+
+    /**
+     * Asserts that parsing gives the same tiles, or fails with the same message, as the original
+     * line-splitting parser.
+     */
+    private void assertSameAsBaseline(String text) {
+        String expected = null;
+        List<Tile> expectedTiles = null;
+        try {
+            expectedTiles = baseline(text);
+        } catch (WorldLoadException e) {
+            expected = e.getMessage();
+        }
+
+        try {
+            List<Tile> tiles = WorldParser.parse(dimensions, text);
+            assertNull("Expected failure: " + expected, expected);
+            assertEquals(expectedTiles.size(), tiles.size());
+        } catch (WorldLoadException e) {
+            assertEquals(expected, e.getMessage());
+        }
+    }
+
+    /**
+     * The parser as it was before rows were decoded in place.
+     */
+    private List<Tile> baseline(String text) throws WorldLoadException {
+        String[] lines = text.split("\n");
+        int expectedLines = dimensions.windowSize() / dimensions.tileSize();
+        if (lines.length != expectedLines) {
+            throw new WorldLoadException(
+                    "Expected " + expectedLines + " lines, got " + lines.length);
+        }
+        List<Tile> tiles = new ArrayList<>();
+        for (int y = 0; y < lines.length; y++) {
+            String line = lines[y];
+            if (line.length() != expectedLines) {
+                throw new WorldLoadException("Line " + y + " has " + line.length()
+                        + " characters, expected " + expectedLines);
+            }
+            for (int x = 0; x < line.length(); x++) {
+                char symbol = line.charAt(x);
+                try {
+                    tiles.add(TileFactory.fromSymbol(x * 25, y * 25, symbol));
+                } catch (Exception e) {
+                    throw new WorldLoadException("Invalid symbol '" + symbol
+                            + "' at position (" + x + ", " + y + ")");
+                }
+            }
+        }
+        return tiles;
+    }
+
+    private static class MockDimensions implements Dimensions {
+        @Override
+        public int pixelToTile(int pixel) {
+            return pixel / 25;
+        }
+
+        @Override
+        public int tileToPixel(int tile) {
+            return tile * 25;
+        }
+
+        @Override
+        public int tileSize() {
+            return 25;
+        }
+
+        @Override
+        public int windowSize() {
+            return 100;
+        }
+    }
+}